@@ -0,0 +1,166 @@
+package org.json.simple.benchmark;
+
+import java.util.Random;
+
+/**
+ * Synthetic JSON payloads used by the benchmarks. Every corpus is generated from a fixed seed so runs on different machines and different revisions parse exactly the same text. <p>
+ * @author Daniel J. Umpiérrez
+ */
+public enum Corpus {
+    
+    /**
+     * Small API message (about 1 KB): a flat object with a couple of nested entries, typical of request/response bodies.
+     */
+    SMALL {
+        @Override
+        void generate(Random random, int megabytes, StringBuilder sb) {
+            apiMessage(random, sb);
+        }
+    },
+    /**
+     * Large top-level array of log records, <code>megabytes</code> long.
+     */
+    LOG {
+        @Override
+        void generate(Random random, int megabytes, StringBuilder sb) {
+            long limit = megabytes * 1024L * 1024L;
+            sb.append('[');
+            for (int i = 0; sb.length() < limit; i++) {
+                if (i > 0) sb.append(',');
+                logRecord(random, i, sb);
+            }
+            sb.append(']');
+        }
+    },
+    /**
+     * Deeply nested configuration document: objects and arrays nested 64 levels deep.
+     */
+    NESTED {
+        @Override
+        void generate(Random random, int megabytes, StringBuilder sb) {
+            nestedConfig(random, 64, sb);
+        }
+    },
+    /**
+     * String heavy document: long text values with escapes and non-ASCII characters.
+     */
+    STRINGS {
+        @Override
+        void generate(Random random, int megabytes, StringBuilder sb) {
+            sb.append('[');
+            for (int i = 0; i < 512; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":").append(i).append(",\"title\":");
+                quoted(words(random, 40), sb);
+                sb.append(",\"body\":");
+                quoted(words(random, 2000), sb);
+                sb.append('}');
+            }
+            sb.append(']');
+        }
+    },
+    /**
+     * Number heavy document: 8192 rows of a time series, each an array of a timestamp, integer counters and decimal readings.
+     */
+    NUMBERS {
+        @Override
+        void generate(Random random, int megabytes, StringBuilder sb) {
+            sb.append('[');
+            for (int i = 0; i < 8192; i++) {
+                if (i > 0) sb.append(',');
+                sb.append('[').append(1500000000000L + i * 1000L);
+                sb.append(',').append(random.nextInt(100000)).append(',').append(-random.nextInt(1000));
+                sb.append(',').append(random.nextInt(100000) / 100.0).append(',').append(random.nextDouble() * 180 - 90);
+                sb.append(',').append(random.nextGaussian()).append(',').append(random.nextInt(1000) / 1000.0).append("e3]");
+            }
+            sb.append(']');
+        }
+    };
+    
+    private static final String[] LEVELS = { "TRACE", "DEBUG", "INFO", "WARN", "ERROR" };
+    private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "señal", "größe", "naïve", "日本", "tab\there", "quote\"d", "back\\slash", "line\nbreak", "path/to" };
+    
+    abstract void generate(Random random, int megabytes, StringBuilder sb);
+    
+    /**
+     * Generate the JSON text of this corpus. <p>
+     * @param megabytes approximate size of the {@link #LOG} corpus, ignored by the others. <p>
+     * @return JSON text.
+     */
+    public String text(int megabytes) {
+        StringBuilder sb = new StringBuilder();
+        generate(new Random(0x5EED + ordinal()), megabytes, sb);
+        return sb.toString();
+    }
+    
+    private static void apiMessage(Random random, StringBuilder sb) {
+        sb.append("{\"id\":").append(random.nextInt(1000000));
+        sb.append(",\"type\":\"order.created\",\"version\":3,\"live\":").append(random.nextBoolean());
+        sb.append(",\"created\":").append(1500000000000L + random.nextInt(1000000000));
+        sb.append(",\"customer\":{\"id\":\"cus_").append(Long.toHexString(random.nextLong()));
+        sb.append("\",\"email\":\"someone@example.com\",\"name\":\"Jane Doe\",\"phone\":null}");
+        sb.append(",\"amount\":").append(random.nextInt(100000) / 100.0);
+        sb.append(",\"currency\":\"EUR\",\"items\":[");
+        for (int i = 0; i < 8; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"sku\":\"SKU-").append(random.nextInt(100000)).append("\",\"quantity\":").append(1 + random.nextInt(5));
+            sb.append(",\"price\":").append(random.nextInt(10000) / 100.0).append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        sb.append("],\"metadata\":{\"source\":\"web\",\"campaign\":\"spring\",\"ip\":\"10.0.0.1\"}}");
+    }
+    
+    private static void logRecord(Random random, int i, StringBuilder sb) {
+        sb.append("{\"ts\":").append(1500000000000L + i * 17L);
+        sb.append(",\"level\":\"").append(LEVELS[random.nextInt(LEVELS.length)]);
+        sb.append("\",\"host\":\"node-").append(random.nextInt(64));
+        sb.append("\",\"latency\":").append(random.nextDouble() * 250);
+        sb.append(",\"status\":").append(200 + random.nextInt(4) * 100);
+        sb.append(",\"message\":");
+        quoted(words(random, 60), sb);
+        sb.append('}');
+    }
+    
+    private static void nestedConfig(Random random, int depth, StringBuilder sb) {
+        sb.append("{\"name\":\"level").append(depth).append("\",\"enabled\":true,\"weight\":").append(random.nextDouble());
+        sb.append(",\"values\":[1,2,3,\"x\",null]");
+        if (depth > 0) {
+            sb.append(",\"child\":");
+            nestedConfig(random, depth - 1, sb);
+            sb.append(",\"list\":[[[{\"k\":").append(depth).append("}]]]");
+        }
+        sb.append('}');
+    }
+    
+    private static String words(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length + 16);
+        while (sb.length() < length) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+    
+    private static void quoted(String s, StringBuilder sb) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    sb.append(ch);
+            }
+        }
+        sb.append('"');
+    }
+}
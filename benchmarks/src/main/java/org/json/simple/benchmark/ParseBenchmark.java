@@ -0,0 +1,218 @@
+package org.json.simple.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONValue;
+import org.json.simple.parser.ContainerFactory;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.JSONPath;
+import org.json.simple.parser.NumberPolicy;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of the two parsing front ends: tree building through {@link JSONParser#parse(java.io.Reader, ContainerFactory)} and {@link JSONParser#parse(byte[], int, int)}, and SAX-like streaming through {@link JSONParser#parse(java.io.Reader, ContentHandler)}. <p> Run with
+ * <code>-prof gc</code> to get the allocation rate next to the throughput. <p>
+ * @author Daniel J. Umpiérrez
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class ParseBenchmark {
+    
+    @Param({ "SMALL", "LOG", "NESTED", "STRINGS", "NUMBERS" })
+    Corpus corpus;
+    
+    /**
+     * Size of the {@link Corpus#LOG} document. Use <code>-p logMegabytes=1</code> for quick runs.
+     */
+    @Param({ "100" })
+    int logMegabytes;
+    
+    private String text;
+    private byte[] utf8;
+    private JSONParser parser;
+    private JSONParser keyCachingParser;
+    private JSONParser lazyNumberParser;
+    private JSONParser indexingParser;
+    private JSONPath absentPath;
+    
+    @Setup
+    public void setUp() {
+        text = corpus.text(logMegabytes);
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+        parser = new JSONParser();
+        keyCachingParser = new JSONParser();
+        keyCachingParser.setKeyCacheSize(1024);
+        lazyNumberParser = new JSONParser();
+        lazyNumberParser.setNumberPolicy(NumberPolicy.LAZY);
+        indexingParser = new JSONParser();
+        indexingParser.setStructuralIndexing(true);
+        absentPath = JSONPath.compile("$.absent");
+    }
+    
+    @Benchmark
+    public Object parseContainers() throws IOException, ParseException {
+        return parser.parse(new StringReader(text), (ContainerFactory) null);
+    }
+    
+    @Benchmark
+    public Object parseUTF8Bytes() throws ParseException {
+        return parser.parse(utf8, 0, utf8.length);
+    }
+    
+    @Benchmark
+    public Object parseIndexedBytes() throws ParseException {
+        return indexingParser.parse(utf8, 0, utf8.length);
+    }
+    
+    /**
+     * Top-level arrays split into chunks parsed on the common pool; input below 2 MB is parsed on the calling thread.
+     */
+    @Benchmark
+    public Object parseArrayParallel() throws ParseException {
+        return parser.parseArrayParallel(ByteBuffer.wrap(utf8), (ContainerFactory) null, null);
+    }
+    
+    @Benchmark
+    public Object parseKeyCache() throws IOException, ParseException {
+        return keyCachingParser.parse(new StringReader(text), (ContainerFactory) null);
+    }
+    
+    @Benchmark
+    public Object parseLazyNumbers() throws IOException, ParseException {
+        return lazyNumberParser.parse(new StringReader(text), (ContainerFactory) null);
+    }
+    
+    /**
+     * Lazy parse that reads only the top level of the document, as a gateway that looks at a couple of fields does.
+     */
+    @Benchmark
+    public int parseLazyTopLevel() throws ParseException {
+        Object root = parser.parseLazy(text);
+        return root instanceof Map ? ((Map<?, ?>) root).size() : ((List<?>) root).size();
+    }
+    
+    /**
+     * JSONPath extraction that selects nothing, so every subtree below the root is skipped without being scanned into tokens.
+     */
+    @Benchmark
+    public Object parseJSONPathSkip() throws ParseException {
+        return absentPath.read(text);
+    }
+    
+    /**
+     * One new parser per call, as JSONValue used to do.
+     */
+    @Benchmark
+    public Object parseNewParser() throws ParseException {
+        return new JSONParser().parse(text);
+    }
+    
+    /**
+     * Parsers taken from the pool behind JSONValue.
+     */
+    @Benchmark
+    public Object parseJSONValue() throws ParseException {
+        return JSONValue.parseWithException(text);
+    }
+    
+    @Benchmark
+    public void parseContentHandler(Blackhole bh) throws IOException, ParseException {
+        parser.parse(new StringReader(text), new ConsumingHandler(bh, null));
+    }
+    
+    /**
+     * Stream processing that reads the top two levels of the document and has the parser skip every object and array below them.
+     */
+    @Benchmark
+    public void parseContentHandlerSkip(Blackhole bh) throws IOException, ParseException {
+        parser.parse(new StringReader(text), new ConsumingHandler(bh, parser));
+    }
+    
+    /**
+     * Content handler that hands every event to the black hole so that nothing is optimized away, and optionally skips the objects and arrays nested deeper than two levels.
+     */
+    static final class ConsumingHandler implements ContentHandler {
+        
+        private final Blackhole bh;
+        private final JSONParser skipper;
+        private int depth = 0;
+        
+        ConsumingHandler(Blackhole bh, JSONParser skipper) {
+            this.bh = bh;
+            this.skipper = skipper;
+        }
+        
+        private boolean start() {
+            if (++depth > 2 && skipper != null) skipper.skipValue();
+            return true;
+        }
+        
+        @Override
+        public void startJSON() {}
+        
+        @Override
+        public void endJSON() {}
+        
+        @Override
+        public boolean startObject() {
+            return start();
+        }
+        
+        @Override
+        public boolean endObject() {
+            depth--;
+            return true;
+        }
+        
+        @Override
+        public boolean startObjectEntry(String key) {
+            bh.consume(key);
+            return true;
+        }
+        
+        @Override
+        public boolean endObjectEntry() {
+            return true;
+        }
+        
+        @Override
+        public boolean startArray() {
+            return start();
+        }
+        
+        @Override
+        public boolean endArray() {
+            depth--;
+            return true;
+        }
+        
+        @Override
+        public boolean primitive(Object value) {
+            bh.consume(value);
+            return true;
+        }
+    }
+}
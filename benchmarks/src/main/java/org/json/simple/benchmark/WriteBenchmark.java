@@ -0,0 +1,158 @@
+package org.json.simple.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.JSONWriter;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the serializers: {@link JSONValue#toJSONString(Object)} and streaming output through {@link JSONValue#writeJSONString(Object, Writer)}, which reaches {@link JSONObject#writeJSONString(JSONObject, Writer)} for
+ * every object of the tree. <p>
+ * @author Daniel J. Umpiérrez
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class WriteBenchmark {
+    
+    @Param({ "SMALL", "LOG", "NESTED", "STRINGS", "NUMBERS" })
+    Corpus corpus;
+    
+    /**
+     * Size of the {@link Corpus#LOG} document. Use <code>-p logMegabytes=1</code> for quick runs.
+     */
+    @Param({ "100" })
+    int logMegabytes;
+    
+    private Object tree;
+    private final CountingWriter out = new CountingWriter();
+    private final JSONWriter bufferedOut = new JSONWriter(out);
+    private final CountingOutputStream byteOut = new CountingOutputStream();
+    private ByteBuffer directBuffer;
+    
+    @Setup
+    public void setUp() throws ParseException {
+        tree = new JSONParser().parse(corpus.text(logMegabytes));
+        directBuffer = ByteBuffer.allocateDirect(JSONValue.toJSONString(tree).getBytes(StandardCharsets.UTF_8).length);
+    }
+    
+    @Benchmark
+    public String toJSONString() {
+        return JSONValue.toJSONString(tree);
+    }
+    
+    @Benchmark
+    public long writeJSONString() throws IOException {
+        out.count = 0;
+        JSONValue.writeJSONString(tree, out);
+        return out.count;
+    }
+    
+    /**
+     * The same output collected in the buffer of a JSONWriter and handed to the sink in blocks.
+     */
+    @Benchmark
+    public long writeJSONWriter() throws IOException {
+        out.count = 0;
+        JSONValue.writeJSONString(tree, bufferedOut);
+        bufferedOut.flush();
+        return out.count;
+    }
+    
+    /**
+     * The text as UTF-8 the usual way: a String encoded by String.getBytes.
+     */
+    @Benchmark
+    public byte[] toJSONStringBytes() {
+        return JSONValue.toJSONString(tree).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * The text encoded to UTF-8 as it is produced.
+     */
+    @Benchmark
+    public long writeJSONBytes() throws IOException {
+        byteOut.count = 0;
+        JSONValue.writeJSONBytes(tree, byteOut);
+        return byteOut.count;
+    }
+    
+    /**
+     * The text encoded to UTF-8 into a direct buffer, ready for a channel.
+     */
+    @Benchmark
+    public int writeDirectByteBuffer() throws IOException {
+        directBuffer.clear();
+        JSONValue.writeJSONString(tree, directBuffer);
+        return directBuffer.position();
+    }
+    
+    /**
+     * Stream that only counts bytes.
+     */
+    static final class CountingOutputStream extends OutputStream {
+        
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+    
+    /**
+     * Writer that only counts characters, so the benchmark measures serialization and not the sink.
+     */
+    static final class CountingWriter extends Writer {
+        
+        long count;
+        
+        @Override
+        public void write(int c) {
+            count++;
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+        
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+        
+        @Override
+        public void flush() {}
+        
+        @Override
+        public void close() {}
+    }
+}
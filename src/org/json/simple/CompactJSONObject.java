@@ -0,0 +1,560 @@
+package org.json.simple;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A JSON object for the many small objects of a parsed document. Entries are kept in insertion order in two parallel arrays of keys and values, without a hash table or an entry object per mapping, which takes roughly half the
+ * memory of a JSONObject. Up to 16 entries a key is found by a linear scan of the keys, comparing their cached hash codes first; larger objects get an open-addressing index into the arrays. Removing an entry shifts the entries
+ * after it, so it takes time proportional to the size of the object. <p> The object is written in insertion order by toJSONString() and writeJSONString(Writer). Use CompactContainerFactory to have JSONParser create it. <p>
+ * It is a JSONObject, so that code written for the objects JSONParser returns keeps working when they are compact: casts of parsed values to JSONObject, instanceof JSONObject checks, and ContainerFactory implementations
+ * declared to return JSONObject. None of the state of the underlying HashMap is used, though; its table stays empty. Every public method of HashMap is reimplemented over the arrays, which CompactJSONObjectTest checks against
+ * the HashMap of the running JDK, but code that reads the fields of HashMap directly, e.g. a serializer working by reflection, sees an empty map. <p>
+ * @see org.json.simple.parser.CompactContainerFactory
+ * @author Daniel J. Umpiérrez
+ */
+public class CompactJSONObject extends JSONObject {
+    
+    private static final long serialVersionUID = 6152286413377960742L;
+    /** largest size at which keys are looked up by a linear scan */
+    private static final int LINEAR_LIMIT = 16;
+    private static final String[] NO_KEYS = {};
+    private static final Object[] NO_VALUES = {};
+    private String[] keys = NO_KEYS;
+    private Object[] values = NO_VALUES;
+    private int size = 0;
+    /** open-addressing table of entry position + 1, 0 for a free slot, or null while size is at most LINEAR_LIMIT */
+    private transient int[] index;
+    private transient int modCount;
+    private transient Set<String> keySet;
+    private transient Collection<Object> valuesView;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+    
+    /**
+     * Constructor de clase. <p>
+     */
+    public CompactJSONObject() {
+        super();
+    }
+    
+    /**
+     * Allows creation of a CompactJSONObject from a Map. After that, both the generated CompactJSONObject and the Map can be modified independently. <p>
+     * @param map the entries to copy, in the iteration order of the map.
+     */
+    public CompactJSONObject(Map<String, ?> map) {
+        super();
+        putAll(map);
+    }
+    
+    /**
+     * @param i position of an entry.
+     * @return the key of the entry.
+     */
+    String keyAt(int i) {
+        return keys[i];
+    }
+    
+    /**
+     * @param i position of an entry.
+     * @return the value of the entry.
+     */
+    Object valueAt(int i) {
+        return values[i];
+    }
+    
+    private static int hash(Object key) {
+        return key == null ? 0 : key.hashCode();
+    }
+    
+    private static boolean matches(String k, Object key, int hash) {
+        return k == key || k != null && k.hashCode() == hash && k.equals(key);
+    }
+    
+    /**
+     * @param key the key to find.
+     * @return the position of the entry with the given key, or -1.
+     */
+    private int indexOf(Object key) {
+        int hash = hash(key);
+        if (size <= LINEAR_LIMIT) {
+            String[] k = keys;
+            for (int i = 0; i < size; i++) {
+                if (matches(k[i], key, hash)) return i;
+            }
+            return -1;
+        }
+        if (index == null) rebuildIndex();
+        int mask = index.length - 1;
+        for (int slot = (hash ^ (hash >>> 16)) & mask;; slot = (slot + 1) & mask) {
+            int p = index[slot];
+            if (p == 0) return -1;
+            if (matches(keys[p - 1], key, hash)) return p - 1;
+        }
+    }
+    
+    private void rebuildIndex() {
+        int length = Integer.highestOneBit(Math.max(keys.length, LINEAR_LIMIT) * 2 - 1) << 1;
+        index = new int[length];
+        for (int i = 0; i < size; i++) {
+            insertIndex(i);
+        }
+    }
+    
+    private void insertIndex(int i) {
+        int hash = hash(keys[i]);
+        int mask = index.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = i + 1;
+    }
+    
+    /**
+     * Adds an entry whose key is not in the map.
+     */
+    private void append(String key, Object value) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            index = null;
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+        if (size > LINEAR_LIMIT) {
+            if (index == null)
+                rebuildIndex();
+            else
+                insertIndex(size - 1);
+        }
+    }
+    
+    private Object removeAt(int i) {
+        Object old = values[i];
+        int moved = size - i - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(values, i + 1, values, i, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        index = null;
+        return old;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+    
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(values[i], value)) return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public Object put(String key, Object value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+        append(key, value);
+        return null;
+    }
+    
+    @Override
+    public void add(String key, Object value) {
+        put(key, value);
+    }
+    
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> map) {
+        for (Map.Entry<? extends String, ? extends Object> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    @Override
+    public Object remove(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : removeAt(i);
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+    
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+    
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        int i = indexOf(key);
+        if (i < 0) {
+            append(key, value);
+            return null;
+        }
+        Object old = values[i];
+        if (old == null) values[i] = value;
+        return old;
+    }
+    
+    @Override
+    public boolean remove(Object key, Object value) {
+        int i = indexOf(key);
+        if (i < 0 || !Objects.equals(values[i], value)) return false;
+        removeAt(i);
+        return true;
+    }
+    
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        int i = indexOf(key);
+        if (i < 0 || !Objects.equals(values[i], oldValue)) return false;
+        values[i] = newValue;
+        return true;
+    }
+    
+    @Override
+    public Object replace(String key, Object value) {
+        int i = indexOf(key);
+        if (i < 0) return null;
+        Object old = values[i];
+        values[i] = value;
+        return old;
+    }
+    
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        int i = indexOf(key);
+        if (i >= 0 && values[i] != null) return values[i];
+        int expectedModCount = modCount;
+        Object value = mappingFunction.apply(key);
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        if (value == null) return null;
+        if (i >= 0)
+            values[i] = value;
+        else
+            append(key, value);
+        return value;
+    }
+    
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int i = indexOf(key);
+        if (i < 0 || values[i] == null) return null;
+        int expectedModCount = modCount;
+        Object value = remappingFunction.apply(key, values[i]);
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        if (value == null)
+            removeAt(i);
+        else
+            values[i] = value;
+        return value;
+    }
+    
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int i = indexOf(key);
+        int expectedModCount = modCount;
+        Object value = remappingFunction.apply(key, i < 0 ? null : values[i]);
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        if (value == null) {
+            if (i >= 0) removeAt(i);
+        } else if (i >= 0) {
+            values[i] = value;
+        } else {
+            append(key, value);
+        }
+        return value;
+    }
+    
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        int i = indexOf(key);
+        if (i < 0) {
+            append(key, value);
+            return value;
+        }
+        Object newValue = value;
+        if (values[i] != null) {
+            int expectedModCount = modCount;
+            newValue = remappingFunction.apply(values[i], value);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+        if (newValue == null)
+            removeAt(i);
+        else
+            values[i] = newValue;
+        return newValue;
+    }
+    
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+    
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++) {
+            values[i] = function.apply(keys[i], values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+    
+    @Override
+    public Object clone() {
+        CompactJSONObject clone = (CompactJSONObject) super.clone();
+        clone.clearHashMap();
+        clone.keys = Arrays.copyOf(keys, size);
+        clone.values = Arrays.copyOf(values, size);
+        clone.index = null;
+        clone.modCount = 0;
+        clone.keySet = null;
+        clone.valuesView = null;
+        clone.entrySet = null;
+        return clone;
+    }
+    
+    /**
+     * Empties the table of the underlying HashMap, which HashMap.clone() fills with a copy of the entries.
+     */
+    private void clearHashMap() {
+        super.clear();
+    }
+    
+    @Override
+    public Set<String> keySet() {
+        if (keySet == null) keySet = new KeySet();
+        return keySet;
+    }
+    
+    @Override
+    public Collection<Object> values() {
+        if (valuesView == null) valuesView = new Values();
+        return valuesView;
+    }
+    
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) entrySet = new EntrySet();
+        return entrySet;
+    }
+    
+    /**
+     * Iterates over the entries in insertion order.
+     */
+    private abstract class EntryIterator<E> implements Iterator<E> {
+        
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+        
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+        
+        /**
+         * @return the position of the next entry.
+         */
+        int nextIndex() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next >= size) throw new NoSuchElementException();
+            last = next++;
+            return last;
+        }
+        
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+    
+    private final class KeySet extends AbstractSet<String> {
+        
+        @Override
+        public Iterator<String> iterator() {
+            return new EntryIterator<String>() {
+                
+                @Override
+                public String next() {
+                    return keys[nextIndex()];
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+        
+        @Override
+        public boolean remove(Object o) {
+            int i = indexOf(o);
+            if (i < 0) return false;
+            removeAt(i);
+            return true;
+        }
+        
+        @Override
+        public void clear() {
+            CompactJSONObject.this.clear();
+        }
+    }
+    
+    private final class Values extends AbstractCollection<Object> {
+        
+        @Override
+        public Iterator<Object> iterator() {
+            return new EntryIterator<Object>() {
+                
+                @Override
+                public Object next() {
+                    return values[nextIndex()];
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+        
+        @Override
+        public void clear() {
+            CompactJSONObject.this.clear();
+        }
+    }
+    
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+        
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator<Map.Entry<String, Object>>() {
+                
+                @Override
+                public Map.Entry<String, Object> next() {
+                    int i = nextIndex();
+                    return new Entry(keys[i], values[i]);
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int i = indexOf(entry.getKey());
+            return i >= 0 && Objects.equals(values[i], entry.getValue());
+        }
+        
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return CompactJSONObject.this.remove(entry.getKey(), entry.getValue());
+        }
+        
+        @Override
+        public void clear() {
+            CompactJSONObject.this.clear();
+        }
+    }
+    
+    /**
+     * Entry returned by the entry set iterator. setValue writes through to the map.
+     */
+    private final class Entry extends AbstractMap.SimpleEntry<String, Object> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        Entry(String key, Object value) {
+            super(key, value);
+        }
+        
+        @Override
+        public Object setValue(Object value) {
+            super.setValue(value);
+            return put(getKey(), value);
+        }
+    }
+}
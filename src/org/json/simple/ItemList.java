@@ -201,7 +201,7 @@ public class ItemList {
      * @return String type with all data contained in this ItemList
      */
     public String toString(String sp) {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         for (int i = 0; i < items.size(); i++) {
             if (i == 0)
                 sb.append(items.get(i));
@@ -10,7 +10,7 @@ import java.util.Iterator;
 import java.util.List;
 
 /**
- * A JSON array. JSONObject supports java.util.List interface. <p>
+ * A JSON array. JSONObject supports java.util.List interface. See NumericJSONArray for arrays of numbers stored without boxing. <p>
  * @author FangYidong<fangyidong@yahoo.com.cn>
  * @author Daniel J. Umpiérrez
  */
@@ -29,11 +29,12 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
      * @param out type Writer containing object who will write encoded string to somewhere. <p>
      * @throws IOException in case of file errors related.
      */
-    public static void writeJSONString(List<Object> list, Writer out) throws IOException {
+    public static void writeJSONString(List<?> list, Writer out) throws IOException {
         if (list == null) {
             out.write(NULL);
             return;
         }
+        if (list instanceof NumericJSONArray && ((NumericJSONArray) list).writePrimitives(out)) return;
         boolean first = true;
         Iterator<?> iter = list.iterator();
         out.write('[');
@@ -63,10 +64,21 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
      * @param list type List containing data where to get JSON string. <p>
      * @return JSON text, or NULL if list is null.
      */
-    public static String toJSONString(List<Object> list) {
+    public static String toJSONString(List<?> list) {
         if (list == null) return NULL;
+        StringBuilder sb = new StringBuilder(JSONValue.estimateLength(list));
+        toJSONString(list, sb);
+        return sb.toString();
+    }
+    
+    /**
+     * Append the JSON text of a list to a builder, as toJSONString(List) returns it. <p>
+     * @param list - the list, not null.
+     * @param sb - the builder.
+     */
+    static void toJSONString(List<?> list, StringBuilder sb) {
+        if (list instanceof NumericJSONArray && ((NumericJSONArray) list).appendPrimitives(sb)) return;
         boolean first = true;
-        StringBuffer sb = new StringBuffer();
         Iterator<?> iter = list.iterator();
         sb.append('[');
         while (iter.hasNext()) {
@@ -79,10 +91,9 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
                 sb.append(NULL);
                 continue;
             }
-            sb.append(JSONValue.toJSONString(value));
+            JSONValue.toJSONString(value, sb);
         }
         sb.append(']');
-        return sb.toString();
     }
     
     @Override
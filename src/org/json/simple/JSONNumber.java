@@ -0,0 +1,150 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A JSON number kept as the characters it was written with. JSONParser creates them with NumberPolicy.LAZY. <p> The characters are converted only when a value is first asked for, and the result is kept: an integer becomes a
+ * Long, or a BigInteger if it does not fit in a long, and any other number a Double. bigDecimalValue() gives the exact value of any number. Serialization writes the original characters back without converting them, so
+ * numeric fields that are only read and written again cost one String each and keep their exact text. <p> Two JSONNumbers are equal if their characters are equal: 1.0 and 1.00 are different. <p>
+ * @author Daniel J. Umpiérrez
+ */
+public final class JSONNumber extends Number implements JSONAware, JSONStreamAware {
+    
+    private static final long serialVersionUID = 4630379741521931583L;
+    private final String text;
+    private final boolean integral;
+    /**
+     * The converted value, or null until a value is first asked for.
+     */
+    private transient Number value;
+    
+    /**
+     * Class constructor. <p>
+     * @param text - the characters of the number: an optional minus sign and digits, followed by an optional fraction and an optional exponent.
+     * @throws NumberFormatException if text is not a JSON number.
+     */
+    public JSONNumber(String text) {
+        this.text = text;
+        this.integral = checkSyntax(text);
+    }
+    
+    /**
+     * @return Whether text is an integer, i.e. it has neither a fraction nor an exponent.
+     */
+    private static boolean checkSyntax(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && text.charAt(i) == '-') i++;
+        int start = i;
+        while (i < length && isDigit(text.charAt(i)))
+            i++;
+        if (i == start) throw new NumberFormatException("Not a JSON number: \"" + text + "\"");
+        if (i == length) return true;
+        if (text.charAt(i) == '.') {
+            start = ++i;
+            while (i < length && isDigit(text.charAt(i)))
+                i++;
+            if (i == start) throw new NumberFormatException("Not a JSON number: \"" + text + "\"");
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) i++;
+            start = i;
+            while (i < length && isDigit(text.charAt(i)))
+                i++;
+            if (i == start) throw new NumberFormatException("Not a JSON number: \"" + text + "\"");
+        }
+        if (i < length) throw new NumberFormatException("Not a JSON number: \"" + text + "\"");
+        return false;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * Converts the characters on the first call. <p>
+     * @return The value as a Long, a BigInteger if it is an integer that does not fit in a long, or a Double.
+     */
+    public Number toNumber() {
+        Number v = value;
+        if (v == null) {
+            if (!integral)
+                v = Double.valueOf(text);
+            else if (text.length() <= 18)
+                v = Long.valueOf(text);
+            else {
+                BigInteger big = new BigInteger(text);
+                v = big.bitLength() < 64 ? (Number) Long.valueOf(big.longValue()) : big;
+            }
+            value = v;
+        }
+        return v;
+    }
+    
+    /**
+     * @return The exact value.
+     */
+    public BigDecimal bigDecimalValue() {
+        return new BigDecimal(text);
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the number has neither a fraction nor an exponent.
+     */
+    public boolean isIntegral() {
+        return integral;
+    }
+    
+    @Override
+    public int intValue() {
+        return toNumber().intValue();
+    }
+    
+    @Override
+    public long longValue() {
+        return toNumber().longValue();
+    }
+    
+    @Override
+    public float floatValue() {
+        return toNumber().floatValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        return toNumber().doubleValue();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JSONNumber && text.equals(((JSONNumber) o).text);
+    }
+    
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+    
+    /**
+     * @return The original characters of the number.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+    
+    @Override
+    public String toJSONString() {
+        return text;
+    }
+    
+    @Override
+    public void writeJSONString(Writer out) throws IOException {
+        out.write(text);
+    }
+}
@@ -11,7 +11,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 /**
- * A JSON object. Key value pairs are unordered. JSONObject supports java.util.Map interface.<p>
+ * A JSON object. Key value pairs are unordered. JSONObject supports java.util.Map interface. See CompactJSONObject for a smaller, insertion-ordered JSON object.<p>
  * @author FangYidong<fangyidong@yahoo.com.cn>
  * @author Daniel J. Umpiérrez
  */
@@ -34,40 +34,52 @@ public class JSONObject extends HashMap<String, Object> implements JSONAware, JS
      * Allows creation of a JSONObject from a Map. After that, both the generated JSONObject and the Map can be modified independently. <p>
      * @param map
      */
-    public JSONObject(JSONObject map) {
+    public JSONObject(Map<String, ?> map) {
         super(map);
     }
     
     /**
      * Encode a map into JSON text and write it to out. If this map is also a JSONAware or JSONStreamAware, JSONAware or JSONStreamAware specific behaviours will be ignored at this top level. <p>
      * @see org.json.simple.JSONValue#writeJSONString(Object, Writer) <p>
-     * @param map TODO
+     * @param map any Map; keys are written with String.valueOf(Object).
      * @param out TODO
      * @throws IOException TODO
      */
-    public static void writeJSONString(JSONObject map, Writer out) throws IOException {
+    public static void writeJSONString(Map<?, ?> map, Writer out) throws IOException {
         if (map == null) {
             out.write(NULL);
             return;
         }
-        boolean first = true;
-        Iterator<Entry<String, Object>> iter = map.entrySet().iterator();
         out.write('{');
-        while (iter.hasNext()) {
-            if (first)
-                first = false;
-            else
-                out.write(',');
-            Entry<String, Object> entry = iter.next();
-            out.write('\"');
-            out.write(escape(String.valueOf(entry.getKey())));
-            out.write('\"');
-            out.write(':');
-            JSONValue.writeJSONString(entry.getValue(), out);
+        if (map instanceof CompactJSONObject) {
+            CompactJSONObject compact = (CompactJSONObject) map;
+            for (int i = 0; i < compact.size(); i++) {
+                if (i > 0) out.write(',');
+                writeJSONString(compact.keyAt(i), compact.valueAt(i), out);
+            }
+        } else {
+            boolean first = true;
+            Iterator<? extends Entry<?, ?>> iter = map.entrySet().iterator();
+            while (iter.hasNext()) {
+                if (first)
+                    first = false;
+                else
+                    out.write(',');
+                Entry<?, ?> entry = iter.next();
+                writeJSONString(entry.getKey(), entry.getValue(), out);
+            }
         }
         out.write('}');
     }
     
+    private static void writeJSONString(Object key, Object value, Writer out) throws IOException {
+        out.write('\"');
+        JSONValue.escape(String.valueOf(key), out);
+        out.write('\"');
+        out.write(':');
+        JSONValue.writeJSONString(value, out);
+    }
+    
     @Override
     public void writeJSONString(Writer out) throws IOException {
         writeJSONString(this, out);
@@ -75,26 +87,43 @@ public class JSONObject extends HashMap<String, Object> implements JSONAware, JS
     
     /**
      * Convert a map to JSON text. The result is a JSON object. If this map is also a JSONAware, JSONAware specific behaviors will be omitted at this top level. <p>
-     * @param map type Map with data to be converted to JSON text. <p>
+     * @param map type Map with data to be converted to JSON text; keys are written with String.valueOf(Object). <p>
      * @return JSON text, or NULL if map is null. <p>
      * @see org.json.simple.JSONValue#toJSONString(Object)
      */
-    public static String toJSONString(Map<String, Object> map) {
+    public static String toJSONString(Map<?, ?> map) {
         if (map == null) return NULL;
-        StringBuffer sb = new StringBuffer();
-        boolean first = true;
-        Iterator<Map.Entry<String, Object>> iter = map.entrySet().iterator();
+        StringBuilder sb = new StringBuilder(JSONValue.estimateLength(map));
+        toJSONString(map, sb);
+        return sb.toString();
+    }
+    
+    /**
+     * Append the JSON text of a map to a builder, as toJSONString(Map) returns it. <p>
+     * @param map - the map, not null.
+     * @param sb - the builder.
+     */
+    static void toJSONString(Map<?, ?> map, StringBuilder sb) {
         sb.append('{');
-        while (iter.hasNext()) {
-            if (first)
-                first = false;
-            else
-                sb.append(',');
-            Map.Entry<String, Object> entry = iter.next();
-            toJSONString(String.valueOf(entry.getKey()), entry.getValue(), sb);
+        if (map instanceof CompactJSONObject) {
+            CompactJSONObject compact = (CompactJSONObject) map;
+            for (int i = 0; i < compact.size(); i++) {
+                if (i > 0) sb.append(',');
+                toJSONString(String.valueOf(compact.keyAt(i)), compact.valueAt(i), sb);
+            }
+        } else {
+            boolean first = true;
+            Iterator<? extends Map.Entry<?, ?>> iter = map.entrySet().iterator();
+            while (iter.hasNext()) {
+                if (first)
+                    first = false;
+                else
+                    sb.append(',');
+                Map.Entry<?, ?> entry = iter.next();
+                toJSONString(String.valueOf(entry.getKey()), entry.getValue(), sb);
+            }
         }
         sb.append('}');
-        return sb.toString();
     }
     
     /**
@@ -107,15 +136,14 @@ public class JSONObject extends HashMap<String, Object> implements JSONAware, JS
         return toJSONString(this);
     }
     
-    private static String toJSONString(String key, Object value, StringBuffer sb) {
+    private static void toJSONString(String key, Object value, StringBuilder sb) {
         sb.append('\"');
         if (key == null)
             sb.append(NULL);
         else
             JSONValue.escape(key, sb);
         sb.append('\"').append(':');
-        sb.append(JSONValue.toJSONString(value));
-        return sb.toString();
+        JSONValue.toJSONString(value, sb);
     }
     
     @Override
@@ -131,7 +159,7 @@ public class JSONObject extends HashMap<String, Object> implements JSONAware, JS
      * @return JSON text, or NULL if map is null.
      */
     public static String toString(String key, Object value) {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         toJSONString(key, value, sb);
         return sb.toString();
     }
@@ -4,13 +4,16 @@
 package org.json.simple;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
-import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.JSONParserPool;
 import org.json.simple.parser.ParseException;
 
 /**
@@ -23,9 +26,53 @@ public class JSONValue {
      * Constante con texto NULL.
      */
     public static final String NULL = "null";
+    /**
+     * Parsers shared by the parse methods.
+     */
+    private static final JSONParserPool PARSERS = new JSONParserPool();
+    /**
+     * Escape sequences of the characters below U+00A0, or null for the characters written as they are.
+     */
+    private static final String[] ESCAPES = new String[0xA0];
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /**
+     * Whether a class inherits toJSONString() from JSONObject or JSONArray, so that its text can be appended to the builder of its container.
+     */
+    private static final ClassValue<Boolean> INHERITS_TO_JSON_STRING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> declaring = type.getMethod("toJSONString").getDeclaringClass();
+                return Boolean.valueOf(declaring == JSONObject.class || declaring == JSONArray.class);
+            } catch (NoSuchMethodException e) {
+                return Boolean.FALSE;
+            }
+        }
+    };
+    /**
+     * Number of elements of a container, and of values in all, estimateLength(Object) looks at; and the largest estimate, beyond which the builder grows as needed.
+     */
+    private static final int ESTIMATE_SAMPLE = 8;
+    private static final int ESTIMATE_BUDGET = 256;
+    private static final int MAX_ESTIMATE = 1 << 24;
+    
+    static {
+        for (int ch = 0; ch < ESCAPES.length; ch++) {
+            if (ch <= 0x1F || ch >= 0x7F) ESCAPES[ch] = "\\u00" + HEX_DIGITS[ch >> 4] + HEX_DIGITS[ch & 0xF];
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['/'] = "\\/";
+    }
     
     /**
-     * Parse JSON text into java object from the input source. Please use parseWithException() if you don't want to ignore the exception. <p>
+     * Parse JSON text into java object from the input source. Please use parseWithException() if you don't want to ignore the exception. <p> The parse methods of this class take their parser from a shared JSONParserPool, so they may be called
+     * from any number of threads. <p>
      * @see org.json.simple.parser.JSONParser#parse(Reader)
      * @see #parseWithException(Reader) <p>
      * @param in Reader object instance containing JSON data to be parsed. <p>
@@ -33,8 +80,7 @@ public class JSONValue {
      */
     public static Object parse(Reader in) {
         try {
-            JSONParser parser = new JSONParser();
-            return parser.parse(in);
+            return PARSERS.parse(in);
         } catch (Exception e) {
             return null;
         }
@@ -59,8 +105,7 @@ public class JSONValue {
      * @throws ParseException
      */
     public static Object parseWithException(Reader in) throws IOException, ParseException {
-        JSONParser parser = new JSONParser();
-        return parser.parse(in);
+        return PARSERS.parse(in);
     }
     
     /**
@@ -70,14 +115,13 @@ public class JSONValue {
      * @throws ParseException in case of <pre>s</pre> parameter format error.
      */
     public static Object parseWithException(String s) throws ParseException {
-        JSONParser parser = new JSONParser();
-        return parser.parse(s);
+        return PARSERS.parse(s);
     }
     
     /**
      * Encode an object into JSON text and write it to out. <p> If this object is a Map or a List, and it's also a JSONStreamAware or a JSONAware, JSONStreamAware or JSONAware will be considered firstly. <p> DO NOT call this method from
      * writeJSONString(Writer) of a class that implements both JSONStreamAware and (Map or List) with "this" as the first parameter, use JSONObject.writeJSONString(Map, Writer) or JSONArray.writeJSONString(List, Writer) instead. <p>
-     * @see org.json.simple.JSONObject#writeJSONString(JSONObject, Writer)
+     * @see org.json.simple.JSONObject#writeJSONString(Map, Writer)
      * @see org.json.simple.JSONArray#writeJSONString(List, Writer) <p>
      * @param value data to be wrote.
      * @param out Writer object instance pointing to desired output. <p>
@@ -90,7 +134,7 @@ public class JSONValue {
         }
         if (value instanceof String) {
             out.write('\"');
-            out.write(escape((String) value));
+            escape((String) value, out);
             out.write('\"');
             return;
         }
@@ -125,19 +169,53 @@ public class JSONValue {
             return;
         }
         if (value instanceof Map) {
-            JSONObject.writeJSONString((JSONObject) value, out);
+            JSONObject.writeJSONString((Map<?, ?>) value, out);
             return;
         }
         if (value instanceof List) {
-            JSONArray.writeJSONString((JSONArray) value, out);
+            JSONArray.writeJSONString((List<?>) value, out);
             return;
         }
         out.write(value.toString());
     }
     
+    /**
+     * Encode an object into JSON text and write it to out as UTF-8, as writeJSONString(Object, Writer) does. The chars are encoded straight into bytes as they are produced, so neither a String of the whole text nor an
+     * OutputStreamWriter is needed. The bytes are handed to out in blocks; out is neither flushed nor closed. <p>
+     * @param value - data to be written.
+     * @param out - the stream the UTF-8 encoded JSON text is written to.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public static void writeJSONBytes(Object value, OutputStream out) throws IOException {
+        UTF8Writer writer = new UTF8Writer(out);
+        writeJSONString(value, writer);
+        writer.finish();
+    }
+    
+    /**
+     * Encode an object into JSON text and put it into a buffer as UTF-8, as writeJSONString(Object, Writer) does. The bytes are written from the position of the buffer, which is moved past them; a heap buffer is written
+     * in place. A direct buffer filled this way can be written to a channel as it is, e.g. together with a header buffer by a gathering SocketChannel.write(ByteBuffer[]). <p>
+     * @param value - data to be written.
+     * @param buffer - the buffer the UTF-8 encoded JSON text is put into.
+     * @throws BufferOverflowException - if the text does not fit in the remaining bytes of the buffer; the position of the buffer is then left unchanged.
+     * @throws IOException - if a JSONStreamAware value throws it.
+     */
+    public static void writeJSONString(Object value, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        try {
+            UTF8Writer writer = new UTF8Writer(buffer);
+            writeJSONString(value, writer);
+            writer.finish();
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+    
     /**
      * Convert an object to JSON text. <p> If this object is a Map or a List, and it's also a JSONAware, JSONAware will be considered firstly. <p> DO NOT call this method from toJSONString() of a class that implements both JSONAware and Map
-     * or List with "this" as the parameter, use JSONObject.toJSONString(Map) or JSONArray.toJSONString(List) instead. <p>
+     * or List with "this" as the parameter, use JSONObject.toJSONString(Map) or JSONArray.toJSONString(List) instead. <p> The text of a container is built in one StringBuilder, sized from the structure of the container, that
+     * the text of every value inside it is appended to. <p>
      * @see org.json.simple.JSONObject#toJSONString(Map)
      * @see org.json.simple.JSONArray#toJSONString(List) <p>
      * @param value instance of JSONObject or JSONArray desired to be returned as String. <p>
@@ -145,7 +223,11 @@ public class JSONValue {
      */
     public static String toJSONString(Object value) {
         if (value == null) return NULL;
-        if (value instanceof String) return "\"" + escape((String) value) + "\"";
+        if (value instanceof String) {
+            StringBuilder sb = new StringBuilder(((String) value).length() + 16);
+            toJSONString(value, sb);
+            return sb.toString();
+        }
         if (value instanceof Double) {
             if (((Double) value).isInfinite() || ((Double) value).isNaN())
                 return NULL;
@@ -160,12 +242,110 @@ public class JSONValue {
         }
         if (value instanceof Number) return value.toString();
         if (value instanceof Boolean) return value.toString();
-        if ((value instanceof JSONAware)) return ((JSONAware) value).toJSONString();
-        if (value instanceof Map) return JSONObject.toJSONString((JSONObject) value);
-        if (value instanceof List) return JSONArray.toJSONString((JSONArray) value);
+        if ((value instanceof JSONAware) && !INHERITS_TO_JSON_STRING.get(value.getClass()).booleanValue()) return ((JSONAware) value).toJSONString();
+        if (value instanceof JSONAware || value instanceof Map || value instanceof List) {
+            StringBuilder sb = new StringBuilder(estimateLength(value));
+            toJSONString(value, sb);
+            return sb.toString();
+        }
         return value.toString();
     }
     
+    /**
+     * Append the JSON text of an object to a builder, as toJSONString(Object) returns it. JSONObject and JSONArray values, and those of subclasses that do not override toJSONString(), are appended straight to the
+     * builder instead of being built as Strings of their own. <p>
+     * @param value - the object.
+     * @param sb - the builder.
+     */
+    static void toJSONString(Object value, StringBuilder sb) {
+        if (value == null) {
+            sb.append(NULL);
+        } else if (value instanceof String) {
+            sb.append('\"');
+            escape((String) value, sb);
+            sb.append('\"');
+        } else if (value instanceof Double) {
+            double d = ((Double) value).doubleValue();
+            if (Double.isInfinite(d) || Double.isNaN(d))
+                sb.append(NULL);
+            else
+                sb.append(d);
+        } else if (value instanceof Float) {
+            float f = ((Float) value).floatValue();
+            if (Float.isInfinite(f) || Float.isNaN(f))
+                sb.append(NULL);
+            else
+                sb.append(f);
+        } else if (value instanceof Long) {
+            sb.append(((Long) value).longValue());
+        } else if (value instanceof Integer) {
+            sb.append(((Integer) value).intValue());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value.toString());
+        } else if (value instanceof JSONAware) {
+            if (!INHERITS_TO_JSON_STRING.get(value.getClass()).booleanValue())
+                sb.append(((JSONAware) value).toJSONString());
+            else if (value instanceof Map)
+                JSONObject.toJSONString((Map<?, ?>) value, sb);
+            else
+                JSONArray.toJSONString((List<?>) value, sb);
+        } else if (value instanceof Map) {
+            JSONObject.toJSONString((Map<?, ?>) value, sb);
+        } else if (value instanceof List) {
+            JSONArray.toJSONString((List<?>) value, sb);
+        } else {
+            sb.append(value.toString());
+        }
+    }
+    
+    /**
+     * Estimate the length of the JSON text of an object from its structure, to size the builder it is built in. Only the first elements of every container are looked at, their average standing for the rest, and values
+     * with a toJSONString() of their own are not looked into. <p>
+     * @param value - the object.
+     * @return the estimated length, at most MAX_ESTIMATE.
+     */
+    static int estimateLength(Object value) {
+        return (int) Math.min(MAX_ESTIMATE, estimate(value, new int[] { ESTIMATE_BUDGET }));
+    }
+    
+    /**
+     * @param budget - the number of values that may still be looked at.
+     */
+    private static long estimate(Object value, int[] budget) {
+        budget[0]--;
+        if (value == null) return 4;
+        if (value instanceof String) return ((String) value).length() + 2;
+        if (value instanceof Number) return 8;
+        if (value instanceof Boolean) return 5;
+        if (value instanceof JSONAware && !INHERITS_TO_JSON_STRING.get(value.getClass()).booleanValue()) return 16;
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            int n = map.size();
+            long sampled = 0;
+            int k = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (k == ESTIMATE_SAMPLE || budget[0] <= 0) break;
+                Object key = entry.getKey();
+                sampled += (key instanceof String ? ((String) key).length() : 8) + 4 + estimate(entry.getValue(), budget);
+                k++;
+            }
+            return 2 + (k == 0 ? n * 16L : sampled * n / k);
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            int n = list.size();
+            long sampled = 0;
+            int k = 0;
+            for (Object element : list) {
+                if (k == ESTIMATE_SAMPLE || budget[0] <= 0) break;
+                sampled += 1 + estimate(element, budget);
+                k++;
+            }
+            return 2 + (k == 0 ? n * 8L : sampled * n / k);
+        }
+        return 16;
+    }
+    
     /**
      * Escape quotes, \, /, \r, \n, \b, \f, \t and other control characters (U+0000 through U+001F). <p>
      * @param s String type with data to be escaped. <p>
@@ -173,56 +353,59 @@ public class JSONValue {
      */
     public static String escape(String s) {
         if (s == null) return null;
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder(s.length() + 16);
         escape(s, sb);
         return sb.toString();
     }
     
     /**
+     * Escape a string as escape(String) does and append it to a builder, the runs of characters that need no escaping with one call each. <p>
+     * @param s - Must not be null.
+     * @param sb - the builder the escaped string is appended to.
+     */
+    static void escape(String s, StringBuilder sb) {
+        int start = 0;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char ch = s.charAt(i);
+            // Reference: http://www.unicode.org/versions/Unicode5.1.0/
+            if (ch < 0xA0 ? ESCAPES[ch] == null : ch < '\u2000' || ch > '\u20FF') continue;
+            if (i > start) sb.append(s, start, i);
+            if (ch < 0xA0) {
+                sb.append(ESCAPES[ch]);
+            } else {
+                sb.append('\\').append('u').append(HEX_DIGITS[ch >> 12]).append(HEX_DIGITS[(ch >> 8) & 0xF]).append(HEX_DIGITS[(ch >> 4) & 0xF]).append(HEX_DIGITS[ch & 0xF]);
+            }
+            start = i + 1;
+        }
+        if (n > start) sb.append(s, start, n);
+    }
+    
+    /**
+     * Escape a string as escape(String) does and write it to out: the runs of characters that need no escaping are written with one call each, so no intermediate String is created. <p>
      * @param s - Must not be null.
-     * @param sb type StringBuffer where all changes will be write.
+     * @param out - Writer the escaped string is written to.
+     * @throws IOException - In case of write exception or similar.
      */
-    static void escape(String s, StringBuffer sb) {
-        for (int i = 0; i < s.length(); i++) {
+    static void escape(String s, Writer out) throws IOException {
+        int start = 0;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
             char ch = s.charAt(i);
-            switch (ch) {
-                case '"':
-                    sb.append("\\\"");
-                    break;
-                case '\\':
-                    sb.append("\\\\");
-                    break;
-                case '\b':
-                    sb.append("\\b");
-                    break;
-                case '\f':
-                    sb.append("\\f");
-                    break;
-                case '\n':
-                    sb.append("\\n");
-                    break;
-                case '\r':
-                    sb.append("\\r");
-                    break;
-                case '\t':
-                    sb.append("\\t");
-                    break;
-                case '/':
-                    sb.append("\\/");
-                    break;
-                default:
-                    // Reference: http://www.unicode.org/versions/Unicode5.1.0/
-                    if ((ch >= '\u0000' && ch <= '\u001F') || (ch >= '\u007F' && ch <= '\u009F') || (ch >= '\u2000' && ch <= '\u20FF')) {
-                        String ss = Integer.toHexString(ch);
-                        sb.append("\\u");
-                        for (int k = 0; k < 4 - ss.length(); k++) {
-                            sb.append('0');
-                        }
-                        sb.append(ss.toUpperCase());
-                    } else {
-                        sb.append(ch);
-                    }
+            if (ch < 0xA0 ? ESCAPES[ch] == null : ch < '\u2000' || ch > '\u20FF') continue;
+            if (i > start) out.write(s, start, i - start);
+            if (ch < 0xA0) {
+                out.write(ESCAPES[ch]);
+            } else {
+                out.write('\\');
+                out.write('u');
+                out.write(HEX_DIGITS[ch >> 12]);
+                out.write(HEX_DIGITS[(ch >> 8) & 0xF]);
+                out.write(HEX_DIGITS[(ch >> 4) & 0xF]);
+                out.write(HEX_DIGITS[ch & 0xF]);
             }
-        }// for
+            start = i + 1;
+        }
+        if (n > start) out.write(s, start, n - start);
     }
 }
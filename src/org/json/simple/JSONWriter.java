@@ -0,0 +1,329 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writer of JSON text that collects its output in a char buffer and writes it to the underlying writer in large blocks, with one call per full buffer instead of one per token. Strings are escaped straight into the buffer,
+ * the runs of characters that need no escaping being copied in bulk, so no intermediate String is created for them. <p> JSON text can be written in two ways, which can be mixed: <p>
+ * <ul>
+ * <li>as a value, with value(Object), which encodes JSONAware, JSONStreamAware, Map, List, String, Number, Boolean and null as JSONValue.writeJSONString(Object, Writer) does;</li>
+ * <li>token by token, with beginObject(), name(String), the value methods, endObject(), beginArray() and endArray(), without building JSONObject or JSONArray trees first. The writer adds the commas and colons and throws
+ * IllegalStateException when a token is not allowed where it is written, e.g. a value in an object without a name before it.</li>
+ * </ul>
+ * <p> The writer holds one JSON text; a second top-level value is not allowed. As a Writer, it can also be handed to JSONValue.writeJSONString(Object, Writer) and JSONStreamAware.writeJSONString(Writer), whose output it
+ * buffers too. Call flush() to write the text collected so far. Please note that JSONWriter is NOT thread-safe. <p>
+ *
+ * <pre>
+ * JSONWriter writer = new JSONWriter(out);
+ * writer.beginObject().name("id").value(42).name("tags").beginArray().value("a").value("b").endArray().endObject();
+ * writer.flush();
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class JSONWriter extends Writer {
+    
+    /**
+     * Default size of the buffer, in chars.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+    
+    /* states of the open values: the document itself, objects and arrays */
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_OBJECT = 2;
+    private static final byte NONEMPTY_OBJECT = 3;
+    /** in an object, after a name */
+    private static final byte DANGLING_NAME = 4;
+    private static final byte EMPTY_ARRAY = 5;
+    private static final byte NONEMPTY_ARRAY = 6;
+    
+    private final Writer out;
+    private final char[] buffer;
+    private int count = 0;
+    /** state stack, the top at depth - 1 */
+    private byte[] stack = new byte[32];
+    private int depth = 1;
+    /** digits of the long written by value(long) */
+    private final char[] digits = new char[20];
+    
+    /**
+     * Class constructor. <p>
+     * @param out - Writer the JSON text is written to.
+     */
+    public JSONWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param out - Writer the JSON text is written to.
+     * @param bufferSize - size of the buffer, in chars.
+     */
+    public JSONWriter(Writer out, int bufferSize) {
+        if (out == null) throw new NullPointerException("out");
+        if (bufferSize < 1) throw new IllegalArgumentException("bufferSize < 1: " + bufferSize);
+        this.out = out;
+        this.buffer = new char[bufferSize];
+        stack[0] = EMPTY_DOCUMENT;
+    }
+    
+    /**
+     * Starts an object. <p>
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write('{');
+        return this;
+    }
+    
+    /**
+     * Ends the innermost object. <p>
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter endObject() throws IOException {
+        byte state = stack[depth - 1];
+        if (state != EMPTY_OBJECT && state != NONEMPTY_OBJECT) throw new IllegalStateException(state == DANGLING_NAME ? "a value is expected after the name" : "no object to end");
+        depth--;
+        write('}');
+        return this;
+    }
+    
+    /**
+     * Starts an array. <p>
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write('[');
+        return this;
+    }
+    
+    /**
+     * Ends the innermost array. <p>
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter endArray() throws IOException {
+        byte state = stack[depth - 1];
+        if (state != EMPTY_ARRAY && state != NONEMPTY_ARRAY) throw new IllegalStateException("no array to end");
+        depth--;
+        write(']');
+        return this;
+    }
+    
+    /**
+     * Writes the name of the next entry of the innermost object. <p>
+     * @param name - the name.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter name(String name) throws IOException {
+        if (name == null) throw new NullPointerException("name");
+        byte state = stack[depth - 1];
+        if (state == NONEMPTY_OBJECT)
+            write(',');
+        else if (state != EMPTY_OBJECT) throw new IllegalStateException(state == DANGLING_NAME ? "a value is expected after the name" : "a name is only allowed in an object");
+        stack[depth - 1] = DANGLING_NAME;
+        string(name);
+        write(':');
+        return this;
+    }
+    
+    /**
+     * Writes a string value. <p>
+     * @param value - the string, or null.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null)
+            write(JSONValue.NULL);
+        else
+            string(value);
+        return this;
+    }
+    
+    /**
+     * Writes a number value. <p>
+     * @param value - the number.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter value(long value) throws IOException {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            write("-9223372036854775808");
+            return this;
+        }
+        long v = value < 0 ? -value : value;
+        int i = digits.length;
+        do {
+            digits[--i] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) digits[--i] = '-';
+        write(digits, i, digits.length - i);
+        return this;
+    }
+    
+    /**
+     * Writes a number value; NaN and infinite values are written as null, as JSONValue does. <p>
+     * @param value - the number.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter value(double value) throws IOException {
+        beforeValue();
+        if (Double.isNaN(value) || Double.isInfinite(value))
+            write(JSONValue.NULL);
+        else
+            write(Double.toString(value));
+        return this;
+    }
+    
+    /**
+     * Writes a boolean value. <p>
+     * @param value - the boolean.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter value(boolean value) throws IOException {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+    
+    /**
+     * Writes a null value. <p>
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter nullValue() throws IOException {
+        beforeValue();
+        write(JSONValue.NULL);
+        return this;
+    }
+    
+    /**
+     * Writes any value as JSONValue.writeJSONString(Object, Writer) does. <p>
+     * @param value - a JSONAware, JSONStreamAware, Map, List, String, Number, Boolean or null.
+     * @return this writer.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public JSONWriter value(Object value) throws IOException {
+        beforeValue();
+        JSONValue.writeJSONString(value, this);
+        return this;
+    }
+    
+    /**
+     * Checks that a value is allowed next and writes the comma before it, if any.
+     */
+    private void beforeValue() throws IOException {
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                break;
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("JSON text has a single top-level value");
+            default:
+                throw new IllegalStateException("a name is expected before a value in an object");
+        }
+    }
+    
+    private void push(byte state) {
+        if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+        stack[depth++] = state;
+    }
+    
+    /**
+     * Writes a string, quoted and escaped.
+     */
+    private void string(String s) throws IOException {
+        write('"');
+        JSONValue.escape(s, this);
+        write('"');
+    }
+    
+    /**
+     * Writes the chars collected so far to the underlying writer.
+     */
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+    
+    @Override
+    public void write(int c) throws IOException {
+        if (count == buffer.length) drain();
+        buffer[count++] = (char) c;
+    }
+    
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (len > buffer.length - count) {
+            drain();
+            if (len > buffer.length) {
+                out.write(cbuf, off, len);
+                return;
+            }
+        }
+        System.arraycopy(cbuf, off, buffer, count, len);
+        count += len;
+    }
+    
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (len > buffer.length - count) {
+            drain();
+            if (len > buffer.length) {
+                out.write(str, off, len);
+                return;
+            }
+        }
+        str.getChars(off, off + len, buffer, count);
+        count += len;
+    }
+    
+    /**
+     * Write the text collected so far and flush the underlying writer.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+    
+    /**
+     * Write the text collected so far and close the underlying writer.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.json.simple;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of newline-delimited JSON (NDJSON, also known as JSON Lines): every record is encoded by JSONValue.writeJSONString(Object, Writer) and followed by a line feed. <p> Records are collected in the buffer of a JSONWriter
+ * and written to the underlying writer in batches, with one call per full buffer instead of one per token of every record, so the underlying writer needs no buffering of its own. Call flush() to write the records collected so far. Please note
+ * that NDJSONWriter is NOT thread-safe. <p>
+ * @see org.json.simple.parser.NDJSONReader
+ * @author Daniel J. Umpiérrez
+ */
+public class NDJSONWriter implements Closeable, Flushable {
+    
+    /**
+     * Default size of the buffer, in chars.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    
+    private final JSONWriter batch;
+    
+    /**
+     * Class constructor. <p>
+     * @param out - Writer the records are written to.
+     */
+    public NDJSONWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param out - Writer the records are written to.
+     * @param bufferSize - size of the buffer, in chars.
+     */
+    public NDJSONWriter(Writer out, int bufferSize) {
+        this.batch = new JSONWriter(out, bufferSize);
+    }
+    
+    /**
+     * Write one record. <p>
+     * @param value - the record: a JSONAware, Map, List, String, Number, Boolean or null.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public void write(Object value) throws IOException {
+        JSONValue.writeJSONString(value, batch);
+        batch.write('\n');
+    }
+    
+    /**
+     * Write one record per value, in order. <p>
+     * @param values - the records.
+     * @throws IOException - In case of write exception or similar.
+     */
+    public void writeAll(Iterable<?> values) throws IOException {
+        for (Object value : values) {
+            write(value);
+        }
+    }
+    
+    /**
+     * Write the records collected so far and flush the underlying writer.
+     */
+    @Override
+    public void flush() throws IOException {
+        batch.flush();
+    }
+    
+    /**
+     * Write the records collected so far and close the underlying writer.
+     */
+    @Override
+    public void close() throws IOException {
+        batch.close();
+    }
+
+}
@@ -0,0 +1,709 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A JSON array that stores an array made only of integral numbers in a long[] and an array made only of decimal numbers in a double[], instead of one boxed Long or Double per element. Elements are boxed only when they are read
+ * through the List interface; getLong(int), getDouble(int), toLongArray() and toDoubleArray() read them without boxing, and the array is written as JSON text without boxing. <p> As soon as a value of another type is added, or
+ * an operation that has no primitive implementation is used (e.g. sort, subList or removeIf), the elements are boxed once and the array behaves like a plain JSONArray from then on. <p> Use
+ * JSONParser.setNumericArrays(boolean) to have JSONParser create it. <p>
+ * @author Daniel J. Umpiérrez
+ */
+public class NumericJSONArray extends JSONArray {
+    
+    private static final long serialVersionUID = -2287203470587232390L;
+    /* storage modes */
+    /** no element yet; the next element decides between LONGS, DOUBLES and BOXED */
+    private static final byte EMPTY = 0;
+    /** the elements are Longs stored in longs */
+    private static final byte LONGS = 1;
+    /** the elements are Doubles stored in doubles */
+    private static final byte DOUBLES = 2;
+    /** the elements are stored by ArrayList */
+    private static final byte BOXED = 3;
+    private byte mode = EMPTY;
+    private long[] longs;
+    private double[] doubles;
+    /** number of elements while mode is LONGS or DOUBLES */
+    private int count;
+    
+    /**
+     * Constructor de clase. <p>
+     */
+    public NumericJSONArray() {
+        super();
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param values the elements, copied.
+     */
+    public NumericJSONArray(long[] values) {
+        super();
+        mode = LONGS;
+        longs = values.clone();
+        count = values.length;
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param values the elements, copied.
+     */
+    public NumericJSONArray(double[] values) {
+        super();
+        mode = DOUBLES;
+        doubles = values.clone();
+        count = values.length;
+    }
+    
+    private boolean isPrimitive() {
+        return mode == LONGS || mode == DOUBLES;
+    }
+    
+    /**
+     * @return true if all elements are Longs stored without boxing.
+     */
+    public boolean isLongArray() {
+        return mode == LONGS;
+    }
+    
+    /**
+     * @return true if all elements are Doubles stored without boxing.
+     */
+    public boolean isDoubleArray() {
+        return mode == DOUBLES;
+    }
+    
+    /**
+     * Appends an integral number without boxing it, unless the array already holds values of another type. <p>
+     * @param value the number.
+     */
+    public void addLong(long value) {
+        if (mode == EMPTY) {
+            mode = LONGS;
+            longs = new long[10];
+        } else if (mode != LONGS) {
+            add(Long.valueOf(value));
+            return;
+        } else if (count == longs.length) {
+            longs = Arrays.copyOf(longs, count + (count >> 1) + 1);
+        }
+        longs[count++] = value;
+        modCount++;
+    }
+    
+    /**
+     * Appends a decimal number without boxing it, unless the array already holds values of another type. <p>
+     * @param value the number.
+     */
+    public void addDouble(double value) {
+        if (mode == EMPTY) {
+            mode = DOUBLES;
+            doubles = new double[10];
+        } else if (mode != DOUBLES) {
+            add(Double.valueOf(value));
+            return;
+        } else if (count == doubles.length) {
+            doubles = Arrays.copyOf(doubles, count + (count >> 1) + 1);
+        }
+        doubles[count++] = value;
+        modCount++;
+    }
+    
+    /**
+     * Returns a number without boxing it when the array is stored as a long[] or double[]. <p>
+     * @param index index of the element.
+     * @return the element as a long.
+     * @throws ClassCastException if the element is not a number.
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        if (mode == LONGS) return longs[index];
+        if (mode == DOUBLES) return (long) doubles[index];
+        return ((Number) super.get(index)).longValue();
+    }
+    
+    /**
+     * Returns a number without boxing it when the array is stored as a long[] or double[]. <p>
+     * @param index index of the element.
+     * @return the element as a double.
+     * @throws ClassCastException if the element is not a number.
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        if (mode == LONGS) return longs[index];
+        if (mode == DOUBLES) return doubles[index];
+        return ((Number) super.get(index)).doubleValue();
+    }
+    
+    /**
+     * @return the elements as a new long[].
+     * @throws ClassCastException if an element is not a number.
+     */
+    public long[] toLongArray() {
+        if (mode == LONGS) return Arrays.copyOf(longs, count);
+        long[] result = new long[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getLong(i);
+        }
+        return result;
+    }
+    
+    /**
+     * @return the elements as a new double[].
+     * @throws ClassCastException if an element is not a number.
+     */
+    public double[] toDoubleArray() {
+        if (mode == DOUBLES) return Arrays.copyOf(doubles, count);
+        double[] result = new double[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getDouble(i);
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the array as JSON text without boxing its elements. <p>
+     * @param out the output.
+     * @return false, writing nothing, if the elements are not stored as a long[] or double[].
+     * @throws IOException if any I/O-Error occurs
+     */
+    boolean writePrimitives(Writer out) throws IOException {
+        if (!isPrimitive()) return false;
+        out.write('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) out.write(',');
+            out.write(primitiveToString(i));
+        }
+        out.write(']');
+        return true;
+    }
+    
+    /**
+     * Appends the array as JSON text without boxing its elements. <p>
+     * @param sb the output.
+     * @return false, appending nothing, if the elements are not stored as a long[] or double[].
+     */
+    boolean appendPrimitives(StringBuilder sb) {
+        if (!isPrimitive()) return false;
+        sb.append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            if (mode == LONGS)
+                sb.append(longs[i]);
+            else if (Double.isInfinite(doubles[i]) || Double.isNaN(doubles[i]))
+                sb.append(NULL);
+            else
+                sb.append(doubles[i]);
+        }
+        sb.append(']');
+        return true;
+    }
+    
+    /**
+     * @return the JSON text of an element, formatted as JSONValue formats a Long or a Double.
+     */
+    private String primitiveToString(int i) {
+        if (mode == LONGS) return Long.toString(longs[i]);
+        double d = doubles[i];
+        if (Double.isInfinite(d) || Double.isNaN(d)) return NULL;
+        return Double.toString(d);
+    }
+    
+    private Object box(int i) {
+        return mode == LONGS ? (Object) Long.valueOf(longs[i]) : (Object) Double.valueOf(doubles[i]);
+    }
+    
+    /**
+     * Moves the elements into the storage of ArrayList. Every method of ArrayList can be used afterwards.
+     */
+    private void inflate() {
+        if (isPrimitive()) {
+            Object[] boxed = new Object[count];
+            for (int i = 0; i < count; i++) {
+                boxed[i] = box(i);
+            }
+            longs = null;
+            doubles = null;
+            count = 0;
+            mode = BOXED;
+            super.addAll(Arrays.asList(boxed));
+        } else {
+            mode = BOXED;
+        }
+    }
+    
+    /**
+     * @return true if the primitive storage can hold e.
+     */
+    private boolean fits(Object e) {
+        return mode == LONGS && e instanceof Long || mode == DOUBLES && e instanceof Double;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+    
+    /**
+     * Checks an index to insert at before the storage is changed, so that an IndexOutOfBoundsException leaves the array as it was.
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+    
+    private int indexOf(Object o, boolean last) {
+        if (mode == LONGS && o instanceof Long) {
+            long v = ((Long) o).longValue();
+            for (int i = 0; i < count; i++) {
+                int j = last ? count - 1 - i : i;
+                if (longs[j] == v) return j;
+            }
+        } else if (mode == DOUBLES && o instanceof Double) {
+            long bits = Double.doubleToLongBits(((Double) o).doubleValue());
+            for (int i = 0; i < count; i++) {
+                int j = last ? count - 1 - i : i;
+                if (Double.doubleToLongBits(doubles[j]) == bits) return j;
+            }
+        }
+        return -1;
+    }
+    
+    @Override
+    public int size() {
+        return isPrimitive() ? count : super.size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    @Override
+    public Object get(int index) {
+        if (!isPrimitive()) return super.get(index);
+        checkIndex(index);
+        return box(index);
+    }
+    
+    @Override
+    public Object set(int index, Object element) {
+        if (!isPrimitive()) return super.set(index, element);
+        checkIndex(index);
+        if (!fits(element)) {
+            inflate();
+            return super.set(index, element);
+        }
+        Object old = box(index);
+        if (mode == LONGS)
+            longs[index] = ((Long) element).longValue();
+        else
+            doubles[index] = ((Double) element).doubleValue();
+        return old;
+    }
+    
+    @Override
+    public boolean add(Object e) {
+        if (mode == EMPTY || isPrimitive()) {
+            if ((mode == EMPTY || mode == LONGS) && e instanceof Long) {
+                addLong(((Long) e).longValue());
+                return true;
+            }
+            if ((mode == EMPTY || mode == DOUBLES) && e instanceof Double) {
+                addDouble(((Double) e).doubleValue());
+                return true;
+            }
+            inflate();
+        }
+        return super.add(e);
+    }
+    
+    @Override
+    public void add(int index, Object element) {
+        checkPositionIndex(index);
+        if (index == size()) {
+            // appending chooses the storage of an empty array as add(Object) does
+            add(element);
+        } else if (fits(element)) {
+            int end = count;
+            if (mode == LONGS) {
+                addLong(0);
+                System.arraycopy(longs, index, longs, index + 1, end - index);
+                longs[index] = ((Long) element).longValue();
+            } else {
+                addDouble(0);
+                System.arraycopy(doubles, index, doubles, index + 1, end - index);
+                doubles[index] = ((Double) element).doubleValue();
+            }
+        } else {
+            inflate();
+            super.add(index, element);
+        }
+    }
+    
+    @Override
+    public Object remove(int index) {
+        if (!isPrimitive()) return super.remove(index);
+        checkIndex(index);
+        Object old = box(index);
+        int moved = count - index - 1;
+        if (mode == LONGS)
+            System.arraycopy(longs, index + 1, longs, index, moved);
+        else
+            System.arraycopy(doubles, index + 1, doubles, index, moved);
+        count--;
+        modCount++;
+        return old;
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        if (!isPrimitive()) return super.remove(o);
+        int i = indexOf(o, false);
+        if (i < 0) return false;
+        remove(i);
+        return true;
+    }
+    
+    @Override
+    public void clear() {
+        if (!isPrimitive()) {
+            super.clear();
+            return;
+        }
+        mode = EMPTY;
+        longs = null;
+        doubles = null;
+        count = 0;
+        modCount++;
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+    
+    @Override
+    public int indexOf(Object o) {
+        return isPrimitive() ? indexOf(o, false) : super.indexOf(o);
+    }
+    
+    @Override
+    public int lastIndexOf(Object o) {
+        return isPrimitive() ? indexOf(o, true) : super.lastIndexOf(o);
+    }
+    
+    @Override
+    public boolean addAll(Collection<? extends Object> c) {
+        if (mode == BOXED) return super.addAll(c);
+        for (Object e : c) {
+            add(e);
+        }
+        return !c.isEmpty();
+    }
+    
+    @Override
+    public boolean addAll(int index, Collection<? extends Object> c) {
+        checkPositionIndex(index);
+        if (index == size()) return addAll(c);
+        inflate();
+        return super.addAll(index, c);
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        inflate();
+        return super.removeAll(c);
+    }
+    
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        inflate();
+        return super.retainAll(c);
+    }
+    
+    @Override
+    public boolean removeIf(Predicate<? super Object> filter) {
+        inflate();
+        return super.removeIf(filter);
+    }
+    
+    @Override
+    public void replaceAll(UnaryOperator<Object> operator) {
+        inflate();
+        super.replaceAll(operator);
+    }
+    
+    @Override
+    public void sort(Comparator<? super Object> c) {
+        inflate();
+        super.sort(c);
+    }
+    
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        inflate();
+        super.removeRange(fromIndex, toIndex);
+    }
+    
+    @Override
+    public List<Object> subList(int fromIndex, int toIndex) {
+        inflate();
+        return super.subList(fromIndex, toIndex);
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Object> action) {
+        if (!isPrimitive()) {
+            super.forEach(action);
+            return;
+        }
+        int expectedModCount = modCount;
+        for (int i = 0; i < count && modCount == expectedModCount; i++) {
+            action.accept(box(i));
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+    
+    @Override
+    public Object[] toArray() {
+        if (!isPrimitive()) return super.toArray();
+        Object[] result = new Object[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = box(i);
+        }
+        return result;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (!isPrimitive()) return super.toArray(a);
+        T[] result = a.length >= count ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), count);
+        for (int i = 0; i < count; i++) {
+            result[i] = (T) box(i);
+        }
+        if (result.length > count) result[count] = null;
+        return result;
+    }
+    
+    @Override
+    public Iterator<Object> iterator() {
+        return isPrimitive() ? new Itr(0) : super.iterator();
+    }
+    
+    @Override
+    public ListIterator<Object> listIterator() {
+        return isPrimitive() ? new Itr(0) : super.listIterator();
+    }
+    
+    @Override
+    public ListIterator<Object> listIterator(int index) {
+        if (!isPrimitive()) return super.listIterator(index);
+        if (index < 0 || index > count) throw new IndexOutOfBoundsException("Index: " + index);
+        return new Itr(index);
+    }
+    
+    @Override
+    public Spliterator<Object> spliterator() {
+        if (!isPrimitive()) return super.spliterator();
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+    
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (mode == LONGS && minCapacity > longs.length)
+            longs = Arrays.copyOf(longs, minCapacity);
+        else if (mode == DOUBLES && minCapacity > doubles.length)
+            doubles = Arrays.copyOf(doubles, minCapacity);
+        else if (!isPrimitive()) super.ensureCapacity(minCapacity);
+    }
+    
+    @Override
+    public void trimToSize() {
+        if (mode == LONGS)
+            longs = Arrays.copyOf(longs, count);
+        else if (mode == DOUBLES)
+            doubles = Arrays.copyOf(doubles, count);
+        else
+            super.trimToSize();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (!isPrimitive()) return super.equals(o);
+        if (o == this) return true;
+        if (!(o instanceof List)) return false;
+        Iterator<?> other = ((List<?>) o).iterator();
+        for (int i = 0; i < count; i++) {
+            if (!other.hasNext() || !box(i).equals(other.next())) return false;
+        }
+        return !other.hasNext();
+    }
+    
+    @Override
+    public int hashCode() {
+        if (!isPrimitive()) return super.hashCode();
+        int hash = 1;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * hash + (mode == LONGS ? Long.hashCode(longs[i]) : Double.hashCode(doubles[i]));
+        }
+        return hash;
+    }
+    
+    @Override
+    public Object clone() {
+        NumericJSONArray clone = (NumericJSONArray) super.clone();
+        if (longs != null) clone.longs = longs.clone();
+        if (doubles != null) clone.doubles = doubles.clone();
+        return clone;
+    }
+    
+    /*
+     * Methods of java.util.List added in Java 21, which ArrayList implements over its own storage.
+     */
+    
+    /**
+     * @return the first element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object getFirst() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return get(0);
+    }
+    
+    /**
+     * @return the last element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object getLast() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return get(size() - 1);
+    }
+    
+    /**
+     * @param e the element to insert at index 0.
+     */
+    public void addFirst(Object e) {
+        add(0, e);
+    }
+    
+    /**
+     * @param e the element to append.
+     */
+    public void addLast(Object e) {
+        add(e);
+    }
+    
+    /**
+     * @return the removed first element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(0);
+    }
+    
+    /**
+     * @return the removed last element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object removeLast() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(size() - 1);
+    }
+    
+    /**
+     * List iterator over the elements while they are stored as a long[] or double[]. It works through the methods of the array, so it stays valid when one of its own modifications inflates the array.
+     */
+    private final class Itr implements ListIterator<Object> {
+        
+        private int cursor;
+        private int last = -1;
+        private int expectedModCount = modCount;
+        
+        Itr(int index) {
+            cursor = index;
+        }
+        
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return cursor < size();
+        }
+        
+        @Override
+        public Object next() {
+            checkForComodification();
+            if (cursor >= size()) throw new NoSuchElementException();
+            last = cursor++;
+            return get(last);
+        }
+        
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+        
+        @Override
+        public Object previous() {
+            checkForComodification();
+            if (cursor <= 0) throw new NoSuchElementException();
+            last = --cursor;
+            return get(last);
+        }
+        
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+        
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+        
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            checkForComodification();
+            NumericJSONArray.this.remove(last);
+            cursor = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+        
+        @Override
+        public void set(Object e) {
+            if (last < 0) throw new IllegalStateException();
+            checkForComodification();
+            NumericJSONArray.this.set(last, e);
+            expectedModCount = modCount;
+        }
+        
+        @Override
+        public void add(Object e) {
+            checkForComodification();
+            NumericJSONArray.this.add(cursor++, e);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
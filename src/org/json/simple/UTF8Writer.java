@@ -0,0 +1,193 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writer that encodes the chars written to it as UTF-8 straight into bytes, without a CharsetEncoder or an intermediate String. Runs of ASCII chars, such as keys and numbers, are copied one byte per char in a tight loop.
+ * The bytes go to an OutputStream through a buffer, or into a ByteBuffer: a heap buffer is written in place, a direct one through a buffer. Unpaired surrogates are encoded as '?', as String.getBytes does. <p> Call
+ * finish() once everything has been written. Used by JSONValue.writeJSONBytes(Object, OutputStream) and JSONValue.writeJSONString(Object, ByteBuffer). <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class UTF8Writer extends Writer {
+    
+    /** size of the buffer used for OutputStreams and direct ByteBuffers */
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final OutputStream out;
+    private final ByteBuffer target;
+    private final byte[] buffer;
+    /** next byte of the buffer, and the end of the bytes that may be written */
+    private int count;
+    private int limit;
+    /** high surrogate waiting for its low surrogate, or 0 */
+    private char highSurrogate = 0;
+    
+    /**
+     * Class constructor. <p>
+     * @param out - the stream the bytes are written to.
+     */
+    UTF8Writer(OutputStream out) {
+        this.out = out;
+        this.target = null;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.count = 0;
+        this.limit = buffer.length;
+    }
+    
+    /**
+     * Class constructor. The bytes are written from the position of the buffer, which finish() moves past them. <p>
+     * @param target - the buffer the bytes are written to.
+     */
+    UTF8Writer(ByteBuffer target) {
+        this.out = null;
+        this.target = target;
+        if (target.hasArray()) {
+            this.buffer = target.array();
+            this.count = target.arrayOffset() + target.position();
+            this.limit = target.arrayOffset() + target.limit();
+        } else {
+            this.buffer = new byte[Math.max(4, Math.min(BUFFER_SIZE, target.remaining()))];
+            this.count = 0;
+            this.limit = buffer.length;
+        }
+    }
+    
+    /**
+     * Makes room for n bytes.
+     * @throws BufferOverflowException if the target ByteBuffer has no room left.
+     */
+    private void ensure(int n) throws IOException {
+        if (limit - count >= n) return;
+        if (target != null && target.hasArray()) throw new BufferOverflowException();
+        drain();
+    }
+    
+    private void drain() throws IOException {
+        if (target == null)
+            out.write(buffer, 0, count);
+        else
+            target.put(buffer, 0, count);
+        count = 0;
+    }
+    
+    /**
+     * Encodes a char that is not ASCII, or any char while a high surrogate is waiting.
+     */
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int code = Character.toCodePoint(high, c);
+                ensure(4);
+                buffer[count++] = (byte) (0xF0 | (code >> 18));
+                buffer[count++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (code & 0x3F));
+                return;
+            }
+            ensure(1);
+            buffer[count++] = '?';
+        }
+        if (c < 0x80) {
+            ensure(1);
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            ensure(2);
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            ensure(1);
+            buffer[count++] = '?';
+        } else {
+            ensure(3);
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+    
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+    
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end) {
+            char c = cbuf[off];
+            if (c >= 0x80 || highSurrogate != 0) {
+                encode(c);
+                off++;
+                continue;
+            }
+            ensure(1);
+            int stop = Math.min(end, off + limit - count);
+            do {
+                buffer[count++] = (byte) c;
+            } while (++off < stop && (c = cbuf[off]) < 0x80);
+        }
+    }
+    
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end) {
+            char c = str.charAt(off);
+            if (c >= 0x80 || highSurrogate != 0) {
+                encode(c);
+                off++;
+                continue;
+            }
+            ensure(1);
+            int stop = Math.min(end, off + limit - count);
+            do {
+                buffer[count++] = (byte) c;
+            } while (++off < stop && (c = str.charAt(off)) < 0x80);
+        }
+    }
+    
+    /**
+     * Encodes a high surrogate left waiting as '?' and hands the bytes written so far to the stream, or moves the position of the target ByteBuffer past them. The stream is not flushed.
+     * @throws BufferOverflowException if the target ByteBuffer has no room left.
+     */
+    void finish() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            ensure(1);
+            buffer[count++] = '?';
+        }
+        emit();
+    }
+    
+    /**
+     * Hands the bytes written so far to the stream, or moves the position of the target ByteBuffer past them.
+     */
+    private void emit() throws IOException {
+        if (target != null && target.hasArray())
+            target.position(count - target.arrayOffset());
+        else if (count > 0) drain();
+    }
+    
+    /**
+     * Hands the bytes written so far to the stream and flushes it; a high surrogate waiting for its low surrogate stays waiting.
+     */
+    @Override
+    public void flush() throws IOException {
+        emit();
+        if (out != null) out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        finish();
+        if (out != null) out.close();
+    }
+}
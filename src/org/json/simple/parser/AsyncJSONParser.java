@@ -0,0 +1,234 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking parser of UTF-8 encoded JSON text that is pushed to it in chunks as they arrive, e.g. from an asynchronous channel or an event loop, instead of being pulled from a blocking source. Every chunk is parsed as far as
+ * it goes; when a token or a nesting level is cut at the end of a chunk, the parser suspends with its state and the bytes of the unfinished token kept, and continues when the next chunk is fed, so no thread waits for input.
+ * <p> The parser reports the JSON text to a ContentHandler, or builds its value and hands it to a Consumer once it is complete. A handler that returns false suspends the parser until resume() is called; the chunks fed
+ * meanwhile are buffered. As with JSONParser, commas and colons are optional and positions reported by ParseException are byte offsets from the start of the input. Please note that AsyncJSONParser is NOT thread-safe. <p>
+ *
+ * <pre>
+ * AsyncJSONParser parser = new AsyncJSONParser(new Consumer&lt;Object&gt;() {
+ *     public void accept(Object value) {
+ *         process((JSONObject) value);
+ *     }
+ * });
+ * while (channel.read(buffer) != -1) {
+ *     buffer.flip();
+ *     parser.feed(buffer);
+ *     buffer.clear();
+ * }
+ * parser.endOfInput();
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class AsyncJSONParser {
+    
+    private final JSONParser parser;
+    private final FeedLexer lexer = new FeedLexer();
+    private final Suspender handler;
+    /** whether the handler has stopped the parser */
+    private boolean stopped = false;
+    /** whether the end of the JSON text has been reported */
+    private boolean done = false;
+    private boolean failed = false;
+    
+    /**
+     * Class constructor. <p>
+     * @param contentHandler - receives the parsing events.
+     */
+    public AsyncJSONParser(ContentHandler contentHandler) {
+        this(new JSONParser(), contentHandler);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param parser - the parser that parses the input, with its settings; it must not be used for anything else.
+     * @param contentHandler - receives the parsing events.
+     */
+    public AsyncJSONParser(JSONParser parser, ContentHandler contentHandler) {
+        this.parser = parser;
+        this.handler = new Suspender(contentHandler);
+        parser.reset(lexer);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param consumer - receives the value of the JSON text once it is complete: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean or null.
+     */
+    public AsyncJSONParser(Consumer<Object> consumer) {
+        this(new JSONParser(), null, consumer);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param parser - the parser that parses the input, with its settings; it must not be used for anything else.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     * @param consumer - receives the value of the JSON text once it is complete.
+     */
+    public AsyncJSONParser(JSONParser parser, ContainerFactory containerFactory, Consumer<Object> consumer) {
+        this(parser, new ValueBuilder(parser, containerFactory, consumer));
+    }
+    
+    /**
+     * Appends a chunk of the input and parses as far as it goes, unless the handler has stopped the parser. <p>
+     * @param chunk - the remaining bytes of this buffer are the chunk; they are copied, and the position of the buffer is moved to its limit.
+     * @throws IOException - if the handler throws it.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if endOfInput() has been called or the parse has failed.
+     */
+    public void feed(ByteBuffer chunk) throws IOException, ParseException {
+        if (lexer.isEnded()) throw new IllegalStateException("end of input");
+        if (failed) throw new IllegalStateException("parse failed");
+        lexer.feed(chunk);
+        run();
+    }
+    
+    /**
+     * Signals that the whole input has been fed and parses what is left of it, unless the handler has stopped the parser. <p>
+     * @throws IOException - if the handler throws it.
+     * @throws ParseException - if the input is not valid JSON text, e.g. because it ends in the middle of a value.
+     * @throws IllegalStateException - if the parse has failed.
+     */
+    public void endOfInput() throws IOException, ParseException {
+        if (failed) throw new IllegalStateException("parse failed");
+        lexer.end();
+        run();
+    }
+    
+    /**
+     * Continues a parse stopped by the handler with the input fed so far. <p>
+     * @throws IOException - if the handler throws it.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the parse has failed.
+     */
+    public void resume() throws IOException, ParseException {
+        if (failed) throw new IllegalStateException("parse failed");
+        stopped = false;
+        run();
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the handler has stopped the parser and resume() has not been called since.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the whole JSON text has been parsed and its end reported.
+     */
+    public boolean isDone() {
+        return done;
+    }
+    
+    /**
+     * Getter.
+     * @return The position of the beginning of the current token.
+     */
+    public int getPosition() {
+        return parser.getPosition();
+    }
+    
+    /**
+     * Parses the input fed so far, from the state the last call suspended in, until the handler stops the parser or the next token has not arrived completely.
+     */
+    private void run() throws IOException, ParseException {
+        // the parser starts with startJSON(), so it must not start before it can read the first token
+        if (stopped || done || !lexer.hasToken()) return;
+        boolean parsed = false;
+        try {
+            parser.parse(handler);
+            parsed = true;
+        } finally {
+            if (!parsed) failed = true;
+        }
+    }
+    
+    /**
+     * ContentHandler that passes the events on and suspends the parse when the handler stops it or the next token has not arrived completely.
+     */
+    private final class Suspender implements ContentHandler {
+        
+        private final ContentHandler contentHandler;
+        /** whether the next value is the value of an object entry */
+        private boolean entryValue = false;
+        /** whether the handler stopped the parser at the primitive value of an object entry */
+        private boolean entryStopped = false;
+        
+        Suspender(ContentHandler contentHandler) {
+            this.contentHandler = contentHandler;
+        }
+        
+        private boolean proceed(boolean proceed) {
+            if (!proceed) {
+                stopped = true;
+                return false;
+            }
+            return lexer.hasToken();
+        }
+        
+        @Override
+        public void startJSON() throws ParseException, IOException {
+            contentHandler.startJSON();
+        }
+        
+        @Override
+        public void endJSON() throws ParseException, IOException {
+            done = true;
+            contentHandler.endJSON();
+        }
+        
+        @Override
+        public boolean startObject() throws ParseException, IOException {
+            entryValue = false;
+            return proceed(contentHandler.startObject());
+        }
+        
+        @Override
+        public boolean endObject() throws ParseException, IOException {
+            return proceed(contentHandler.endObject());
+        }
+        
+        @Override
+        public boolean startObjectEntry(String key) throws ParseException, IOException {
+            entryValue = true;
+            return proceed(contentHandler.startObjectEntry(key));
+        }
+        
+        @Override
+        public boolean endObjectEntry() throws ParseException, IOException {
+            boolean proceed = contentHandler.endObjectEntry() && !entryStopped;
+            entryStopped = false;
+            return proceed(proceed);
+        }
+        
+        @Override
+        public boolean startArray() throws ParseException, IOException {
+            entryValue = false;
+            return proceed(contentHandler.startArray());
+        }
+        
+        @Override
+        public boolean endArray() throws ParseException, IOException {
+            return proceed(contentHandler.endArray());
+        }
+        
+        @Override
+        public boolean primitive(Object value) throws ParseException, IOException {
+            if (entryValue) {
+                // the parser reports the end of the entry without reading a token and would skip it when resumed, so it stops after it
+                entryValue = false;
+                entryStopped = !contentHandler.primitive(value);
+                return true;
+            }
+            return proceed(contentHandler.primitive(value));
+        }
+    }
+}
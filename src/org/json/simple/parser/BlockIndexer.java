@@ -0,0 +1,199 @@
+package org.json.simple.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Stage one of the two-stage scan of UTF-8 encoded JSON text: finds the positions of the tokens 64 bytes at a time, without looking at the bytes one by one. <p> Each block is read as eight 64-bit words, and every word is
+ * classified with SWAR (SIMD within a register) arithmetic: a byte equal to a given character is found by exact zero-byte detection over the whole word, and the resulting high bits are gathered into one bit per byte by a
+ * multiplication. This gives 64-bit masks of the quotes, backslashes, structural characters and whitespace of the block. Quotes escaped by an odd run of backslashes are removed with carry arithmetic over the backslash mask,
+ * and the bytes inside strings are found by a prefix XOR of the remaining quotes. State is carried from block to block, so strings and backslash runs may cross block boundaries. The last, partial block is copied into a block
+ * padded with spaces. <p> The positions reported are those of every structural character outside strings, every opening quote, and the first byte of every run of other bytes outside strings (numbers, literals, or bytes that
+ * are not JSON at all). String contents are never visited; IndexedLexer decodes the tokens at these positions. <p> The words are classified in plain Java because the Vector API, which would use hardware vectors, is
+ * an incubator module of Java 16 and later, while the library targets Java 9. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class BlockIndexer {
+    
+    /** bytes indexed at a time */
+    static final int BLOCK_SIZE = 64;
+    
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH = 0x8080808080808080L;
+    /** gathers the bits 0, 8, ..., 56 of a word into bits 56 to 63 */
+    private static final long GATHER = 0x0102040810204080L;
+    private static final long EVEN_BITS = 0x5555555555555555L;
+    
+    private static final long QUOTE = '"' * ONES;
+    private static final long BACKSLASH = '\\' * ONES;
+    private static final long LEFT_BRACES = '{' * ONES;
+    private static final long RIGHT_BRACES = '}' * ONES;
+    private static final long COLON = ':' * ONES;
+    private static final long COMMA = ',' * ONES;
+    private static final long CASE_BIT = 0x20 * ONES;
+    private static final long SPACE = ' ' * ONES;
+    private static final long TAB = '\t' * ONES;
+    private static final long LINE_FEED = '\n' * ONES;
+    private static final long CARRIAGE_RETURN = '\r' * ONES;
+    
+    /** the input, in little-endian order so that byte i of a word is bits 8i to 8i + 7 */
+    private ByteBuffer buf;
+    /** index in buf of input position 0 */
+    private int base;
+    /** length of the input */
+    private int length;
+    /** input position of the next block */
+    private int block;
+    /** the last, partial block padded with spaces */
+    private final ByteBuffer tail = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    
+    /** all ones if the previous block ended inside a string */
+    private long inString;
+    /** 1 if the previous block ended with an odd run of backslashes */
+    private long oddBackslashes;
+    /** 1 if the previous block ended with a byte of a number, literal or other run */
+    private long inScalar;
+    
+    // masks of the current block
+    private long quotes;
+    private long backslashes;
+    private long structurals;
+    private long whitespace;
+    
+    /**
+     * Resets the indexer to the remaining bytes of a buffer. The position of the buffer is not changed. <p>
+     * @param buffer the input.
+     */
+    void reset(ByteBuffer buffer) {
+        resume(buffer);
+        inString = oddBackslashes = inScalar = 0;
+    }
+    
+    /**
+     * Continues indexing with the next part of the input, the remaining bytes of a buffer, as if it followed the part indexed so far. The length of every part but the last must be a multiple of BLOCK_SIZE. Positions are
+     * reported from the start of the new part. <p>
+     * @param buffer the next part of the input.
+     */
+    void resume(ByteBuffer buffer) {
+        buf = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        base = buffer.position();
+        length = buffer.remaining();
+        block = 0;
+    }
+    
+    /**
+     * Drops the input.
+     */
+    void trim() {
+        buf = null;
+        length = block = 0;
+    }
+    
+    /**
+     * Indexes the next blocks. <p>
+     * @param positions array receiving the positions; its length must be at least BLOCK_SIZE.
+     * @return the number of positions written, or 0 once the whole input has been indexed.
+     */
+    int next(int[] positions) {
+        int count = 0;
+        while (block < length && count <= positions.length - BLOCK_SIZE) {
+            if (length - block >= BLOCK_SIZE) {
+                classify(buf, base + block);
+            } else {
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    tail.put(i, block + i < length ? buf.get(base + block + i) : (byte) ' ');
+                }
+                classify(tail, 0);
+            }
+            long bits = index();
+            while (bits != 0) {
+                positions[count++] = block + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+            block += BLOCK_SIZE;
+        }
+        return count;
+    }
+    
+    /**
+     * Computes the character masks of the block at index i of b.
+     */
+    private void classify(ByteBuffer b, int i) {
+        long q = 0;
+        long bs = 0;
+        long s = 0;
+        long ws = 0;
+        for (int k = 0; k < 8; k++) {
+            long w = b.getLong(i + 8 * k);
+            int shift = 8 * k;
+            q |= gather(zeroBytes(w ^ QUOTE)) << shift;
+            bs |= gather(zeroBytes(w ^ BACKSLASH)) << shift;
+            // '[' and ']' differ from '{' and '}' only in the case bit
+            long folded = w | CASE_BIT;
+            s |= gather(zeroBytes(folded ^ LEFT_BRACES) | zeroBytes(folded ^ RIGHT_BRACES) | zeroBytes(w ^ COLON) | zeroBytes(w ^ COMMA)) << shift;
+            ws |= gather(zeroBytes(w ^ SPACE) | zeroBytes(w ^ TAB) | zeroBytes(w ^ LINE_FEED) | zeroBytes(w ^ CARRIAGE_RETURN)) << shift;
+        }
+        quotes = q;
+        backslashes = bs;
+        structurals = s;
+        whitespace = ws;
+    }
+    
+    /**
+     * @return a word with the high bit of every byte of w that is zero, and no other bit; exact, unlike the borrow-based test.
+     */
+    private static long zeroBytes(long w) {
+        return ~(((w & LOW7) + LOW7) | w) & HIGH;
+    }
+    
+    /**
+     * @param highBits a word with bits only in the high bit of its bytes.
+     * @return the high bits gathered into the low 8 bits, one bit per byte.
+     */
+    private static long gather(long highBits) {
+        return ((highBits >>> 7) * GATHER) >>> 56;
+    }
+    
+    /**
+     * @return the mask of the bytes escaped by an odd run of backslashes, as in simdjson's find_odd_backslash_sequences.
+     */
+    private long escaped() {
+        long bs = backslashes;
+        if (bs == 0 && oddBackslashes == 0) return 0;
+        long startEdges = bs & ~(bs << 1);
+        // a run continued from the previous block starts at an odd position
+        long evenStartMask = EVEN_BITS ^ oddBackslashes;
+        long evenStarts = startEdges & evenStartMask;
+        long oddStarts = startEdges & ~evenStartMask;
+        long evenCarries = bs + evenStarts;
+        long oddCarries = bs + oddStarts;
+        boolean endsOddRun = Long.compareUnsigned(oddCarries, bs) < 0;
+        oddCarries |= oddBackslashes;
+        oddBackslashes = endsOddRun ? 1 : 0;
+        long evenCarryEnds = evenCarries & ~bs;
+        long oddCarryEnds = oddCarries & ~bs;
+        return evenCarryEnds & ~EVEN_BITS | oddCarryEnds & EVEN_BITS;
+    }
+    
+    /**
+     * @return the mask of the token positions of the block.
+     */
+    private long index() {
+        long unescapedQuotes = quotes & ~escaped();
+        // prefix XOR: set from an opening quote up to the byte before its closing quote
+        long strings = unescapedQuotes;
+        strings ^= strings << 1;
+        strings ^= strings << 2;
+        strings ^= strings << 4;
+        strings ^= strings << 8;
+        strings ^= strings << 16;
+        strings ^= strings << 32;
+        strings ^= inString;
+        inString = strings >> 63;
+        long scalars = ~(structurals | whitespace | unescapedQuotes);
+        long scalarStarts = scalars & ~(scalars << 1 | inScalar);
+        inScalar = scalars >>> 63;
+        return (structurals | scalarStarts) & ~strings | unescapedQuotes & strings;
+    }
+}
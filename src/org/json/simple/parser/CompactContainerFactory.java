@@ -0,0 +1,24 @@
+package org.json.simple.parser;
+
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.CompactJSONObject;
+
+/**
+ * Container factory that makes JSONParser store JSON objects as {@link CompactJSONObject}, which keeps fields in document order and takes about half the memory of a JSONObject. JSON arrays are created as JSONArray. <p>
+ * @see JSONParser#parse(java.io.Reader, ContainerFactory) <p>
+ * @author Daniel J. Umpiérrez
+ */
+public class CompactContainerFactory implements ContainerFactory {
+    
+    @Override
+    public Map<String, Object> createObjectContainer() {
+        return new CompactJSONObject();
+    }
+    
+    @Override
+    public List<Object> creatArrayContainer() {
+        return null;
+    }
+}
@@ -1,7 +1,7 @@
 package org.json.simple.parser;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Container factory for creating containers for JSON object and JSON array. <p>
@@ -12,12 +12,12 @@ import org.json.simple.JSONObject;
 public interface ContainerFactory {
     
     /**
-     * @return A Map instance to store JSON object, or null if you want to use org.json.simple.JSONObject.
+     * @return A Map instance to store JSON object, or null if you want to use org.json.simple.JSONObject. Any Map works; JSONValue writes it back as a JSON object.
      */
-    JSONObject createObjectContainer();
+    Map<String, Object> createObjectContainer();
     
     /**
-     * @return A List instance to store JSON array, or null if you want to use org.json.simple.JSONArray.
+     * @return A List instance to store JSON array, or null if you want to use org.json.simple.JSONArray. Any List works; JSONValue writes it back as a JSON array.
      */
-    JSONArray creatArrayContainer();
+    List<Object> creatArrayContainer();
 }
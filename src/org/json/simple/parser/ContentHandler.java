@@ -3,7 +3,8 @@ package org.json.simple.parser;
 import java.io.IOException;
 
 /**
- * A simplified and stoppable SAX-like content handler for stream processing of JSON text. <p>
+ * A simplified and stoppable SAX-like content handler for stream processing of JSON text. <p> A handler that is not interested in a value can have the parser skip it by calling JSONParser.skipValue() from
+ * startObjectEntry(String), startObject() or startArray(). <p>
  * @see org.xml.sax.ContentHandler
  * @see org.json.simple.parser.JSONParser#parse(java.io.Reader, ContentHandler, boolean) <p>
  * @author FangYidong<fangyidong@yahoo.com.cn>
@@ -0,0 +1,55 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+
+import org.json.simple.parser.Yytoken.TokenType;
+
+/**
+ * Token source that encloses the tokens of another in square brackets, so that a run of array elements cut out of a larger array parses as an array of its own. Used by JSONParser to parse the chunks of a parallel parse. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class ElementsLexer implements Lexer {
+    
+    private static final int BEFORE = 0;
+    private static final int INSIDE = 1;
+    private static final int AFTER = 2;
+    
+    private final Lexer lexer;
+    private int state = BEFORE;
+    /** the token returned for the brackets */
+    private final Yytoken bracket = new Yytoken(null, null);
+    
+    /**
+     * Class constructor. <p>
+     * @param lexer - the source of the elements.
+     */
+    ElementsLexer(Lexer lexer) {
+        this.lexer = lexer;
+    }
+    
+    @Override
+    public Yytoken yylex() throws IOException, ParseException {
+        switch (state) {
+            case BEFORE:
+                state = INSIDE;
+                return bracket.set(TokenType.LEFT_SQUARE, null);
+            case INSIDE:
+                Yytoken token = lexer.yylex();
+                if (token != null) return token;
+                state = AFTER;
+                return bracket.set(TokenType.RIGHT_SQUARE, null);
+            default:
+                return null;
+        }
+    }
+    
+    @Override
+    public int getPosition() {
+        return lexer.getPosition();
+    }
+    
+    @Override
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        lexer.setNumberPolicy(numberPolicy);
+    }
+}
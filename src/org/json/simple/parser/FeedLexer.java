@@ -0,0 +1,128 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Scanner for UTF-8 encoded JSON text that is pushed to it in chunks instead of being read from a source. The bytes not yet scanned are kept in a buffer and scanned by a {@link UTF8Lexer}; hasToken() tells whether the next
+ * token has arrived completely, so that the parser asks for it only then and a token is never cut at the end of a chunk. <p> Positions are byte offsets from the start of the input. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class FeedLexer implements Lexer {
+    
+    private static final int INITIAL_SIZE = 4096;
+    
+    private final UTF8Lexer lexer = new UTF8Lexer();
+    /** the bytes fed and not yet scanned, from index 0 */
+    private byte[] data = new byte[INITIAL_SIZE];
+    private int length = 0;
+    /** input position of index 0 of data */
+    private long offset = 0;
+    /** whether all the input has been fed */
+    private boolean ended = false;
+    /** index of the token last checked by hasToken(), or -1 */
+    private int checkStart = -1;
+    /** index up to which the token at checkStart has been checked */
+    private int checkEnd;
+    
+    /**
+     * Appends the remaining bytes of a buffer to the input. The bytes already scanned are discarded. <p>
+     * @param chunk the bytes; its position is moved to its limit.
+     */
+    void feed(ByteBuffer chunk) {
+        int read = lexer.getReadPosition();
+        // nothing is moved while a token longer than the chunks is arriving
+        if (read > 0) {
+            System.arraycopy(data, read, data, 0, length - read);
+            offset += read;
+            length -= read;
+            if (checkStart < read) {
+                checkStart = -1;
+            } else {
+                checkStart -= read;
+                checkEnd -= read;
+            }
+        }
+        int n = chunk.remaining();
+        if (length + n > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, length + n));
+        chunk.get(data, length, n);
+        length += n;
+        lexer.reset(ByteBuffer.wrap(data, 0, length));
+    }
+    
+    /**
+     * Marks the end of input.
+     */
+    void end() {
+        ended = true;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the end of input has been marked.
+     */
+    boolean isEnded() {
+        return ended;
+    }
+    
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+    
+    /**
+     * Tells whether the next token other than commas and colons, which the parser consumes without reporting them, has arrived completely: a structural character, a string up to its closing quote, or a number or literal
+     * followed by a byte that ends it. At the end of input, whatever is left is complete. <p>
+     * @return Whether the parser can read up to that token without waiting for more input.
+     */
+    boolean hasToken() {
+        int i = lexer.getReadPosition();
+        while (i < length && (isWhitespace(data[i]) || data[i] == ',' || data[i] == ':'))
+            i++;
+        if (i == length) return ended;
+        byte b = data[i];
+        if (b == '{' || b == '}' || b == '[' || b == ']') return true;
+        int j = i == checkStart ? checkEnd : i + 1;
+        if (b == '"') {
+            while (j < length) {
+                byte c = data[j];
+                if (c == '"') return true;
+                // the byte after a backslash never ends the string
+                j += c == '\\' ? 2 : 1;
+            }
+        } else {
+            while (j < length) {
+                byte c = data[j];
+                if (isWhitespace(c) || c == '{' || c == '}' || c == '[' || c == ']' || c == ',' || c == ':' || c == '"') return true;
+                j++;
+            }
+        }
+        checkStart = i;
+        checkEnd = j;
+        return ended;
+    }
+    
+    @Override
+    public Yytoken yylex() throws IOException, ParseException {
+        try {
+            return lexer.yylex();
+        } catch (ParseException e) {
+            // the scanner counts from index 0 of data
+            throw new ParseException(position(offset + e.getPosition()), e.getErrorType(), e.getUnexpectedObject());
+        }
+    }
+    
+    @Override
+    public int getPosition() {
+        return position(offset + lexer.getPosition());
+    }
+    
+    private static int position(long position) {
+        return (int) Math.min(position, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        lexer.setNumberPolicy(numberPolicy);
+    }
+}
@@ -0,0 +1,139 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.json.simple.parser.Yytoken.TokenType;
+
+/**
+ * Stage two of the two-stage scan of UTF-8 encoded JSON text: a scanner that reads its tokens from the positions found by {@link BlockIndexer}. Structural characters become tokens without any further scanning and whitespace
+ * is never visited; strings, numbers and literals are decoded by a {@link UTF8Lexer} positioned on them, so they have exactly the values, errors and positions of the one-stage scan. <p> The input is indexed a chunk at a time,
+ * just ahead of the tokens being read, so the index takes a bounded amount of memory and stays in the cache. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class IndexedLexer implements Lexer {
+    
+    /** number of positions indexed at a time */
+    private static final int CHUNK_SIZE = 4096;
+    
+    private final BlockIndexer indexer = new BlockIndexer();
+    /** decodes the strings, numbers and literals */
+    private final UTF8Lexer values = new UTF8Lexer();
+    private final int[] positions = new int[CHUNK_SIZE + BlockIndexer.BLOCK_SIZE];
+    /** number of positions of the current chunk */
+    private int count;
+    /** index of the next position of the current chunk */
+    private int next;
+    private ByteBuffer buf;
+    /** index in buf of input position 0 */
+    private int base;
+    /** position of the current token, or -1 if it has been read by values */
+    private int tokenStart;
+    /** whether the last token was a number or literal, which may be followed by more tokens that are not indexed */
+    private boolean afterScalar;
+    /** the token returned for structural characters */
+    private final Yytoken token = new Yytoken(null, null);
+    
+    /**
+     * Reset the scanner to read the remaining bytes of a buffer. The position of the buffer is not changed. <p>
+     * @param buffer the input.
+     */
+    void reset(ByteBuffer buffer) {
+        buf = buffer;
+        base = buffer.position();
+        indexer.reset(buffer);
+        values.reset(buffer);
+        count = next = 0;
+        tokenStart = 0;
+        afterScalar = false;
+    }
+    
+    /**
+     * Drops the input.
+     */
+    void trim() {
+        buf = null;
+        indexer.trim();
+        values.trim();
+        count = next = 0;
+        token.set(null, null);
+    }
+    
+    @Override
+    public int getPosition() {
+        return tokenStart < 0 ? values.getPosition() : tokenStart;
+    }
+    
+    @Override
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        values.setNumberPolicy(numberPolicy);
+    }
+    
+    /**
+     * @return the next indexed position, or -1 at the end of input.
+     */
+    private int peekPosition() {
+        if (next == count) {
+            count = indexer.next(positions);
+            next = 0;
+            if (count == 0) return -1;
+        }
+        return positions[next];
+    }
+    
+    /**
+     * @return whether a byte other than whitespace lies between from and to.
+     */
+    private boolean hasToken(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(base + i);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public Yytoken yylex() throws IOException, ParseException {
+        int position = peekPosition();
+        if (afterScalar) {
+            afterScalar = false;
+            // e.g. the literal in 1true, which the one-stage scan reads as two tokens
+            int end = values.getReadPosition();
+            if (hasToken(end, position < 0 ? buf.limit() - base : position)) return value(true);
+        }
+        if (position < 0) {
+            tokenStart = buf.limit() - base;
+            return null;
+        }
+        next++;
+        byte b = buf.get(base + position);
+        tokenStart = position;
+        switch (b) {
+            case '{':
+                return token.set(TokenType.LEFT_BRACE, null);
+            case '}':
+                return token.set(TokenType.RIGHT_BRACE, null);
+            case '[':
+                return token.set(TokenType.LEFT_SQUARE, null);
+            case ']':
+                return token.set(TokenType.RIGHT_SQUARE, null);
+            case ',':
+                return token.set(TokenType.COMMA, null);
+            case ':':
+                return token.set(TokenType.COLON, null);
+            default:
+                values.seek(position);
+                return value(b != '"');
+        }
+    }
+    
+    /**
+     * Reads a token with values, from its current position. <p>
+     * @param scalar whether the token is a number or literal rather than a string.
+     */
+    private Yytoken value(boolean scalar) throws IOException, ParseException {
+        tokenStart = -1;
+        afterScalar = scalar;
+        return values.yylex();
+    }
+}
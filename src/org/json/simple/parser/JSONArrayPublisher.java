@@ -0,0 +1,342 @@
+package org.json.simple.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of the elements of an array of JSON text, parsed as they are requested: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number or java.lang.Boolean. Only the element being parsed
+ * is held in memory, so arrays of any size can be processed with flat memory use. <p> The array is chosen by the keys of the objects that lead to it from the root of the text, e.g. "data", "items" for {"data": {"items": [...]}};
+ * with no keys, the text itself must be the array. If an object repeats a key, the first array found is published; if the text has no array there, the publisher completes without elements. Null elements are skipped, as a Flow.Subscriber cannot receive null. <p> The parse is driven by
+ * demand: it runs with JSONParser.parse(..., ContentHandler, boolean isResume) until as many elements as requested have been published, and the handler stops it; the next request resumes it. Once the array is over, the rest of
+ * the text is parsed before onComplete(), so that errors in it are reported. ParseException and IOException are passed to onError(). The input is closed when the publisher completes, fails or is cancelled. <p> The parse runs
+ * on an Executor, or else on the thread that calls Subscription.request(long); the input is read with blocking calls, so an Executor meant for blocking work should be used. The input can be read once only, so the publisher
+ * accepts a single subscriber. <p>
+ *
+ * <pre>
+ * new JSONArrayPublisher(in, new JSONParser(), null, executor, "items").subscribe(subscriber);
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class JSONArrayPublisher implements Flow.Publisher<Object> {
+    
+    private final Reader reader;
+    private final InputStream stream;
+    private final JSONParser parser;
+    private final ContainerFactory containerFactory;
+    private final Executor executor;
+    private final String[] path;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    
+    /**
+     * Class constructor. The parse runs on the thread that requests the elements. <p>
+     * @param in - the JSON text.
+     * @param path - the keys that lead to the array.
+     */
+    public JSONArrayPublisher(Reader in, String... path) {
+        this(in, new JSONParser(), null, null, path);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param in - the JSON text.
+     * @param parser - the parser that parses the input, with its settings; it must not be used for anything else.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     * @param executor - runs the parse, or null to run it on the thread that requests the elements.
+     * @param path - the keys that lead to the array.
+     */
+    public JSONArrayPublisher(Reader in, JSONParser parser, ContainerFactory containerFactory, Executor executor, String... path) {
+        this(in, null, parser, containerFactory, executor, path);
+    }
+    
+    /**
+     * Class constructor. The bytes are scanned directly, without an InputStreamReader decoding them first, and the parse runs on the thread that requests the elements. <p>
+     * @param in - the UTF-8 encoded JSON text.
+     * @param path - the keys that lead to the array.
+     */
+    public JSONArrayPublisher(InputStream in, String... path) {
+        this(in, new JSONParser(), null, null, path);
+    }
+    
+    /**
+     * Class constructor. The bytes are scanned directly, without an InputStreamReader decoding them first. <p>
+     * @param in - the UTF-8 encoded JSON text.
+     * @param parser - the parser that parses the input, with its settings; it must not be used for anything else.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     * @param executor - runs the parse, or null to run it on the thread that requests the elements.
+     * @param path - the keys that lead to the array.
+     */
+    public JSONArrayPublisher(InputStream in, JSONParser parser, ContainerFactory containerFactory, Executor executor, String... path) {
+        this(null, in, parser, containerFactory, executor, path);
+    }
+    
+    private JSONArrayPublisher(Reader reader, InputStream stream, JSONParser parser, ContainerFactory containerFactory, Executor executor, String[] path) {
+        if (parser == null) throw new NullPointerException("parser");
+        for (String key : path) {
+            if (key == null) throw new NullPointerException("path");
+        }
+        this.reader = reader;
+        this.stream = stream;
+        this.parser = parser;
+        this.containerFactory = containerFactory;
+        this.executor = executor;
+        this.path = path.clone();
+    }
+    
+    @Override
+    public void subscribe(Flow.Subscriber<? super Object> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    // nothing to publish
+                }
+                
+                @Override
+                public void cancel() {
+                    // nothing to cancel
+                }
+            });
+            subscriber.onError(new IllegalStateException("JSONArrayPublisher accepts a single subscriber"));
+            return;
+        }
+        ElementSubscription subscription = new ElementSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+    
+    /**
+     * The subscription of the subscriber, which parses the input as the elements are requested. Requests and cancellation may come from any thread; the parse and the signals to the subscriber run in one drain loop at a time,
+     * so a request from onNext() does not recurse into the parser.
+     */
+    private final class ElementSubscription implements Flow.Subscription, Runnable, ContentHandler {
+        
+        private final Flow.Subscriber<? super Object> subscriber;
+        private final ValueBuilder builder = new ValueBuilder(parser, containerFactory, null);
+        /** elements requested and not yet published */
+        private final AtomicLong requested = new AtomicLong();
+        /** number of drains requested and not yet run */
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        /** the error of a request for no elements */
+        private volatile IllegalArgumentException invalidRequest;
+        /** whether the parse has been started, so that the next one resumes it */
+        private boolean started = false;
+        /** whether onComplete() or onError() has been signalled, or the subscription cancelled */
+        private boolean terminated = false;
+        /** whether the end of the JSON text has been reached */
+        private boolean finished = false;
+        /** nesting depth of the current event */
+        private int depth = 0;
+        /** number of the containers of the current chain, from the root, that lead to the array */
+        private int matched = 0;
+        /** key of the entry whose value is next, or null */
+        private String key;
+        /** depth of the elements of the array, or 0 until the array is found */
+        private int elementDepth = 0;
+        /** whether the array has been found and ended */
+        private boolean arrayEnded = false;
+        
+        ElementSubscription(Flow.Subscriber<? super Object> subscriber) {
+            this.subscriber = subscriber;
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+            } else {
+                long r;
+                do {
+                    r = requested.get();
+                    if (r == Long.MAX_VALUE) break;
+                } while (!requested.compareAndSet(r, r + n < 0 ? Long.MAX_VALUE : r + n));
+            }
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+        
+        private void drain() {
+            if (pending.getAndIncrement() != 0) return;
+            if (executor == null)
+                run();
+            else
+                executor.execute(this);
+        }
+        
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                parse();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+        
+        /**
+         * Parses until the requested elements have been published, the subscription ends or the end of the JSON text is reached.
+         */
+        private void parse() {
+            while (!terminated) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    terminate();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                if (finished) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (requested.get() == 0 && !arrayEnded) return;
+                try {
+                    if (reader != null)
+                        parser.parse(reader, this, started);
+                    else
+                        parser.parse(stream, this, started);
+                    started = true;
+                } catch (ParseException e) {
+                    terminate();
+                    subscriber.onError(e);
+                } catch (IOException e) {
+                    terminate();
+                    subscriber.onError(e);
+                } catch (RuntimeException e) {
+                    terminate();
+                    subscriber.onError(e);
+                }
+            }
+        }
+        
+        private void terminate() {
+            terminated = true;
+            Closeable in = reader != null ? reader : stream;
+            try {
+                in.close();
+            } catch (IOException e) {
+                // the subscriber has all it asked for
+            }
+        }
+        
+        /**
+         * Publishes an element.
+         * @return Whether the parse goes on: more elements have been requested and the subscription has not ended.
+         */
+        private boolean publish(Object element) {
+            if (element != null) {
+                subscriber.onNext(element);
+                long r = requested.get();
+                if (r != Long.MAX_VALUE) r = requested.decrementAndGet();
+                if (r == 0) return false;
+            }
+            return !cancelled && invalidRequest == null;
+        }
+        
+        /**
+         * Tracks the start of a container; the container is part of the chain that leads to the array when its parent is and it is the value of the entry with the next key of the path.
+         */
+        private void startContainer(boolean array) {
+            if (matched == depth && (depth == 0 || depth <= path.length && path[depth - 1].equals(key))) {
+                matched = depth + 1;
+                if (array && depth == path.length && elementDepth == 0) elementDepth = depth + 1;
+            }
+            key = null;
+            depth++;
+        }
+        
+        /**
+         * Tracks the end of a container.
+         * @return Whether the parse goes on.
+         */
+        private boolean endContainer() {
+            depth--;
+            if (matched > depth) matched = depth;
+            if (elementDepth > 0 && !arrayEnded && depth == elementDepth - 1) arrayEnded = true;
+            return !cancelled && invalidRequest == null;
+        }
+        
+        private boolean inElement() {
+            return elementDepth > 0 && !arrayEnded && depth >= elementDepth;
+        }
+        
+        @Override
+        public void startJSON() {
+            // the parse is started once
+        }
+        
+        @Override
+        public void endJSON() {
+            finished = true;
+        }
+        
+        @Override
+        public boolean startObject() {
+            if (inElement()) builder.startObject();
+            startContainer(false);
+            return true;
+        }
+        
+        @Override
+        public boolean endObject() {
+            if (endContainer() && inElement()) {
+                builder.endObject();
+                if (depth == elementDepth) return publish(builder.take());
+            }
+            return !cancelled && invalidRequest == null;
+        }
+        
+        @Override
+        public boolean startObjectEntry(String key) {
+            this.key = key;
+            if (inElement()) builder.startObjectEntry(key);
+            return true;
+        }
+        
+        @Override
+        public boolean endObjectEntry() {
+            key = null;
+            return true;
+        }
+        
+        @Override
+        public boolean startArray() {
+            if (inElement()) builder.startArray();
+            startContainer(true);
+            return true;
+        }
+        
+        @Override
+        public boolean endArray() {
+            if (endContainer() && inElement()) {
+                builder.endArray();
+                if (depth == elementDepth) return publish(builder.take());
+            }
+            return !cancelled && invalidRequest == null;
+        }
+        
+        @Override
+        public boolean primitive(Object value) {
+            key = null;
+            if (!inElement()) return true;
+            if (depth == elementDepth) return publish(value);
+            builder.primitive(value);
+            return true;
+        }
+    }
+}
@@ -4,16 +4,26 @@
 package org.json.simple.parser;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.NumericJSONArray;
 import org.json.simple.parser.Yytoken.TokenType;
 
 /**
- * Parser for JSON text. Please note that JSONParser is NOT thread-safe. <p>
+ * Parser for JSON text. Please note that JSONParser is NOT thread-safe; use {@link JSONParserPool} to share parsers between threads. <p>
  * @author FangYidong<fangyidong@yahoo.com.cn>
  * @author Daniel J. Umpiérrez
  */
@@ -58,13 +68,75 @@ public class JSONParser {
     }
     
     /**
-     * Status stack.
+     * Status stack: ordinals of ElementType, the top at statusDepth - 1. Kept across resets, so parsing allocates no stack nodes.
      */
-    private LinkedList<ElementType> handlerStatusStack;
+    private byte[] statusStack = new byte[STACK_SIZE];
+    private int statusDepth = 0;
+    /**
+     * Value stack of the tree building parser: the open containers and the keys of the entries being parsed, the top at valueDepth - 1.
+     */
+    private Object[] valueStack = new Object[STACK_SIZE];
+    private int valueDepth = 0;
+    /**
+     * Whether a stream processing operation has been started and can be resumed.
+     */
+    private boolean handlerStarted = false;
+    /**
+     * Whether the handler has asked to skip the value it is being notified of.
+     */
+    private boolean skipRequested = false;
+    /**
+     * Whether the last call of parseNext() found the end of input instead of a value.
+     */
+    private boolean endOfInput = false;
+    /**
+     * Cache of object keys, or null if keys are not cached.
+     */
+    private KeyCache keyCache = null;
+    /**
+     * Whether JSON arrays are created as NumericJSONArray.
+     */
+    private boolean numericArrays = false;
+    /**
+     * How numbers are represented.
+     */
+    private NumberPolicy numberPolicy = NumberPolicy.LONG_OR_DOUBLE;
+    /**
+     * Whether byte buffers are scanned in two stages.
+     */
+    private boolean structuralIndexing = false;
+    /**
+     * Initial size of the stacks.
+     */
+    private static final int STACK_SIZE = 32;
+    /**
+     * ElementType constants by ordinal.
+     */
+    private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+    /**
+     * Returned by parseNextValue(ContainerFactory) at the end of input.
+     */
+    static final Object END_OF_INPUT = new Object();
     /**
      * Like scanner type. Used to read data from ..
      */
     private Yylex lexer = new Yylex((Reader) null);
+    /**
+     * Scanner for UTF-8 encoded byte input, created on first use.
+     */
+    private UTF8Lexer utf8Lexer = null;
+    /**
+     * Maximum size of a memory-mapped window of a file.
+     */
+    private final int mapWindow;
+    /**
+     * Two-stage scanner for UTF-8 encoded byte buffers, created on first use.
+     */
+    private IndexedLexer indexedLexer = null;
+    /**
+     * The scanner tokens are read from: lexer, utf8Lexer or indexedLexer.
+     */
+    private Lexer source = lexer;
     /**
      * Contains the current token.
      */
@@ -74,15 +146,149 @@ public class JSONParser {
      */
     private ElementType status = ElementType.INIT;
     
+    /**
+     * Constructor de clase. <p>
+     */
+    public JSONParser() {
+        this(UTF8Lexer.MAP_WINDOW);
+    }
+    
+    /**
+     * Class constructor for a parser that maps files in windows of another size, e.g. a few bytes, to have a small file read across window edges the way a file larger than 1 GB is. <p>
+     * @param mapWindow - maximum size of a memory-mapped window of a file, at least 3 bytes.
+     */
+    JSONParser(int mapWindow) {
+        this.mapWindow = mapWindow;
+    }
+    
     /**
      * Return current status from stack. <p>
-     * @param statusStack type LinkedList<ElementType> with all status data as stack. <p>
-     * @return integer with the current status.
+     * @return the status on top of the stack, or IN_ERROR if the stack is empty.
      */
-    private ElementType peekStatus(LinkedList<ElementType> statusStack) {
-        if (statusStack.size() == 0) return ElementType.IN_ERROR;
-        ElementType status = statusStack.getFirst();
-        return status;
+    private ElementType peekStatus() {
+        if (statusDepth == 0) return ElementType.IN_ERROR;
+        return ELEMENT_TYPES[statusStack[statusDepth - 1]];
+    }
+    
+    private void pushStatus(ElementType status) {
+        if (statusDepth == statusStack.length) statusStack = Arrays.copyOf(statusStack, statusDepth * 2);
+        statusStack[statusDepth++] = (byte) status.ordinal();
+    }
+    
+    private void popStatus() {
+        statusDepth--;
+    }
+    
+    private Object peekValue() {
+        return valueStack[valueDepth - 1];
+    }
+    
+    private void pushValue(Object value) {
+        if (valueDepth == valueStack.length) valueStack = Arrays.copyOf(valueStack, valueDepth * 2);
+        valueStack[valueDepth++] = value;
+    }
+    
+    private Object popValue() {
+        Object value = valueStack[--valueDepth];
+        valueStack[valueDepth] = null;
+        return value;
+    }
+    
+    /**
+     * Enables or disables the key cache. With the cache, object keys that repeat across the documents parsed by this parser are returned as one canonical String instance instead of a new copy per occurrence; a key found in the
+     * cache is not copied out of the scanner at all. This saves the heap retained by large trees of objects with the same field names, and later lookups of those keys compare by identity first. <p> The cache is direct-mapped and
+     * keeps at most size keys of up to 64 characters each; a key that collides with a cached one replaces it. <p>
+     * @param size - number of cached keys, rounded up to a power of two, or 0 to disable the cache.
+     */
+    public void setKeyCacheSize(int size) {
+        if (size < 0) throw new IllegalArgumentException("size < 0: " + size);
+        keyCache = size == 0 ? null : new KeyCache(size);
+    }
+    
+    /**
+     * Getter.
+     * @return The number of keys the key cache holds, or 0 if it is disabled.
+     */
+    public int getKeyCacheSize() {
+        return keyCache == null ? 0 : keyCache.size();
+    }
+    
+    /**
+     * Sets whether JSON arrays are created as NumericJSONArray when no ContainerFactory supplies them. An array whose elements are all integral numbers is then stored in a long[], and one whose elements are all decimal numbers in a
+     * double[], so large numeric arrays such as time series take no boxed object per element. Arrays with other values behave like JSONArray. Numbers are also stored unboxed in a NumericJSONArray returned by a ContainerFactory.
+     * <p> Only Long and Double values are stored unboxed: under NumberPolicy.BIG_DECIMAL and NumberPolicy.LAZY the arrays keep the exact number objects, as JSONArray does. <p>
+     * @param numericArrays - true to create NumericJSONArray, false (the default) to create JSONArray.
+     */
+    public void setNumericArrays(boolean numericArrays) {
+        this.numericArrays = numericArrays;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether JSON arrays are created as NumericJSONArray.
+     */
+    public boolean isNumericArrays() {
+        return numericArrays;
+    }
+    
+    /**
+     * Sets how numbers are represented. With LONG_OR_DOUBLE (the default) integers are Long and decimals Double, and an integer that does not fit in a long is an error. BIG_DECIMAL keeps the exact value of every number as a
+     * BigInteger or BigDecimal. LAZY keeps the characters of every number in an org.json.simple.JSONNumber, which converts them only when its value is asked for and serializes them back unchanged. <p>
+     * @param numberPolicy - the policy.
+     */
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        if (numberPolicy == null) throw new NullPointerException("numberPolicy");
+        this.numberPolicy = numberPolicy;
+        lexer.setNumberPolicy(numberPolicy);
+        if (utf8Lexer != null) utf8Lexer.setNumberPolicy(numberPolicy);
+        if (indexedLexer != null) indexedLexer.setNumberPolicy(numberPolicy);
+        source.setNumberPolicy(numberPolicy);
+    }
+    
+    /**
+     * Getter.
+     * @return How numbers are represented.
+     */
+    public NumberPolicy getNumberPolicy() {
+        return numberPolicy;
+    }
+    
+    /**
+     * Sets whether byte arrays and byte buffers are scanned in two stages. The first stage finds the positions of all the tokens 64 bytes at a time, with word-wide bit arithmetic instead of a test per byte, and skips the
+     * contents of strings and all whitespace; the second stage reads the tokens at those positions. This pays off on input with much whitespace or long strings, such as pretty-printed documents and logs. The values, errors and
+     * positions are the same as with the one-stage scan. Streams and files are always scanned in one stage. <p>
+     * @param structuralIndexing - true to scan byte input in two stages, false (the default) to scan it in one.
+     */
+    public void setStructuralIndexing(boolean structuralIndexing) {
+        this.structuralIndexing = structuralIndexing;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether byte arrays and byte buffers are scanned in two stages.
+     */
+    public boolean isStructuralIndexing() {
+        return structuralIndexing;
+    }
+    
+    /**
+     * @return A new parser with the settings of this one: key cache size, numeric arrays, number policy and structural indexing.
+     */
+    JSONParser newParser() {
+        JSONParser parser = new JSONParser();
+        parser.setKeyCacheSize(getKeyCacheSize());
+        parser.setNumericArrays(numericArrays);
+        parser.setNumberPolicy(numberPolicy);
+        parser.setStructuralIndexing(structuralIndexing);
+        return parser;
+    }
+    
+    /**
+     * @return the current token, a string, as an object key.
+     */
+    private String key() {
+        if (keyCache == null) return (String) token.getValue();
+        return token.getKey(keyCache);
     }
     
     /**
@@ -91,7 +297,35 @@ public class JSONParser {
     public void reset() {
         token = null;
         status = ElementType.INIT;
-        handlerStatusStack = null;
+        statusDepth = 0;
+        Arrays.fill(valueStack, 0, valueDepth, null);
+        valueDepth = 0;
+        handlerStarted = false;
+        skipRequested = false;
+        endOfInput = false;
+    }
+    
+    /**
+     * Reset the parser, drop its input and shrink the scanner buffers and stacks that have grown beyond their initial size. Called by JSONParserPool before a parser goes back to the pool.
+     */
+    void trim() {
+        lexer.trim();
+        if (utf8Lexer != null) utf8Lexer.trim();
+        if (indexedLexer != null) indexedLexer.trim();
+        source = lexer;
+        reset();
+        if (statusStack.length > STACK_SIZE) statusStack = new byte[STACK_SIZE];
+        if (valueStack.length > STACK_SIZE) valueStack = new Object[STACK_SIZE];
+    }
+    
+    /**
+     * Restore the default settings: no key cache, JSONArray containers, NumberPolicy.LONG_OR_DOUBLE and one-stage scanning. Called by JSONParserPool before a parser goes back to the pool.
+     */
+    void resetSettings() {
+        keyCache = null;
+        numericArrays = false;
+        setNumberPolicy(NumberPolicy.LONG_OR_DOUBLE);
+        structuralIndexing = false;
     }
     
     /**
@@ -100,6 +334,75 @@ public class JSONParser {
      */
     public void reset(Reader in) {
         lexer.yyreset(in);
+        source = lexer;
+        reset();
+    }
+    
+    /**
+     * @return the scanner for UTF-8 encoded byte input, created on first use.
+     */
+    private UTF8Lexer utf8Lexer() {
+        if (utf8Lexer == null) {
+            utf8Lexer = new UTF8Lexer(mapWindow);
+            utf8Lexer.setNumberPolicy(numberPolicy);
+        }
+        return utf8Lexer;
+    }
+    
+    /**
+     * @return the two-stage scanner for UTF-8 encoded byte buffers, created on first use.
+     */
+    private IndexedLexer indexedLexer() {
+        if (indexedLexer == null) {
+            indexedLexer = new IndexedLexer();
+            indexedLexer.setNumberPolicy(numberPolicy);
+        }
+        return indexedLexer;
+    }
+    
+    /**
+     * Reset the parser to the initial state with a new UTF-8 encoded byte buffer, e.g. to read the values it holds with parseNext(). The position of the buffer is not changed. <p>
+     * @param in - the remaining bytes of this buffer are the input.
+     */
+    public void reset(ByteBuffer in) {
+        if (structuralIndexing) {
+            indexedLexer().reset(in);
+            source = indexedLexer;
+        } else {
+            utf8Lexer().reset(in);
+            source = utf8Lexer;
+        }
+        reset();
+    }
+    
+    /**
+     * Reset the parser to the initial state with a new UTF-8 encoded byte stream, e.g. to read the values it carries with parseNext(). <p>
+     * @param in - type InputStream object instance where data is stored.
+     */
+    public void reset(InputStream in) {
+        utf8Lexer().reset(in);
+        source = utf8Lexer;
+        reset();
+    }
+    
+    /**
+     * Reset the parser to the initial state with a new memory-mapped UTF-8 encoded file. <p>
+     * @param in - the file, read from its current position to its end.
+     * @throws IOException - In case of file read exception or similar.
+     */
+    private void reset(FileChannel in) throws IOException {
+        utf8Lexer().reset(in);
+        source = utf8Lexer;
+        reset();
+    }
+    
+    /**
+     * Reset the parser to the initial state with another token source, which gets the number policy of the parser. Used by AsyncJSONParser to parse the bytes pushed to a FeedLexer. <p>
+     * @param in - the token source.
+     */
+    void reset(Lexer in) {
+        in.setNumberPolicy(numberPolicy);
+        source = in;
         reset();
     }
     
@@ -108,7 +411,7 @@ public class JSONParser {
      * @return The position of the beginning of the current token.
      */
     public int getPosition() {
-        return lexer.getPosition();
+        return source.getPosition();
     }
     
     /**
@@ -121,6 +424,22 @@ public class JSONParser {
         return parse(s, (ContainerFactory) null);
     }
     
+    /**
+     * Parse JSON text lazily. A first pass only validates the text and records where every object and array opens and closes; an object or array is read from the text when it is first accessed, and nested ones are again
+     * read only when they are accessed in turn. A document of which only a few fields are read is therefore never decoded as a whole, and an object or array that is never accessed is written back by toJSONString() and
+     * writeJSONString(Writer) as its exact original text. <p> The containers are LazyJSONObject and LazyJSONArray; numbers follow the number policy of this parser, while the key cache, numeric arrays and container factories do
+     * not apply. The text is validated as by parse(String), so the same texts are accepted and rejected; a text whose value is not an object or an array is parsed as by parse(String). <p>
+     * @param s - String where data is allocated (must be in JSON format) <p>
+     * @return Instance of the following classes: org.json.simple.parser.LazyJSONObject, org.json.simple.parser.LazyJSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parseLazy(String s) throws ParseException {
+        StructuralIndex index = StructuralIndex.index(s.toCharArray(), numberPolicy);
+        // texts the index rejects are parsed again to report the error exactly as parse(String) does
+        if (index == null) return parse(s);
+        return index.container(0);
+    }
+    
     /**
      * Método usado para TODO . <p>
      * @param s - String where data is allocated (must be in JSON format)
@@ -161,8 +480,271 @@ public class JSONParser {
      */
     public Object parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException {
         this.reset(in);
-        LinkedList<ElementType> statusStack = new LinkedList<>();
-        LinkedList<Object> valueStack = new LinkedList<>();
+        return parse(containerFactory);
+    }
+    
+    /**
+     * Parse UTF-8 encoded JSON text into java object. The bytes are scanned directly, without decoding them to characters first. Positions reported by getPosition() and ParseException are byte offsets from off. <p>
+     * @param b - array holding the UTF-8 encoded input.
+     * @param off - offset of the first byte of the input.
+     * @param len - number of bytes of the input. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(byte[] b, int off, int len) throws ParseException {
+        return parse(b, off, len, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse UTF-8 encoded JSON text into java object. The bytes are scanned directly, without decoding them to characters first. Positions reported by getPosition() and ParseException are byte offsets from off. <p>
+     * @param b - array holding the UTF-8 encoded input.
+     * @param off - offset of the first byte of the input.
+     * @param len - number of bytes of the input.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(byte[] b, int off, int len, ContainerFactory containerFactory) throws ParseException {
+        return parse(ByteBuffer.wrap(b, off, len), containerFactory);
+    }
+    
+    /**
+     * Parse the remaining bytes of a buffer, UTF-8 encoded JSON text, into java object. Heap and direct buffers are scanned in place; the position of the buffer is not changed. Positions reported by getPosition() and ParseException are byte
+     * offsets from the position of the buffer. <p>
+     * @param in - the input.
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(ByteBuffer in) throws ParseException {
+        return parse(in, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse the remaining bytes of a buffer, UTF-8 encoded JSON text, into java object. Heap and direct buffers are scanned in place; the position of the buffer is not changed. Positions reported by getPosition() and ParseException are byte
+     * offsets from the position of the buffer. <p>
+     * @param in - the input.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(ByteBuffer in, ContainerFactory containerFactory) throws ParseException {
+        this.reset(in);
+        try {
+            return parse(containerFactory);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+    
+    /**
+     * Parse a stream of UTF-8 encoded JSON text into java object. The bytes are scanned directly, without an InputStreamReader decoding them first. Positions reported by getPosition() and ParseException are byte offsets. <p>
+     * @param in - type InputStream object instance where data is stored. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(InputStream in) throws IOException, ParseException {
+        return parse(in, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse a stream of UTF-8 encoded JSON text into java object. The bytes are scanned directly, without an InputStreamReader decoding them first. Positions reported by getPosition() and ParseException are byte offsets. <p>
+     * @param in - type InputStream object instance where data is stored.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(InputStream in, ContainerFactory containerFactory) throws IOException, ParseException {
+        this.reset(in);
+        return parse(containerFactory);
+    }
+    
+    /**
+     * Parse a UTF-8 encoded JSON file into java object. The file is memory-mapped and scanned in place, without read calls or intermediate buffers; files larger than 2 GB are mapped one window at a time. Positions reported by
+     * getPosition() and ParseException are byte offsets. <p>
+     * @param file - the file to parse. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(Path file) throws IOException, ParseException {
+        return parse(file, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse a UTF-8 encoded JSON file into java object. The file is memory-mapped and scanned in place, without read calls or intermediate buffers; files larger than 2 GB are mapped one window at a time. Positions reported by
+     * getPosition() and ParseException are byte offsets. <p>
+     * @param file - the file to parse.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parse(Path file, ContainerFactory containerFactory) throws IOException, ParseException {
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.reset(in);
+            return parse(containerFactory);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Parse the remaining bytes of a buffer, UTF-8 encoded JSON text whose value is a large array, on several threads. The text is pre-scanned for the commas between the elements of the outer array, which is cut there into
+     * chunks of about the same size; the chunks are parsed by tasks of the pool, each with a new parser with the settings of this one, and their elements are joined in order into one array. Input smaller than 2 MB, input
+     * whose value is not an array and input that is not valid JSON text are parsed on the calling thread, so the result and the errors are those of parse(ByteBuffer, ContainerFactory). <p> The ContainerFactory is called from
+     * the threads of the pool, and creates one more array per chunk. <p>
+     * @param in - the input.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+     * @param pool - the pool to run the tasks in, or null for the common pool. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parseArrayParallel(ByteBuffer in, ContainerFactory containerFactory, ForkJoinPool pool) throws ParseException {
+        List<?>[] chunks = new ParallelArrayParser(this, containerFactory, pool == null ? ForkJoinPool.commonPool() : pool).parse(in);
+        if (chunks == null) return parse(in, containerFactory);
+        return join(chunks, containerFactory);
+    }
+    
+    /**
+     * Parse a UTF-8 encoded JSON file whose value is a large array on several threads, as parseArrayParallel(ByteBuffer, ContainerFactory, ForkJoinPool) does. The file is memory-mapped; files larger than 2 GB are pre-scanned
+     * one window at a time, and each chunk maps its own region. <p>
+     * @param file - the file to parse.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+     * @param pool - the pool to run the tasks in, or null for the common pool. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parseArrayParallel(Path file, ContainerFactory containerFactory, ForkJoinPool pool) throws IOException, ParseException {
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            List<?>[] chunks = new ParallelArrayParser(this, containerFactory, pool == null ? ForkJoinPool.commonPool() : pool).parse(in);
+            if (chunks != null) return join(chunks, containerFactory);
+            this.reset(in);
+            return parse(containerFactory);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * @return An array with the elements of the chunks of a parallel parse, in order.
+     */
+    private List<Object> join(List<?>[] chunks, ContainerFactory containerFactory) {
+        List<Object> array = createArrayContainer(containerFactory);
+        if (array instanceof ArrayList) {
+            int size = 0;
+            for (List<?> chunk : chunks) {
+                size += chunk.size();
+            }
+            ((ArrayList<Object>) array).ensureCapacity(size);
+        }
+        for (List<?> chunk : chunks) {
+            array.addAll(chunk);
+        }
+        return array;
+    }
+    
+    /**
+     * Parse a run of array elements cut out of a larger array, the remaining bytes of a buffer, into an array of its own. Used by the tasks of a parallel parse. <p>
+     * @param in - the input.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return The array.
+     * @throws ParseException - if the elements are not valid.
+     */
+    List<?> parseElements(ByteBuffer in, ContainerFactory containerFactory) throws ParseException {
+        this.reset(in);
+        source = new ElementsLexer(source);
+        try {
+            return (List<?>) parse(containerFactory);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+    
+    /**
+     * Parse the input the parser has been reset to into java object. <p>
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    private Object parse(ContainerFactory containerFactory) throws IOException, ParseException {
+        return parse(containerFactory, false);
+    }
+    
+    /**
+     * Parse the next of a sequence of concatenated values, as sent back to back over a long-lived connection, from the input set by reset(Reader), reset(InputStream) or reset(ByteBuffer). Values may be separated by
+     * whitespace or follow each other directly, as in {"a":1}{"b":2}. <p> The value is returned as soon as its last token has been read: no input after it is read, or waited for, so the call does not block on a connection
+     * once a value is complete, and input that has already been buffered after the value is kept for the next call. A number, however, is complete only once the character after it has been read. Input that ends inside a
+     * value, such as a truncated string, is a ParseException and not the end of input. Positions reported by getPosition() and ParseException are offsets from the start of the input. <p>
+     *
+     * <pre>
+     * parser.reset(socket.getInputStream());
+     * for (Object value = parser.parseNext(); !parser.isEndOfInput(); value = parser.parseNext())
+     *     process(value);
+     * </pre>
+     *
+     * @return The next value, or null at the end of input; isEndOfInput() tells the end of input from a null value.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parseNext() throws IOException, ParseException {
+        return parseNext((ContainerFactory) null);
+    }
+    
+    /**
+     * Parse the next of a sequence of concatenated values, as parseNext() does. <p>
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return The next value, or null at the end of input; isEndOfInput() tells the end of input from a null value.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public Object parseNext(ContainerFactory containerFactory) throws IOException, ParseException {
+        Object value = parseNextValue(containerFactory);
+        endOfInput = value == END_OF_INPUT;
+        return endOfInput ? null : value;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the last call of parseNext() found the end of input instead of a value.
+     */
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+    
+    /**
+     * Parse the next of a sequence of concatenated values, as parseNext(ContainerFactory) does. <p>
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers. <p>
+     * @return The value, or END_OF_INPUT if only whitespace is left.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    Object parseNextValue(ContainerFactory containerFactory) throws IOException, ParseException {
+        reset();
+        return parse(containerFactory, true);
+    }
+    
+    /**
+     * Parse the input the parser has been reset to into java object. <p>
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+     * @param next - true to return as soon as the first value is complete, false to require the end of input after it. <p>
+     * @return Instance of the following classes: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, java.lang.Null <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    @SuppressWarnings("unchecked")
+    private Object parse(ContainerFactory containerFactory, boolean next) throws IOException, ParseException {
         try {
             do {
                 nextToken();
@@ -171,18 +753,22 @@ public class JSONParser {
                         switch (token.type) {
                             case VALUE:
                                 status = ElementType.FINISHED_VALUE;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(token.value);
+                                pushStatus(status);
+                                pushValue(token.getValue());
                                 break;
                             case LEFT_BRACE:
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(createObjectContainer(containerFactory));
+                                pushStatus(status);
+                                pushValue(createObjectContainer(containerFactory));
                                 break;
                             case LEFT_SQUARE:
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(createArrayContainer(containerFactory));
+                                pushStatus(status);
+                                pushValue(createArrayContainer(containerFactory));
+                                break;
+                            case EOF:
+                                if (next) return END_OF_INPUT;
+                                status = ElementType.IN_ERROR;
                                 break;
                             default:
                                 status = ElementType.IN_ERROR;
@@ -190,28 +776,28 @@ public class JSONParser {
                         break;
                     case FINISHED_VALUE:
                         if (token.type == TokenType.EOF)
-                            return valueStack.removeFirst();
+                            return popValue();
                         else
-                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                     case IN_OBJECT:
                         switch (token.type) {
                             case COMMA:
                                 break;
                             case VALUE:
-                                if (token.value instanceof String) {
-                                    String key = (String) token.value;
-                                    valueStack.addFirst(key);
+                                if (token.isString()) {
+                                    String key = key();
+                                    pushValue(key);
                                     status = ElementType.PASSED_PAIR_KEY;
-                                    statusStack.addFirst(status);
+                                    pushStatus(status);
                                 } else {
                                     status = ElementType.IN_ERROR;
                                 }
                                 break;
                             case RIGHT_BRACE:
-                                if (valueStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    valueStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (valueDepth > 1) {
+                                    popStatus();
+                                    popValue();
+                                    status = peekStatus();
                                 } else {
                                     status = ElementType.FINISHED_VALUE;
                                 }
@@ -226,31 +812,31 @@ public class JSONParser {
                             case COLON:
                                 break;
                             case VALUE:
-                                statusStack.removeFirst();
-                                String key = (String) valueStack.removeFirst();
-                                JSONObject parent = (JSONObject) valueStack.getFirst();
-                                parent.put(key, token.value);
-                                status = peekStatus(statusStack);
+                                popStatus();
+                                String key = (String) popValue();
+                                Map<String, Object> parent = (Map<String, Object>) peekValue();
+                                parent.put(key, token.getValue());
+                                status = peekStatus();
                                 break;
                             case LEFT_SQUARE:
-                                statusStack.removeFirst();
-                                key = (String) valueStack.removeFirst();
-                                parent = (JSONObject) valueStack.getFirst();
-                                JSONArray newArray = createArrayContainer(containerFactory);
+                                popStatus();
+                                key = (String) popValue();
+                                parent = (Map<String, Object>) peekValue();
+                                List<Object> newArray = createArrayContainer(containerFactory);
                                 parent.put(key, newArray);
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(newArray);
+                                pushStatus(status);
+                                pushValue(newArray);
                                 break;
                             case LEFT_BRACE:
-                                statusStack.removeFirst();
-                                key = (String) valueStack.removeFirst();
-                                parent = (JSONObject) valueStack.getFirst();
-                                JSONObject newObject = createObjectContainer(containerFactory);
+                                popStatus();
+                                key = (String) popValue();
+                                parent = (Map<String, Object>) peekValue();
+                                Map<String, Object> newObject = createObjectContainer(containerFactory);
                                 parent.put(key, newObject);
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(newObject);
+                                pushStatus(status);
+                                pushValue(newObject);
                                 break;
                             default:
                                 status = ElementType.IN_ERROR;
@@ -261,72 +847,86 @@ public class JSONParser {
                             case COMMA:
                                 break;
                             case VALUE:
-                                JSONArray val = (JSONArray) valueStack.getFirst();
-                                val.add(token.value);
+                                List<Object> val = (List<Object>) peekValue();
+                                if (token.isLongOrDouble() && val instanceof NumericJSONArray)
+                                    addNumber((NumericJSONArray) val);
+                                else
+                                    val.add(token.getValue());
                                 break;
                             case RIGHT_SQUARE:
-                                if (valueStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    valueStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (valueDepth > 1) {
+                                    popStatus();
+                                    popValue();
+                                    status = peekStatus();
                                 } else {
                                     status = ElementType.FINISHED_VALUE;
                                 }
                                 break;
                             case LEFT_BRACE:
-                                val = (JSONArray) valueStack.getFirst();
-                                JSONObject newObject = createObjectContainer(containerFactory);
+                                val = (List<Object>) peekValue();
+                                Map<String, Object> newObject = createObjectContainer(containerFactory);
                                 val.add(newObject);
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(newObject);
+                                pushStatus(status);
+                                pushValue(newObject);
                                 break;
                             case LEFT_SQUARE:
-                                val = (JSONArray) valueStack.getFirst();
-                                JSONArray newArray = createArrayContainer(containerFactory);
+                                val = (List<Object>) peekValue();
+                                List<Object> newArray = createArrayContainer(containerFactory);
                                 val.add(newArray);
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
-                                valueStack.addFirst(newArray);
+                                pushStatus(status);
+                                pushValue(newArray);
                                 break;
                             default:
                                 this.status = ElementType.IN_ERROR;
                         }// inner switch
                         break;
                     case IN_ERROR:
-                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, this.token);
+                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                     default:
                         break;
                 }// switch
                 if (this.status == ElementType.IN_ERROR) {
-                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, this.token);
+                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                 }
+                if (next && this.status == ElementType.FINISHED_VALUE) return popValue();
             } while (this.token.type != TokenType.EOF);
         } catch (IOException ie) {
             throw ie;
         }
-        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
     }
     
     private void nextToken() throws ParseException, IOException {
-        this.token = lexer.yylex();
+        this.token = source.yylex();
         if (this.token == null) this.token = new Yytoken(TokenType.EOF, null);
     }
     
-    private JSONObject createObjectContainer(ContainerFactory containerFactory) {
+    Map<String, Object> createObjectContainer(ContainerFactory containerFactory) {
         if (containerFactory == null) return new JSONObject();
-        JSONObject m = containerFactory.createObjectContainer();
+        Map<String, Object> m = containerFactory.createObjectContainer();
         if (m == null) return new JSONObject();
         return m;
     }
     
-    private JSONArray createArrayContainer(ContainerFactory containerFactory) {
-        if (containerFactory == null) return new JSONArray();
-        JSONArray l = containerFactory.creatArrayContainer();
-        if (l == null) return new JSONArray();
+    List<Object> createArrayContainer(ContainerFactory containerFactory) {
+        if (containerFactory == null) return numericArrays ? new NumericJSONArray() : new JSONArray();
+        List<Object> l = containerFactory.creatArrayContainer();
+        if (l == null) return numericArrays ? new NumericJSONArray() : new JSONArray();
         return l;
     }
     
+    /**
+     * Appends the current token, a Long or a Double, to an array without boxing it. Numbers of other classes, as read under NumberPolicy.BIG_DECIMAL and NumberPolicy.LAZY, are added as objects to keep their exact value.
+     */
+    private void addNumber(NumericJSONArray array) {
+        if (token.isLong())
+            array.addLong(token.longValue());
+        else
+            array.addDouble(token.doubleValue());
+    }
+    
     /**
      * Get an JSON Object from string data (JSON formatted obviously). <p>
      * @param s - String where data is allocated (must be in JSON format)
@@ -378,19 +978,80 @@ public class JSONParser {
      * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
      */
     public void parse(Reader in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException {
-        if (!isResume) {
+        if (!isResume || !handlerStarted) {
             reset(in);
-            handlerStatusStack = new LinkedList<ElementType>();
-        } else {
-            if (handlerStatusStack == null) {
-                isResume = false;
-                reset(in);
-                handlerStatusStack = new LinkedList<ElementType>();
-            }
+            handlerStarted = true;
+        }
+        parse(contentHandler);
+    }
+    
+    /**
+     * Stream processing of UTF-8 encoded JSON text. The bytes are scanned directly, without an InputStreamReader decoding them first. <p>
+     * @see ContentHandler <p>
+     * @param in - type InputStream object instance where data is stored.
+     * @param contentHandler - receives the parsing events.
+     * @param isResume - Indicates if it continues previous parsing operation. If set to true, resume parsing the old stream, and parameter 'in' will be ignored. If this method is called for the first time in this instance, isResume will be
+     *            ignored. <p>
+     * @throws IOException - In case of read exception or similar
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public void parse(InputStream in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException {
+        if (!isResume || !handlerStarted) {
+            reset(in);
+            handlerStarted = true;
+        }
+        parse(contentHandler);
+    }
+    
+    /**
+     * Stream processing of a UTF-8 encoded JSON file. The file is memory-mapped and scanned in place, one window at a time, so memory use does not depend on the size of the file. <p>
+     * @see ContentHandler <p>
+     * @param file - the file to parse.
+     * @param contentHandler - receives the parsing events. The file is closed when this method returns, so parsing cannot be resumed after the handler stops it; use parse(FileChannel, ContentHandler, boolean) for that. <p>
+     * @throws IOException - In case of file read exception or similar
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public void parse(Path file, ContentHandler contentHandler) throws IOException, ParseException {
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            parse(in, contentHandler, false);
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Stream processing of a UTF-8 encoded JSON file. The file is memory-mapped and scanned in place, one window at a time, from the position of the channel to its end; the position of the channel is not changed. <p>
+     * @see ContentHandler <p>
+     * @param in - the file, open for reading. It must stay open until the parsing is finished.
+     * @param contentHandler - receives the parsing events.
+     * @param isResume - Indicates if it continues previous parsing operation. If set to true, resume parsing the old file, and parameter 'in' will be ignored. If this method is called for the first time in this instance, isResume will be
+     *            ignored. <p>
+     * @throws IOException - In case of file read exception or similar
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    public void parse(FileChannel in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException {
+        if (!isResume || !handlerStarted) {
+            reset(in);
+            handlerStarted = true;
         }
-        LinkedList<ElementType> statusStack = handlerStatusStack;
+        parse(contentHandler);
+    }
+    
+    /**
+     * Stream processing of the input the parser has been reset to, from the state the last call stopped in. <p>
+     * @param contentHandler - receives the parsing events.
+     * @throws IOException - In case of file read exception or similar
+     * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
+     */
+    void parse(ContentHandler contentHandler) throws IOException, ParseException {
         try {
             do {
+                if (skipRequested) {
+                    skipRequested = false;
+                    if (!skip(contentHandler)) return;
+                    continue;
+                }
                 switch (status) {
                     case INIT:
                         contentHandler.startJSON();
@@ -398,17 +1059,17 @@ public class JSONParser {
                         switch (token.type) {
                             case VALUE:
                                 status = ElementType.FINISHED_VALUE;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.primitive(token.value)) return;
+                                pushStatus(status);
+                                if (!contentHandler.primitive(token.getValue())) return;
                                 break;
                             case LEFT_BRACE:
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startObject()) return;
                                 break;
                             case LEFT_SQUARE:
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startArray()) return;
                                 break;
                             default:
@@ -423,7 +1084,7 @@ public class JSONParser {
                             return;
                         } else {
                             status = ElementType.IN_ERROR;
-                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                         }
                     case IN_OBJECT:
                         nextToken();
@@ -431,19 +1092,19 @@ public class JSONParser {
                             case COMMA:
                                 break;
                             case VALUE:
-                                if (token.value instanceof String) {
-                                    String key = (String) token.value;
+                                if (token.isString()) {
+                                    String key = key();
                                     status = ElementType.PASSED_PAIR_KEY;
-                                    statusStack.addFirst(status);
+                                    pushStatus(status);
                                     if (!contentHandler.startObjectEntry(key)) return;
                                 } else {
                                     status = ElementType.IN_ERROR;
                                 }
                                 break;
                             case RIGHT_BRACE:
-                                if (statusStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (statusDepth > 1) {
+                                    popStatus();
+                                    status = peekStatus();
                                 } else {
                                     status = ElementType.FINISHED_VALUE;
                                 }
@@ -460,23 +1121,23 @@ public class JSONParser {
                             case COLON:
                                 break;
                             case VALUE:
-                                statusStack.removeFirst();
-                                status = peekStatus(statusStack);
-                                if (!contentHandler.primitive(token.value)) return;
+                                popStatus();
+                                status = peekStatus();
+                                if (!contentHandler.primitive(token.getValue())) return;
                                 if (!contentHandler.endObjectEntry()) return;
                                 break;
                             case LEFT_SQUARE:
-                                statusStack.removeFirst();
-                                statusStack.addFirst(ElementType.PAIR_VALUE);
+                                popStatus();
+                                pushStatus(ElementType.PAIR_VALUE);
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startArray()) return;
                                 break;
                             case LEFT_BRACE:
-                                statusStack.removeFirst();
-                                statusStack.addFirst(ElementType.PAIR_VALUE);
+                                popStatus();
+                                pushStatus(ElementType.PAIR_VALUE);
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startObject()) return;
                                 break;
                             default:
@@ -487,8 +1148,8 @@ public class JSONParser {
                         /*
                          * IN_PAIR_VALUE is just a marker to indicate the end of an object entry, it doesn't process any token, therefore delay consuming token until next round.
                          */
-                        statusStack.removeFirst();
-                        status = peekStatus(statusStack);
+                        popStatus();
+                        status = peekStatus();
                         if (!contentHandler.endObjectEntry()) return;
                         break;
                     case IN_ARRAY:
@@ -497,12 +1158,12 @@ public class JSONParser {
                             case COMMA:
                                 break;
                             case VALUE:
-                                if (!contentHandler.primitive(token.value)) return;
+                                if (!contentHandler.primitive(token.getValue())) return;
                                 break;
                             case RIGHT_SQUARE:
-                                if (statusStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (statusDepth > 1) {
+                                    popStatus();
+                                    status = peekStatus();
                                 } else {
                                     status = ElementType.FINISHED_VALUE;
                                 }
@@ -510,12 +1171,12 @@ public class JSONParser {
                                 break;
                             case LEFT_BRACE:
                                 status = ElementType.IN_OBJECT;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startObject()) return;
                                 break;
                             case LEFT_SQUARE:
                                 status = ElementType.IN_ARRAY;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                                 if (!contentHandler.startArray()) return;
                                 break;
                             default:
@@ -525,10 +1186,10 @@ public class JSONParser {
                     case END:
                         return;
                     case IN_ERROR:
-                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                 }// switch
                 if (status == ElementType.IN_ERROR) {
-                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
                 }
             } while (token.type != TokenType.EOF);
         } catch (IOException ie) {
@@ -545,6 +1206,87 @@ public class JSONParser {
             throw e;
         }
         status = ElementType.IN_ERROR;
-        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+    }
+    
+    /**
+     * Skips the value the ContentHandler of the running stream processing is being notified of the start of: called from startObjectEntry(String), the value of the entry; called from startObject() or startArray(), the rest
+     * of the object or array. The handler receives no events for the skipped content, and next receives endObjectEntry(), endObject() or endArray(). <p> Input read from a Reader, an InputStream or a file is passed over
+     * by a raw scan that only balances brackets and matches quotes: no tokens are created, strings are not unescaped and numbers are not converted, so skipped content is not checked any further. If the handler stops the
+     * parsing after asking, the value is skipped when the parsing is resumed. <p>
+     * @throws IllegalStateException - if the handler is not being notified of the start of a value, or the parsing is run by an AsyncJSONParser, whose input may not hold the whole value yet.
+     */
+    public void skipValue() {
+        if (source instanceof FeedLexer) throw new IllegalStateException("skipValue() is not supported by AsyncJSONParser");
+        boolean starting = token != null && (status == ElementType.PASSED_PAIR_KEY && token.type == TokenType.VALUE || status == ElementType.IN_OBJECT && token.type == TokenType.LEFT_BRACE
+                || status == ElementType.IN_ARRAY && token.type == TokenType.LEFT_SQUARE);
+        if (!handlerStarted || !starting) throw new IllegalStateException("skipValue() must be called when a ContentHandler is notified of the start of a value");
+        skipRequested = true;
+    }
+    
+    /**
+     * Skips the value the handler has asked to skip, and notifies the handler of its end. <p>
+     * @return false if the handler wants to stop parsing after return.
+     */
+    private boolean skip(ContentHandler contentHandler) throws IOException, ParseException {
+        if (status == ElementType.PASSED_PAIR_KEY) {
+            if (!skipElement()) throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+            popStatus();
+            status = peekStatus();
+            return contentHandler.endObjectEntry();
+        }
+        boolean object = status == ElementType.IN_OBJECT;
+        while (skipElement()) {
+            // the keys of a skipped object are skipped like values
+        }
+        if (token.type != (object ? TokenType.RIGHT_BRACE : TokenType.RIGHT_SQUARE)) throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+        if (statusDepth > 1) {
+            popStatus();
+            status = peekStatus();
+        } else {
+            status = ElementType.FINISHED_VALUE;
+        }
+        return object ? contentHandler.endObject() : contentHandler.endArray();
+    }
+    
+    /**
+     * Skips the commas and colons before the next value and the value itself, raw if the scanner can. <p>
+     * @return true if a value was skipped, false if the next token, then the current one, is not the start of a value.
+     */
+    private boolean skipElement() throws IOException, ParseException {
+        if (source instanceof SkippingLexer) {
+            if (((SkippingLexer) source).skipValue()) return true;
+            nextToken();
+            return false;
+        }
+        do {
+            nextToken();
+        } while (token.type == TokenType.COMMA || token.type == TokenType.COLON);
+        switch (token.type) {
+            case VALUE:
+                return true;
+            case LEFT_BRACE:
+            case LEFT_SQUARE:
+                for (int depth = 1; depth > 0;) {
+                    nextToken();
+                    switch (token.type) {
+                        case LEFT_BRACE:
+                        case LEFT_SQUARE:
+                            depth++;
+                            break;
+                        case RIGHT_BRACE:
+                        case RIGHT_SQUARE:
+                            depth--;
+                            break;
+                        case EOF:
+                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+                        default:
+                            break;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
     }
 }
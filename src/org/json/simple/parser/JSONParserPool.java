@@ -0,0 +1,143 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe pool of JSONParser instances, so that parsing many small messages does not allocate a new scanner with its 16 KB buffer per call. <p> Parsers are kept in a fixed number of slots that are taken and given back with
+ * compare-and-set; there is no lock and no ThreadLocal, so the pool can be used from any number of threads, virtual threads included, without pinning a carrier or keeping one parser per thread alive. A thread starts looking for an
+ * idle parser at a slot chosen by its id, which spreads concurrent callers over the slots. When all slots are empty a new parser is created, and when all slots are full a returned parser is dropped. Before a parser goes back to the
+ * pool its input is dropped and buffers grown by a large document are shrunk to their initial size, so an idle pool retains a bounded amount of memory. <p>
+ * @author Daniel J. Umpiérrez
+ */
+public final class JSONParserPool {
+    
+    private final AtomicReferenceArray<JSONParser> slots;
+    private final int mask;
+    
+    /**
+     * Class constructor. The pool has twice as many slots as there are available processors, rounded up to a power of two.
+     */
+    public JSONParserPool() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param size - maximum number of idle parsers kept, rounded up to a power of two.
+     */
+    public JSONParserPool(int size) {
+        if (size < 1) throw new IllegalArgumentException("size < 1: " + size);
+        int slotCount = Integer.highestOneBit(size);
+        if (slotCount < size) slotCount <<= 1;
+        slots = new AtomicReferenceArray<JSONParser>(slotCount);
+        mask = slotCount - 1;
+    }
+    
+    /**
+     * Takes an idle parser from the pool, or creates one if there is none. The caller owns the parser until it hands it back with release(JSONParser). The parser has the default settings, whatever settings its previous
+     * borrower made. <p>
+     * @return a parser that no other thread uses, with the default settings.
+     */
+    public JSONParser acquire() {
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            JSONParser parser = slots.get(index);
+            if (parser != null && slots.compareAndSet(index, parser, null)) return parser;
+        }
+        return new JSONParser();
+    }
+    
+    /**
+     * Gives a parser back to the pool. The parser must not be used by the caller afterwards. Its key cache, numeric arrays, number policy and structural indexing are set back to the defaults, so they do not leak to the
+     * next borrower. <p>
+     * @param parser - a parser obtained from acquire().
+     */
+    public void release(JSONParser parser) {
+        parser.trim();
+        parser.resetSettings();
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, parser)) return;
+        }
+    }
+    
+    /**
+     * Parse JSON text into java object with a pooled parser. <p>
+     * @see JSONParser#parse(String) <p>
+     * @param s - String where data is allocated (must be in JSON format)
+     * @return Instance of the following: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public Object parse(String s) throws ParseException {
+        return parse(s, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse JSON text into java object with a pooled parser. <p>
+     * @see JSONParser#parse(String, ContainerFactory) <p>
+     * @param s - String where data is allocated (must be in JSON format)
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public Object parse(String s, ContainerFactory containerFactory) throws ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(s, containerFactory);
+        } finally {
+            release(parser);
+        }
+    }
+    
+    /**
+     * Parse JSON text into java object with a pooled parser. <p>
+     * @see JSONParser#parse(Reader) <p>
+     * @param in - type Reader object instance where data is stored.
+     * @return Instance of the following: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public Object parse(Reader in) throws IOException, ParseException {
+        return parse(in, (ContainerFactory) null);
+    }
+    
+    /**
+     * Parse JSON text into java object with a pooled parser. <p>
+     * @see JSONParser#parse(Reader, ContainerFactory) <p>
+     * @param in - type Reader object instance where data is stored.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public Object parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(in, containerFactory);
+        } finally {
+            release(parser);
+        }
+    }
+    
+    /**
+     * Parse UTF-8 encoded JSON text into java object with a pooled parser. <p>
+     * @see JSONParser#parse(byte[], int, int) <p>
+     * @param bytes - the input.
+     * @param offset - index of the first byte of the JSON text.
+     * @param length - number of bytes of the JSON text.
+     * @return Instance of the following: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public Object parse(byte[] bytes, int offset, int length) throws ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(bytes, offset, length);
+        } finally {
+            release(parser);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Compiled JSONPath-like expression, selecting values of JSON text by the keys and indexes that lead to them. The expressions are those that can be evaluated in one pass over a stream: <p>
+ * <ul>
+ * <li>$ - the root value, which starts every expression;</li>
+ * <li>.name or ['name'] - the value of the entry of an object with that key; in the bracket form the key is quoted with ' or " and may contain any character, a backslash escaping the next one;</li>
+ * <li>[n] - the element of an array at index n, from 0;</li>
+ * <li>.* or [*] - every entry value of an object or element of an array;</li>
+ * <li>..name, ..* or ..[...] - the same, at any depth below the current value.</li>
+ * </ul>
+ * <p> e.g. $.items[*].id selects the id of every element of the items array, and $..id every id at any depth. Use {@link JSONPathExtractor} to evaluate several expressions in one pass over the input. <p>
+ * @author Daniel J. Umpiérrez
+ */
+public final class JSONPath {
+    
+    /* step kinds */
+    static final int NAME = 0;
+    static final int INDEX = 1;
+    static final int WILDCARD = 2;
+    
+    private final String expression;
+    private final int[] kinds;
+    private final String[] names;
+    private final int[] indexes;
+    private final boolean[] descendants;
+    
+    private JSONPath(String expression, List<Object> steps, List<Boolean> descendants) {
+        this.expression = expression;
+        int n = steps.size();
+        this.kinds = new int[n];
+        this.names = new String[n];
+        this.indexes = new int[n];
+        this.descendants = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Object step = steps.get(i);
+            if (step == null) {
+                kinds[i] = WILDCARD;
+            } else if (step instanceof String) {
+                kinds[i] = NAME;
+                names[i] = (String) step;
+            } else {
+                kinds[i] = INDEX;
+                indexes[i] = ((Integer) step).intValue();
+            }
+            this.descendants[i] = descendants.get(i).booleanValue();
+        }
+    }
+    
+    /**
+     * Compiles an expression. <p>
+     * @param expression - the expression, e.g. $.items[*].id
+     * @return the compiled expression.
+     * @throws IllegalArgumentException - if the expression is not valid or uses a feature that cannot be streamed, such as negative indexes, slices or filters.
+     */
+    public static JSONPath compile(String expression) {
+        List<Object> steps = new ArrayList<Object>();
+        List<Boolean> descendants = new ArrayList<Boolean>();
+        int n = expression.length();
+        if (n == 0 || expression.charAt(0) != '$') throw invalid(expression, 0, "expected $");
+        int i = 1;
+        while (i < n) {
+            char c = expression.charAt(i);
+            boolean descendant = false;
+            if (c == '.') {
+                descendant = i + 1 < n && expression.charAt(i + 1) == '.';
+                i += descendant ? 2 : 1;
+                if (i < n && expression.charAt(i) == '[' && descendant) {
+                    i = bracket(expression, i, steps);
+                } else if (i < n && expression.charAt(i) == '*') {
+                    steps.add(null);
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < n && expression.charAt(i) != '.' && expression.charAt(i) != '[')
+                        i++;
+                    if (i == start) throw invalid(expression, i, "expected a name");
+                    steps.add(expression.substring(start, i));
+                }
+            } else if (c == '[') {
+                i = bracket(expression, i, steps);
+            } else {
+                throw invalid(expression, i, "expected . or [");
+            }
+            descendants.add(Boolean.valueOf(descendant));
+        }
+        return new JSONPath(expression, steps, descendants);
+    }
+    
+    /**
+     * Compiles the bracket step starting at index i. <p>
+     * @return the index after the step.
+     */
+    private static int bracket(String expression, int i, List<Object> steps) {
+        int n = expression.length();
+        i = skipSpaces(expression, i + 1);
+        if (i == n) throw invalid(expression, i, "expected ]");
+        char c = expression.charAt(i);
+        if (c == '*') {
+            steps.add(null);
+            i++;
+        } else if (c == '\'' || c == '"') {
+            StringBuilder name = new StringBuilder();
+            i++;
+            while (i < n && expression.charAt(i) != c) {
+                if (expression.charAt(i) == '\\') i++;
+                if (i < n) name.append(expression.charAt(i++));
+            }
+            if (i == n) throw invalid(expression, i, "expected " + c);
+            steps.add(name.toString());
+            i++;
+        } else if (c >= '0' && c <= '9') {
+            long index = 0;
+            while (i < n && expression.charAt(i) >= '0' && expression.charAt(i) <= '9') {
+                index = index * 10 + expression.charAt(i++) - '0';
+                if (index > Integer.MAX_VALUE) throw invalid(expression, i, "index too large");
+            }
+            steps.add(Integer.valueOf((int) index));
+        } else if (c == '-') {
+            throw invalid(expression, i, "negative indexes are not supported");
+        } else {
+            throw invalid(expression, i, "expected *, a quoted name or an index");
+        }
+        i = skipSpaces(expression, i);
+        if (i == n || expression.charAt(i) != ']') throw invalid(expression, i, "expected ]");
+        return i + 1;
+    }
+    
+    private static int skipSpaces(String expression, int i) {
+        while (i < expression.length() && expression.charAt(i) == ' ')
+            i++;
+        return i;
+    }
+    
+    private static IllegalArgumentException invalid(String expression, int position, String message) {
+        return new IllegalArgumentException("Invalid JSONPath expression at position " + position + ", " + message + ": " + expression);
+    }
+    
+    /**
+     * Getter.
+     * @return The number of steps after $.
+     */
+    int length() {
+        return kinds.length;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether a step also matches at any depth below the value it applies to.
+     */
+    boolean isDescendant(int step) {
+        return descendants[step];
+    }
+    
+    /**
+     * @return Whether a step matches the entry of an object with a key.
+     */
+    boolean matches(int step, String key) {
+        return kinds[step] == WILDCARD || kinds[step] == NAME && names[step].equals(key);
+    }
+    
+    /**
+     * @return Whether a step matches the element of an array at an index.
+     */
+    boolean matches(int step, int index) {
+        return kinds[step] == WILDCARD || kinds[step] == INDEX && indexes[step] == index;
+    }
+    
+    /**
+     * Selects the values of JSON text. <p>
+     * @param s - the JSON text.
+     * @return the values selected, in the order in which they end in the text.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public List<Object> read(String s) throws ParseException {
+        final List<Object> values = new ArrayList<Object>();
+        new JSONPathExtractor(this).extract(s, collector(values));
+        return values;
+    }
+    
+    /**
+     * Selects the values of JSON text. <p>
+     * @param in - the JSON text.
+     * @return the values selected, in the order in which they end in the text.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public List<Object> read(Reader in) throws IOException, ParseException {
+        final List<Object> values = new ArrayList<Object>();
+        new JSONPathExtractor(this).extract(in, collector(values));
+        return values;
+    }
+    
+    /**
+     * Selects the values of UTF-8 encoded JSON text. <p>
+     * @param in - the JSON text.
+     * @return the values selected, in the order in which they end in the text.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public List<Object> read(InputStream in) throws IOException, ParseException {
+        final List<Object> values = new ArrayList<Object>();
+        new JSONPathExtractor(this).extract(in, collector(values));
+        return values;
+    }
+    
+    private static BiConsumer<JSONPath, Object> collector(final List<Object> values) {
+        return new BiConsumer<JSONPath, Object>() {
+            @Override
+            public void accept(JSONPath path, Object value) {
+                values.add(value);
+            }
+        };
+    }
+    
+    /**
+     * @return The expression the path was compiled from.
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
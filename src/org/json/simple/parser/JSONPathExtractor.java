@@ -0,0 +1,379 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import org.json.simple.parser.Yytoken.TokenType;
+
+/**
+ * Streaming evaluation of a set of {@link JSONPath} expressions: one pass over JSON text that hands every value selected by an expression to a BiConsumer, together with the expression. <p> The expressions are compiled into
+ * states, and the states every open object and array is in tell, for each key or index, whether the value there or anything below it can be selected. Values that cannot are skipped raw by the scanner, which only balances
+ * brackets and matches quotes: their strings are not unescaped, their numbers not converted and no token is reported for them, so selecting a few fields of a large document costs little more than reading it. Only the keys of
+ * the objects on the way to a selected value are decoded. As a consequence, skipped values are not checked any further. <p> A value selected by an expression is built like JSONParser.parse builds it and handed over once it
+ * ends, so a value nested in another selected value is handed over first. Please note that JSONPathExtractor is NOT thread-safe. <p>
+ *
+ * <pre>
+ * JSONPathExtractor extractor = new JSONPathExtractor(JSONPath.compile("$.items[*].id"));
+ * extractor.extract(in, new BiConsumer&lt;JSONPath, Object&gt;() {
+ *     public void accept(JSONPath path, Object id) {
+ *         process((Long) id);
+ *     }
+ * });
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class JSONPathExtractor {
+    
+    private final JSONPath[] paths;
+    private final JSONParser settings;
+    private final ContainerFactory containerFactory;
+    /** path of every state; the states of a path are consecutive, one before each of its steps but the last */
+    private final int[] statePaths;
+    private final int[] stateSteps;
+    /** the states of the root value */
+    private final int[] rootStates;
+    private Yylex charLexer;
+    private UTF8Lexer byteLexer;
+    /** stamp of the last computation each state or path was added in */
+    private final int[] stateMarks;
+    private final int[] pathMarks;
+    private int stamp = 0;
+    /** states and selecting paths of the value being started */
+    private final int[] next;
+    private int nextCount;
+    private final int[] matches;
+    private int matchCount;
+    /** open objects and arrays: their states, whether they are objects and the index of their next element */
+    private int[][] frameStates = new int[16][];
+    private int[] frameCounts = new int[16];
+    private boolean[] frameObjects = new boolean[16];
+    private int[] frameIndexes = new int[16];
+    private int depth;
+    /** values being built: their builder, the depth of their frame and the paths that select them */
+    private ValueBuilder[] builders = new ValueBuilder[4];
+    private int[] captureDepths = new int[4];
+    private int[][] capturePaths = new int[4][];
+    private int[] capturePathCounts = new int[4];
+    private int captureCount;
+    
+    /**
+     * Class constructor. <p>
+     * @param paths - the expressions.
+     */
+    public JSONPathExtractor(JSONPath... paths) {
+        this(new JSONParser(), null, paths);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param settings - parser whose number policy and numeric arrays setting apply to the values selected.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     * @param paths - the expressions.
+     */
+    public JSONPathExtractor(JSONParser settings, ContainerFactory containerFactory, JSONPath... paths) {
+        this.paths = paths.clone();
+        this.settings = settings;
+        this.containerFactory = containerFactory;
+        int states = 0;
+        for (JSONPath path : this.paths) {
+            states += path.length();
+        }
+        statePaths = new int[states];
+        stateSteps = new int[states];
+        stateMarks = new int[states];
+        next = new int[states];
+        pathMarks = new int[this.paths.length];
+        matches = new int[this.paths.length];
+        int count = 0;
+        int roots = 0;
+        int[] rootStates = new int[this.paths.length];
+        for (int p = 0; p < this.paths.length; p++) {
+            if (this.paths[p].length() > 0) rootStates[roots++] = count;
+            for (int i = 0; i < this.paths[p].length(); i++) {
+                statePaths[count] = p;
+                stateSteps[count++] = i;
+            }
+        }
+        this.rootStates = Arrays.copyOf(rootStates, roots);
+    }
+    
+    /**
+     * Evaluates the expressions over JSON text. <p>
+     * @param s - the JSON text.
+     * @param consumer - receives every value selected and the expression that selects it.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public void extract(String s, BiConsumer<JSONPath, Object> consumer) throws ParseException {
+        try {
+            extract(new StringReader(s), consumer);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+    
+    /**
+     * Evaluates the expressions over JSON text. <p>
+     * @param in - the JSON text.
+     * @param consumer - receives every value selected and the expression that selects it.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public void extract(Reader in, BiConsumer<JSONPath, Object> consumer) throws IOException, ParseException {
+        if (charLexer == null) charLexer = new Yylex((Reader) null);
+        charLexer.yyreset(in);
+        extract(charLexer, consumer);
+    }
+    
+    /**
+     * Evaluates the expressions over UTF-8 encoded JSON text. The bytes are scanned directly, without an InputStreamReader decoding them first. <p>
+     * @param in - the JSON text.
+     * @param consumer - receives every value selected and the expression that selects it.
+     * @throws IOException - In case of read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public void extract(InputStream in, BiConsumer<JSONPath, Object> consumer) throws IOException, ParseException {
+        if (byteLexer == null) byteLexer = new UTF8Lexer();
+        byteLexer.reset(in);
+        extract(byteLexer, consumer);
+    }
+    
+    /**
+     * Evaluates the expressions over a UTF-8 encoded JSON file. The file is memory-mapped and scanned in place, one window at a time. <p>
+     * @param file - the file.
+     * @param consumer - receives every value selected and the expression that selects it.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the text is not valid JSON text.
+     */
+    public void extract(Path file, BiConsumer<JSONPath, Object> consumer) throws IOException, ParseException {
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (byteLexer == null) byteLexer = new UTF8Lexer();
+            byteLexer.reset(in);
+            extract(byteLexer, consumer);
+        } finally {
+            in.close();
+        }
+    }
+    
+    private void extract(SkippingLexer lexer, BiConsumer<JSONPath, Object> consumer) throws IOException, ParseException {
+        lexer.setNumberPolicy(settings.getNumberPolicy());
+        depth = 0;
+        captureCount = 0;
+        try {
+            stamp++;
+            nextCount = 0;
+            for (int state : rootStates) {
+                add(state);
+            }
+            matchCount = 0;
+            for (int p = 0; p < paths.length; p++) {
+                if (paths[p].length() == 0) matches[matchCount++] = p;
+            }
+            value(lexer, nextToken(lexer), consumer);
+            while (depth > 0) {
+                int top = depth - 1;
+                if (frameObjects[top]) {
+                    Yytoken token = nextToken(lexer);
+                    if (token.type == TokenType.COMMA) continue;
+                    if (token.type == TokenType.RIGHT_BRACE) {
+                        close(consumer);
+                        continue;
+                    }
+                    if (token.type != TokenType.VALUE || !token.isString()) throw unexpected(lexer, token);
+                    String key = (String) token.getValue();
+                    for (int c = 0; c < captureCount; c++) {
+                        builders[c].startObjectEntry(key);
+                    }
+                    step(frameStates[top], frameCounts[top], key, 0);
+                    if (skippable()) {
+                        if (!lexer.skipValue()) throw unexpected(lexer, nextToken(lexer));
+                        continue;
+                    }
+                    do {
+                        token = nextToken(lexer);
+                    } while (token.type == TokenType.COLON);
+                    value(lexer, token, consumer);
+                } else {
+                    step(frameStates[top], frameCounts[top], null, frameIndexes[top]);
+                    if (skippable()) {
+                        if (lexer.skipValue()) {
+                            frameIndexes[top]++;
+                            continue;
+                        }
+                        Yytoken token = nextToken(lexer);
+                        if (token.type != TokenType.RIGHT_SQUARE) throw unexpected(lexer, token);
+                        close(consumer);
+                        continue;
+                    }
+                    Yytoken token = nextToken(lexer);
+                    if (token.type == TokenType.COMMA) continue;
+                    if (token.type == TokenType.RIGHT_SQUARE) {
+                        close(consumer);
+                        continue;
+                    }
+                    frameIndexes[top]++;
+                    value(lexer, token, consumer);
+                }
+            }
+            Yytoken token = nextToken(lexer);
+            if (token.type != TokenType.EOF) throw unexpected(lexer, token);
+        } finally {
+            for (int c = 0; c < captureCount; c++) {
+                capturePaths[c] = null;
+            }
+            captureCount = 0;
+        }
+    }
+    
+    private static Yytoken nextToken(Lexer lexer) throws IOException, ParseException {
+        Yytoken token = lexer.yylex();
+        if (token == null) token = new Yytoken(TokenType.EOF, null);
+        return token;
+    }
+    
+    private static ParseException unexpected(Lexer lexer, Yytoken token) {
+        return new ParseException(lexer.getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+    }
+    
+    /**
+     * @return Whether the value being started can be skipped: no expression selects it or anything below it, and it is not part of a value being built.
+     */
+    private boolean skippable() {
+        return nextCount == 0 && matchCount == 0 && captureCount == 0;
+    }
+    
+    private void add(int state) {
+        if (stateMarks[state] != stamp) {
+            stateMarks[state] = stamp;
+            next[nextCount++] = state;
+        }
+    }
+    
+    /**
+     * Computes the states and the selecting paths of the value at a key of an object, or else at an index of an array, from the states of its container.
+     */
+    private void step(int[] states, int count, String key, int index) {
+        stamp++;
+        nextCount = 0;
+        matchCount = 0;
+        for (int s = 0; s < count; s++) {
+            int state = states[s];
+            int p = statePaths[state];
+            int i = stateSteps[state];
+            JSONPath path = paths[p];
+            if (path.isDescendant(i)) add(state);
+            if (key != null ? path.matches(i, key) : path.matches(i, index)) {
+                if (i + 1 < path.length()) {
+                    add(state + 1);
+                } else if (pathMarks[p] != stamp) {
+                    pathMarks[p] = stamp;
+                    matches[matchCount++] = p;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Starts the value whose first token has been read, with the states and selecting paths computed for it.
+     */
+    private void value(Lexer lexer, Yytoken token, BiConsumer<JSONPath, Object> consumer) throws ParseException {
+        switch (token.type) {
+            case VALUE:
+                Object value = token.getValue();
+                for (int c = 0; c < captureCount; c++) {
+                    builders[c].primitive(value);
+                }
+                for (int m = 0; m < matchCount; m++) {
+                    consumer.accept(paths[matches[m]], value);
+                }
+                break;
+            case LEFT_BRACE:
+            case LEFT_SQUARE:
+                boolean object = token.type == TokenType.LEFT_BRACE;
+                for (int c = 0; c < captureCount; c++) {
+                    start(builders[c], object);
+                }
+                if (matchCount > 0) capture(object);
+                push(object);
+                break;
+            default:
+                throw unexpected(lexer, token);
+        }
+    }
+    
+    private static void start(ValueBuilder builder, boolean object) {
+        if (object)
+            builder.startObject();
+        else
+            builder.startArray();
+    }
+    
+    /**
+     * Starts building the object or array being started, for the paths that select it.
+     */
+    private void capture(boolean object) {
+        if (captureCount == builders.length) {
+            int n = captureCount * 2;
+            builders = Arrays.copyOf(builders, n);
+            captureDepths = Arrays.copyOf(captureDepths, n);
+            capturePaths = Arrays.copyOf(capturePaths, n);
+            capturePathCounts = Arrays.copyOf(capturePathCounts, n);
+        }
+        int c = captureCount++;
+        if (builders[c] == null) builders[c] = new ValueBuilder(settings, containerFactory, null);
+        builders[c].startJSON();
+        start(builders[c], object);
+        captureDepths[c] = depth + 1;
+        capturePaths[c] = Arrays.copyOf(matches, matchCount);
+        capturePathCounts[c] = matchCount;
+    }
+    
+    private void push(boolean object) {
+        if (depth == frameStates.length) {
+            int n = depth * 2;
+            frameStates = Arrays.copyOf(frameStates, n);
+            frameCounts = Arrays.copyOf(frameCounts, n);
+            frameObjects = Arrays.copyOf(frameObjects, n);
+            frameIndexes = Arrays.copyOf(frameIndexes, n);
+        }
+        if (frameStates[depth] == null) frameStates[depth] = new int[next.length];
+        System.arraycopy(next, 0, frameStates[depth], 0, nextCount);
+        frameCounts[depth] = nextCount;
+        frameObjects[depth] = object;
+        frameIndexes[depth] = 0;
+        depth++;
+    }
+    
+    /**
+     * Ends the innermost object or array, and hands it over if it is selected.
+     */
+    private void close(BiConsumer<JSONPath, Object> consumer) {
+        boolean object = frameObjects[depth - 1];
+        for (int c = 0; c < captureCount; c++) {
+            if (object)
+                builders[c].endObject();
+            else
+                builders[c].endArray();
+        }
+        if (captureCount > 0 && captureDepths[captureCount - 1] == depth) {
+            int c = --captureCount;
+            Object value = builders[c].take();
+            for (int m = 0; m < capturePathCounts[c]; m++) {
+                consumer.accept(paths[capturePaths[c][m]], value);
+            }
+            capturePaths[c] = null;
+        }
+        depth--;
+    }
+}
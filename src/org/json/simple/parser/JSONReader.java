@@ -0,0 +1,405 @@
+package org.json.simple.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.json.simple.parser.Yytoken.TokenType;
+
+/**
+ * Pull parser for JSON text: the caller asks for the next token instead of receiving callbacks as with {@link ContentHandler}. Only the innermost token and the nesting state are kept, so arbitrarily large arrays can be read element by
+ * element with constant memory. <p> The reader is strict: commas and colons must appear exactly where RFC 4627 puts them. Please note that JSONReader is NOT thread-safe. <p>
+ *
+ * <pre>
+ * JSONReader reader = new JSONReader(in);
+ * reader.nextToken(); // START_ARRAY
+ * while (reader.hasNext()) {
+ *     reader.nextToken(); // START_OBJECT
+ *     while (reader.hasNext()) {
+ *         String name = reader.nextName();
+ *         if (name.equals("id"))
+ *             process(reader.nextLong());
+ *         else
+ *             reader.skipValue();
+ *     }
+ *     reader.nextToken(); // END_OBJECT
+ * }
+ * reader.nextToken(); // END_ARRAY
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class JSONReader implements Closeable {
+    
+    /**
+     * java.lang.Enum type with the tokens returned by the reader.
+     */
+    public static enum Event {
+        /**
+         * Beginning of a JSON object.
+         */
+        START_OBJECT,
+        /**
+         * End of a JSON object.
+         */
+        END_OBJECT,
+        /**
+         * Beginning of a JSON array.
+         */
+        START_ARRAY,
+        /**
+         * End of a JSON array.
+         */
+        END_ARRAY,
+        /**
+         * Key of a JSON object entry.
+         */
+        NAME,
+        /**
+         * JSON primitive value: string, number, boolean or null.
+         */
+        VALUE,
+        /**
+         * End of the JSON text.
+         */
+        END_DOCUMENT
+    }
+    
+    /* nesting states */
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_ARRAY = 2;
+    private static final byte NONEMPTY_ARRAY = 3;
+    private static final byte EMPTY_OBJECT = 4;
+    private static final byte DANGLING_NAME = 5;
+    private static final byte NONEMPTY_OBJECT = 6;
+    /**
+     * Token source.
+     */
+    private final Lexer lexer;
+    /**
+     * The input, closed by close().
+     */
+    private final Closeable in;
+    /**
+     * Nesting state of every open container, the document itself at index 0.
+     */
+    private byte[] stack = new byte[32];
+    private int depth = 1;
+    /**
+     * The event returned by the next call to nextToken(), or null if it has not been read yet.
+     */
+    private Event peeked;
+    /**
+     * Token holding the key or primitive value of the peeked NAME or VALUE event. It is the lexer's reusable token, so numbers stay unboxed and strings are not copied unless they are asked for.
+     */
+    private Yytoken value;
+    
+    /**
+     * Class constructor. <p>
+     * @param in - type Reader object instance where data is stored.
+     */
+    public JSONReader(Reader in) {
+        this.lexer = new Yylex(in);
+        this.in = in;
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param s - String where data is allocated (must be in JSON format)
+     */
+    public JSONReader(String s) {
+        this(new StringReader(s));
+    }
+    
+    /**
+     * Class constructor. The bytes are scanned directly, see JSONParser#parse(InputStream). <p>
+     * @param in - stream of UTF-8 encoded JSON text.
+     */
+    public JSONReader(InputStream in) {
+        UTF8Lexer utf8Lexer = new UTF8Lexer();
+        utf8Lexer.reset(in);
+        this.lexer = utf8Lexer;
+        this.in = in;
+    }
+    
+    /**
+     * Getter.
+     * @return The position of the beginning of the current token.
+     */
+    public int getPosition() {
+        return lexer.getPosition();
+    }
+    
+    /**
+     * Returns the next token without consuming it. <p>
+     * @return the type of the next token.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     */
+    public Event peek() throws IOException, ParseException {
+        if (peeked == null) peeked = advance();
+        return peeked;
+    }
+    
+    /**
+     * Consumes the next token. The key of a NAME token and the value of a VALUE token are dropped; use nextName(), nextValue() and the like to read them. <p>
+     * @return the type of the consumed token.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     */
+    public Event nextToken() throws IOException, ParseException {
+        Event event = peek();
+        if (event != Event.END_DOCUMENT) peeked = null;
+        return event;
+    }
+    
+    /**
+     * @return true if the current object or array has another element, false before END_OBJECT, END_ARRAY and END_DOCUMENT.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     */
+    public boolean hasNext() throws IOException, ParseException {
+        Event event = peek();
+        return event != Event.END_OBJECT && event != Event.END_ARRAY && event != Event.END_DOCUMENT;
+    }
+    
+    /**
+     * Consumes the key of the next object entry. <p>
+     * @return the key.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not a NAME.
+     */
+    public String nextName() throws IOException, ParseException {
+        expect(Event.NAME);
+        peeked = null;
+        return (String) value.getValue();
+    }
+    
+    /**
+     * Consumes the next primitive value. <p>
+     * @return Instance of the following: java.lang.String, java.lang.Number, java.lang.Boolean, null
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not a VALUE.
+     */
+    public Object nextValue() throws IOException, ParseException {
+        expect(Event.VALUE);
+        peeked = null;
+        return value.getValue();
+    }
+    
+    /**
+     * Consumes the next string value. <p>
+     * @return the string.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not a string.
+     */
+    public String nextString() throws IOException, ParseException {
+        expect(Event.VALUE);
+        if (!value.isString()) throw mismatch("a string");
+        peeked = null;
+        return (String) value.getValue();
+    }
+    
+    /**
+     * Consumes the next number value, which must be integral. <p>
+     * @return the number.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text, or the number is beyond the range of long.
+     * @throws IllegalStateException - if the next token is not an integral number.
+     */
+    public long nextLong() throws IOException, ParseException {
+        expect(Event.VALUE);
+        long result;
+        if (value.isLong()) {
+            result = value.longValue();
+        } else if (value.isNumber()) {
+            double d = value.doubleValue();
+            // checked first, as the cast below saturates: 2^63 would pass for Long.MAX_VALUE
+            if (!(d >= -0x1p63 && d < 0x1p63)) throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, value.copy());
+            if (d != (long) d) throw mismatch("an integral number");
+            result = (long) d;
+        } else {
+            throw mismatch("an integral number");
+        }
+        peeked = null;
+        return result;
+    }
+    
+    /**
+     * Consumes the next number value. <p>
+     * @return the number.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not a number.
+     */
+    public double nextDouble() throws IOException, ParseException {
+        expect(Event.VALUE);
+        if (!value.isNumber()) throw mismatch("a number");
+        peeked = null;
+        return value.doubleValue();
+    }
+    
+    /**
+     * Consumes the next boolean value. <p>
+     * @return the boolean.
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not a boolean.
+     */
+    public boolean nextBoolean() throws IOException, ParseException {
+        expect(Event.VALUE);
+        if (!(value.getValue() instanceof Boolean)) throw mismatch("a boolean");
+        peeked = null;
+        return ((Boolean) value.getValue()).booleanValue();
+    }
+    
+    /**
+     * Consumes the next value, which must be null. <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if the next token is not null.
+     */
+    public void nextNull() throws IOException, ParseException {
+        expect(Event.VALUE);
+        if (value.getValue() != null) throw mismatch("null");
+        peeked = null;
+    }
+    
+    /**
+     * Skips the next value, with all its content if it is an object or an array. If the next token is a NAME, the key and its value are skipped. <p>
+     * @throws IOException - In case of file read exception or similar.
+     * @throws ParseException - if the input is not valid JSON text.
+     * @throws IllegalStateException - if there is no value to skip.
+     */
+    public void skipValue() throws IOException, ParseException {
+        if (!hasNext()) throw mismatch("a value");
+        int level = 0;
+        do {
+            switch (nextToken()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    level++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    level--;
+                    break;
+                case NAME:
+                    if (level == 0) skipValue();
+                    break;
+                default:
+                    break;
+            }
+        } while (level > 0);
+    }
+    
+    /**
+     * Closes the underlying input.
+     * @throws IOException - In case of file read exception or similar.
+     */
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+    
+    private void expect(Event event) throws IOException, ParseException {
+        if (peek() != event) throw mismatch(event == Event.NAME ? "a name" : "a value");
+    }
+    
+    private IllegalStateException mismatch(String expected) {
+        String found = peeked == Event.VALUE ? String.valueOf(value.getValue()) : String.valueOf(peeked);
+        return new IllegalStateException("Expected " + expected + " but was " + found + " at position " + getPosition() + ".");
+    }
+    
+    private Yytoken nextLexerToken() throws IOException, ParseException {
+        Yytoken token = lexer.yylex();
+        if (token == null) token = new Yytoken(TokenType.EOF, null);
+        return token;
+    }
+    
+    private Event advance() throws IOException, ParseException {
+        Yytoken token = nextLexerToken();
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return value(token);
+            case NONEMPTY_DOCUMENT:
+                if (token.type == TokenType.EOF) return Event.END_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                if (token.type == TokenType.RIGHT_SQUARE) {
+                    depth--;
+                    return Event.END_ARRAY;
+                }
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return value(token);
+            case NONEMPTY_ARRAY:
+                if (token.type == TokenType.RIGHT_SQUARE) {
+                    depth--;
+                    return Event.END_ARRAY;
+                }
+                if (token.type == TokenType.COMMA) return value(nextLexerToken());
+                break;
+            case EMPTY_OBJECT:
+                if (token.type == TokenType.RIGHT_BRACE) {
+                    depth--;
+                    return Event.END_OBJECT;
+                }
+                return name(token);
+            case NONEMPTY_OBJECT:
+                if (token.type == TokenType.RIGHT_BRACE) {
+                    depth--;
+                    return Event.END_OBJECT;
+                }
+                if (token.type == TokenType.COMMA) return name(nextLexerToken());
+                break;
+            case DANGLING_NAME:
+                if (token.type == TokenType.COLON) {
+                    stack[depth - 1] = NONEMPTY_OBJECT;
+                    return value(nextLexerToken());
+                }
+                break;
+            default:
+                break;
+        }
+        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+    }
+    
+    private Event name(Yytoken token) throws ParseException {
+        if (token.type != TokenType.VALUE || !token.isString()) throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+        stack[depth - 1] = DANGLING_NAME;
+        value = token;
+        return Event.NAME;
+    }
+    
+    private Event value(Yytoken token) throws ParseException {
+        switch (token.type) {
+            case VALUE:
+                value = token;
+                return Event.VALUE;
+            case LEFT_BRACE:
+                push(EMPTY_OBJECT);
+                return Event.START_OBJECT;
+            case LEFT_SQUARE:
+                push(EMPTY_ARRAY);
+                return Event.START_ARRAY;
+            default:
+                throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token.copy());
+        }
+    }
+    
+    private void push(byte state) {
+        if (depth == stack.length) {
+            byte[] newStack = new byte[depth * 2];
+            System.arraycopy(stack, 0, newStack, 0, depth);
+            stack = newStack;
+        }
+        stack[depth++] = state;
+    }
+}
@@ -0,0 +1,60 @@
+package org.json.simple.parser;
+
+/**
+ * Bounded cache of object keys, so that the same key read again and again yields one canonical String instead of a new copy every time. <p> The cache is direct-mapped: a key is looked up in the single slot selected by its hash,
+ * which is computed over the characters of the token, so a hit creates no String at all. A miss creates the String and replaces whatever the slot held. Keys longer than MAX_KEY_LENGTH are not cached, which bounds the memory
+ * retained by the cache. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class KeyCache {
+    
+    /** longest key that is cached */
+    static final int MAX_KEY_LENGTH = 64;
+    private final String[] keys;
+    private final int mask;
+    
+    /**
+     * Class constructor. <p>
+     * @param size number of slots, rounded up to a power of two.
+     */
+    KeyCache(int size) {
+        int slotCount = Integer.highestOneBit(size);
+        if (slotCount < size) slotCount <<= 1;
+        keys = new String[slotCount];
+        mask = slotCount - 1;
+    }
+    
+    /**
+     * @return the number of slots.
+     */
+    int size() {
+        return keys.length;
+    }
+    
+    /**
+     * Returns the canonical String with the given characters. <p>
+     * @param text the characters of the key.
+     * @return the cached String equal to text, or a new one.
+     */
+    String get(CharSequence text) {
+        int length = text.length();
+        if (length > MAX_KEY_LENGTH) return text.toString();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String key = keys[index];
+        if (key != null && key.hashCode() == hash && key.length() == length && equals(key, text, length)) return key;
+        key = text.toString();
+        keys[index] = key;
+        return key;
+    }
+    
+    private static boolean equals(String key, CharSequence text, int length) {
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,345 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.json.simple.JSONArray;
+
+/**
+ * A JSON array returned by JSONParser.parseLazy(String), whose elements are read from the JSON text only when the array is first accessed. Reading them decodes the strings, numbers and literals of the array itself; nested
+ * objects and arrays become LazyJSONObject and LazyJSONArray in turn, so a subtree that is never accessed is never decoded. <p> Until its elements are read, the array is written by toJSONString() and
+ * writeJSONString(Writer) as the exact text it was read from, including its whitespace. Once read, it is an ordinary JSONArray. <p> Reading the elements modifies the array, so a lazy array must not be accessed by several
+ * threads at once. It keeps the whole JSON text it was parsed from reachable until its elements are read. <p>
+ * @see JSONParser#parseLazy(String)
+ * @author Daniel J. Umpiérrez
+ */
+public final class LazyJSONArray extends JSONArray {
+    
+    private static final long serialVersionUID = 5815434218062430911L;
+    /** index of the JSON text, or null once the elements have been read */
+    private transient StructuralIndex index;
+    private final transient int container;
+    
+    /**
+     * Class constructor. <p>
+     * @param index - index of the JSON text.
+     * @param container - number of the array in the index.
+     */
+    LazyJSONArray(StructuralIndex index, int container) {
+        this.index = index;
+        this.container = container;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the elements have been read from the JSON text.
+     */
+    public boolean isMaterialized() {
+        return index == null;
+    }
+    
+    /**
+     * Reads the elements from the JSON text on the first call.
+     */
+    private void materialize() {
+        StructuralIndex i = index;
+        if (i != null) {
+            index = null;
+            i.fill(container, this);
+        }
+    }
+    
+    /**
+     * Appends an element read from the JSON text.
+     */
+    void element(Object value) {
+        super.add(value);
+    }
+    
+    @Override
+    public int size() {
+        materialize();
+        return super.size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        materialize();
+        return super.isEmpty();
+    }
+    
+    @Override
+    public Object get(int index) {
+        materialize();
+        return super.get(index);
+    }
+    
+    @Override
+    public Object set(int index, Object element) {
+        materialize();
+        return super.set(index, element);
+    }
+    
+    @Override
+    public boolean add(Object e) {
+        materialize();
+        return super.add(e);
+    }
+    
+    @Override
+    public void add(int index, Object element) {
+        materialize();
+        super.add(index, element);
+    }
+    
+    @Override
+    public Object remove(int index) {
+        materialize();
+        return super.remove(index);
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        materialize();
+        return super.remove(o);
+    }
+    
+    @Override
+    public void clear() {
+        index = null;
+        super.clear();
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        materialize();
+        return super.contains(o);
+    }
+    
+    @Override
+    public int indexOf(Object o) {
+        materialize();
+        return super.indexOf(o);
+    }
+    
+    @Override
+    public int lastIndexOf(Object o) {
+        materialize();
+        return super.lastIndexOf(o);
+    }
+    
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        materialize();
+        return super.containsAll(c);
+    }
+    
+    @Override
+    public boolean addAll(Collection<? extends Object> c) {
+        materialize();
+        return super.addAll(c);
+    }
+    
+    @Override
+    public boolean addAll(int index, Collection<? extends Object> c) {
+        materialize();
+        return super.addAll(index, c);
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        materialize();
+        return super.removeAll(c);
+    }
+    
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        materialize();
+        return super.retainAll(c);
+    }
+    
+    @Override
+    public boolean removeIf(Predicate<? super Object> filter) {
+        materialize();
+        return super.removeIf(filter);
+    }
+    
+    @Override
+    public void replaceAll(UnaryOperator<Object> operator) {
+        materialize();
+        super.replaceAll(operator);
+    }
+    
+    @Override
+    public void sort(Comparator<? super Object> c) {
+        materialize();
+        super.sort(c);
+    }
+    
+    @Override
+    public List<Object> subList(int fromIndex, int toIndex) {
+        materialize();
+        return super.subList(fromIndex, toIndex);
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Object> action) {
+        materialize();
+        super.forEach(action);
+    }
+    
+    @Override
+    public Object[] toArray() {
+        materialize();
+        return super.toArray();
+    }
+    
+    @Override
+    public <T> T[] toArray(T[] a) {
+        materialize();
+        return super.toArray(a);
+    }
+    
+    @Override
+    public Iterator<Object> iterator() {
+        materialize();
+        return super.iterator();
+    }
+    
+    @Override
+    public ListIterator<Object> listIterator() {
+        materialize();
+        return super.listIterator();
+    }
+    
+    @Override
+    public ListIterator<Object> listIterator(int index) {
+        materialize();
+        return super.listIterator(index);
+    }
+    
+    @Override
+    public Spliterator<Object> spliterator() {
+        materialize();
+        return super.spliterator();
+    }
+    
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        materialize();
+        super.ensureCapacity(minCapacity);
+    }
+    
+    @Override
+    public void trimToSize() {
+        materialize();
+        super.trimToSize();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        materialize();
+        return super.equals(o);
+    }
+    
+    @Override
+    public int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+    
+    @Override
+    public Object clone() {
+        materialize();
+        return super.clone();
+    }
+    
+    @Override
+    public String toJSONString() {
+        StructuralIndex i = index;
+        if (i != null) return i.toString(container);
+        return super.toJSONString();
+    }
+    
+    @Override
+    public void writeJSONString(Writer out) throws IOException {
+        StructuralIndex i = index;
+        if (i != null)
+            i.write(container, out);
+        else
+            super.writeJSONString(out);
+    }
+    
+    /**
+     * Serializes the array as a JSONArray with the same elements.
+     */
+    private Object writeReplace() {
+        JSONArray array = new JSONArray();
+        array.addAll(this);
+        return array;
+    }
+    
+    /*
+     * Methods of java.util.List added in Java 21, which ArrayList implements over its own storage.
+     */
+    
+    /**
+     * @return the first element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object getFirst() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return get(0);
+    }
+    
+    /**
+     * @return the last element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object getLast() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return get(size() - 1);
+    }
+    
+    /**
+     * @param e the element to insert at index 0.
+     */
+    public void addFirst(Object e) {
+        add(0, e);
+    }
+    
+    /**
+     * @param e the element to append.
+     */
+    public void addLast(Object e) {
+        add(e);
+    }
+    
+    /**
+     * @return the removed first element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(0);
+    }
+    
+    /**
+     * @return the removed last element.
+     * @throws NoSuchElementException if the array is empty.
+     */
+    public Object removeLast() {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(size() - 1);
+    }
+}
@@ -0,0 +1,249 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.json.simple.JSONObject;
+
+/**
+ * A JSON object returned by JSONParser.parseLazy(String), whose members are read from the JSON text only when the object is first accessed. Reading them decodes the keys and the strings, numbers and literals of the object
+ * itself; nested objects and arrays become LazyJSONObject and LazyJSONArray in turn, so a subtree that is never accessed is never decoded. <p> Until its members are read, the object is written by toJSONString() and
+ * writeJSONString(Writer) as the exact text it was read from, including its whitespace. Once read, it is an ordinary JSONObject. <p> Reading the members modifies the object, so a lazy object must not be accessed by several
+ * threads at once. It keeps the whole JSON text it was parsed from reachable until its members are read. <p>
+ * @see JSONParser#parseLazy(String)
+ * @author Daniel J. Umpiérrez
+ */
+public final class LazyJSONObject extends JSONObject {
+    
+    private static final long serialVersionUID = -1316183860719244347L;
+    /** index of the JSON text, or null once the members have been read */
+    private transient StructuralIndex index;
+    private final transient int container;
+    
+    /**
+     * Class constructor. <p>
+     * @param index - index of the JSON text.
+     * @param container - number of the object in the index.
+     */
+    LazyJSONObject(StructuralIndex index, int container) {
+        this.index = index;
+        this.container = container;
+    }
+    
+    /**
+     * Getter.
+     * @return Whether the members have been read from the JSON text.
+     */
+    public boolean isMaterialized() {
+        return index == null;
+    }
+    
+    /**
+     * Reads the members from the JSON text on the first call.
+     */
+    private void materialize() {
+        StructuralIndex i = index;
+        if (i != null) {
+            index = null;
+            i.fill(container, this);
+        }
+    }
+    
+    /**
+     * Adds a member read from the JSON text.
+     */
+    void member(String key, Object value) {
+        super.put(key, value);
+    }
+    
+    @Override
+    public int size() {
+        materialize();
+        return super.size();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        materialize();
+        return super.isEmpty();
+    }
+    
+    @Override
+    public Object get(Object key) {
+        materialize();
+        return super.get(key);
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        materialize();
+        return super.containsKey(key);
+    }
+    
+    @Override
+    public boolean containsValue(Object value) {
+        materialize();
+        return super.containsValue(value);
+    }
+    
+    @Override
+    public Object put(String key, Object value) {
+        materialize();
+        return super.put(key, value);
+    }
+    
+    @Override
+    public void add(String key, Object value) {
+        materialize();
+        super.add(key, value);
+    }
+    
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> map) {
+        materialize();
+        super.putAll(map);
+    }
+    
+    @Override
+    public Object remove(Object key) {
+        materialize();
+        return super.remove(key);
+    }
+    
+    @Override
+    public void clear() {
+        index = null;
+        super.clear();
+    }
+    
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        materialize();
+        return super.getOrDefault(key, defaultValue);
+    }
+    
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        materialize();
+        return super.putIfAbsent(key, value);
+    }
+    
+    @Override
+    public boolean remove(Object key, Object value) {
+        materialize();
+        return super.remove(key, value);
+    }
+    
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        materialize();
+        return super.replace(key, oldValue, newValue);
+    }
+    
+    @Override
+    public Object replace(String key, Object value) {
+        materialize();
+        return super.replace(key, value);
+    }
+    
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction) {
+        materialize();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+    
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        materialize();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+    
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction) {
+        materialize();
+        return super.compute(key, remappingFunction);
+    }
+    
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+        materialize();
+        return super.merge(key, value, remappingFunction);
+    }
+    
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        materialize();
+        super.forEach(action);
+    }
+    
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function) {
+        materialize();
+        super.replaceAll(function);
+    }
+    
+    @Override
+    public Set<String> keySet() {
+        materialize();
+        return super.keySet();
+    }
+    
+    @Override
+    public Collection<Object> values() {
+        materialize();
+        return super.values();
+    }
+    
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        materialize();
+        return super.entrySet();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        materialize();
+        return super.equals(o);
+    }
+    
+    @Override
+    public int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+    
+    @Override
+    public Object clone() {
+        materialize();
+        return super.clone();
+    }
+    
+    @Override
+    public String toJSONString() {
+        StructuralIndex i = index;
+        if (i != null) return i.toString(container);
+        return super.toJSONString();
+    }
+    
+    @Override
+    public void writeJSONString(Writer out) throws IOException {
+        StructuralIndex i = index;
+        if (i != null)
+            i.write(container, out);
+        else
+            super.writeJSONString(out);
+    }
+    
+    /**
+     * Serializes the object as a JSONObject with the same members.
+     */
+    private Object writeReplace() {
+        return new JSONObject(this);
+    }
+}
@@ -0,0 +1,31 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+
+/**
+ * Token source used by JSONParser. Implemented by the JFlex generated {@link Yylex} for character input and by {@link UTF8Lexer} for UTF-8 encoded byte input. <p>
+ * @author Daniel J. Umpiérrez
+ */
+interface Lexer {
+    
+    /**
+     * Resumes scanning until the next token is matched or the end of input is encountered. <p> Every call returns the same mutable token, so no token object, boxed number or String is allocated while scanning; a caller that keeps
+     * a value calls {@link Yytoken#getValue()}, and a caller that keeps the token itself, e.g. in a ParseException, keeps a {@link Yytoken#copy()}. <p>
+     * @return the next token, or null at the end of input. <p>
+     * @throws IOException if any I/O-Error occurs
+     * @throws ParseException on input that is not JSON text.
+     */
+    Yytoken yylex() throws IOException, ParseException;
+    
+    /**
+     * Getter.
+     * @return The position of the beginning of the current token.
+     */
+    int getPosition();
+    
+    /**
+     * Sets how number tokens are represented. With any policy but LONG_OR_DOUBLE, a number token holds the Object made by the policy instead of an unboxed long or double. <p>
+     * @param numberPolicy the policy.
+     */
+    void setNumberPolicy(NumberPolicy numberPolicy);
+}
@@ -0,0 +1,238 @@
+package org.json.simple.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of newline-delimited JSON (NDJSON, also known as JSON Lines): a sequence of JSON values, usually one per line, such as a log with one object per event. <p> One JSONParser and one scanner, with its buffer, read all the
+ * records, so reading a record allocates nothing but the record itself. Like JSONParser, the reader is lenient: records are separated by any whitespace, so blank lines are skipped and several records may share a line. Positions
+ * reported by ParseException are offsets from the start of the input. <p> Parse errors are thrown by the Iterator and Stream methods as an UncheckedParseException, and I/O errors as an
+ * UncheckedIOException. Please note that NDJSONReader is NOT thread-safe. <p>
+ *
+ * <pre>
+ * try (NDJSONReader reader = new NDJSONReader(in)) {
+ *     reader.stream().forEach(record -> process((JSONObject) record));
+ * }
+ * </pre>
+ *
+ * @author Daniel J. Umpiérrez
+ */
+public class NDJSONReader implements Iterator<Object>, Closeable {
+    
+    /**
+     * Smallest number of bytes a parallel stream splits off.
+     */
+    private static final int MIN_SPLIT_SIZE = 1 << 16;
+    
+    private final JSONParser parser;
+    private final ContainerFactory containerFactory;
+    private final Closeable in;
+    /**
+     * Record read by hasNext() and not yet returned by next(), or END_OF_INPUT.
+     */
+    private Object next;
+    /**
+     * Whether next holds the record that follows the ones returned.
+     */
+    private boolean ready = false;
+    
+    /**
+     * Class constructor. <p>
+     * @param in - the NDJSON text.
+     */
+    public NDJSONReader(Reader in) {
+        this(in, new JSONParser(), null);
+    }
+    
+    /**
+     * Class constructor. <p>
+     * @param in - the NDJSON text.
+     * @param parser - the parser that reads the records, with its settings; it must not be used for anything else until the reader is closed.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     */
+    public NDJSONReader(Reader in, JSONParser parser, ContainerFactory containerFactory) {
+        this.parser = parser;
+        this.containerFactory = containerFactory;
+        this.in = in;
+        parser.reset(in);
+    }
+    
+    /**
+     * Class constructor. The bytes are scanned directly, without an InputStreamReader decoding them first. <p>
+     * @param in - the UTF-8 encoded NDJSON text.
+     */
+    public NDJSONReader(InputStream in) {
+        this(in, new JSONParser(), null);
+    }
+    
+    /**
+     * Class constructor. The bytes are scanned directly, without an InputStreamReader decoding them first. <p>
+     * @param in - the UTF-8 encoded NDJSON text.
+     * @param parser - the parser that reads the records, with its settings; it must not be used for anything else until the reader is closed.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null.
+     */
+    public NDJSONReader(InputStream in, JSONParser parser, ContainerFactory containerFactory) {
+        this.parser = parser;
+        this.containerFactory = containerFactory;
+        this.in = in;
+        parser.reset(in);
+    }
+    
+    /**
+     * @return Whether there is another record.
+     * @throws UncheckedParseException - if the next record is not valid JSON text.
+     * @throws UncheckedIOException - In case of read exception or similar.
+     */
+    @Override
+    public boolean hasNext() {
+        if (!ready) {
+            next = parseNext(parser, containerFactory, 0);
+            ready = true;
+        }
+        return next != JSONParser.END_OF_INPUT;
+    }
+    
+    /**
+     * @return The next record: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean or null.
+     * @throws NoSuchElementException - if there are no more records.
+     * @throws UncheckedParseException - if the next record is not valid JSON text.
+     * @throws UncheckedIOException - In case of read exception or similar.
+     */
+    @Override
+    public Object next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        Object record = next;
+        next = null;
+        return record;
+    }
+    
+    /**
+     * @return A sequential stream of the remaining records, which closes this reader when it is closed.
+     */
+    public Stream<Object> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Closes the input.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    /**
+     * Stream of the records of the remaining bytes of a buffer, UTF-8 encoded NDJSON text. A parallel stream splits the buffer at newlines into parts of at least 64 KB, each read by a parser of its own, so every record must
+     * be on one line, with no line break inside its strings, as NDJSON requires. Positions reported by ParseException are offsets from the position of the buffer. <p>
+     * @param in - the input; its position is not changed.
+     * @param settings - parser whose settings the parsers of the stream copy, or null for the default settings.
+     * @param containerFactory - Use this factory to create your own JSON object and JSON array containers, or null; it is called from the threads of a parallel stream.
+     * @param parallel - true for a parallel stream.
+     * @return The stream.
+     */
+    public static Stream<Object> stream(ByteBuffer in, JSONParser settings, ContainerFactory containerFactory, boolean parallel) {
+        LineSpliterator spliterator = new LineSpliterator(in.duplicate(), settings == null ? new JSONParser() : settings, containerFactory, in.position(), in.limit());
+        return StreamSupport.stream(spliterator, parallel);
+    }
+    
+    /**
+     * Parses the next record with unchecked exceptions. <p>
+     * @param offset - offset of the input of the parser, added to the positions of parse errors.
+     */
+    private static Object parseNext(JSONParser parser, ContainerFactory containerFactory, int offset) {
+        try {
+            return parser.parseNextValue(containerFactory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            if (offset != 0) e = new ParseException(e.getPosition() + offset, e.getErrorType(), e.getUnexpectedObject());
+            throw new UncheckedParseException(e);
+        }
+    }
+    
+    /**
+     * Spliterator over the records of a part of a buffer that starts at the beginning of a line.
+     */
+    private static final class LineSpliterator implements Spliterator<Object> {
+        
+        private final ByteBuffer buffer;
+        private final JSONParser settings;
+        private final ContainerFactory containerFactory;
+        /** index in buffer of the first byte of the part */
+        private int from;
+        /** index in buffer after the last byte of the part */
+        private final int to;
+        /** the parser reading the part, once the first record has been read */
+        private JSONParser parser;
+        
+        LineSpliterator(ByteBuffer buffer, JSONParser settings, ContainerFactory containerFactory, int from, int to) {
+            this.buffer = buffer;
+            this.settings = settings;
+            this.containerFactory = containerFactory;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            if (parser == null) {
+                parser = settings.newParser();
+                ByteBuffer part = buffer.duplicate();
+                part.limit(to);
+                part.position(from);
+                parser.reset(part);
+            }
+            Object record = parseNext(parser, containerFactory, from - buffer.position());
+            if (record == JSONParser.END_OF_INPUT) return false;
+            action.accept(record);
+            return true;
+        }
+        
+        @Override
+        public Spliterator<Object> trySplit() {
+            if (parser != null || to - from < 2 * MIN_SPLIT_SIZE) return null;
+            for (int i = (from + to) >>> 1; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    Spliterator<Object> prefix = new LineSpliterator(buffer, settings, containerFactory, from, i + 1);
+                    from = i + 1;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * @return The number of bytes left, as the number of records is not known.
+         */
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+        
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.json.simple.parser;
+
+/**
+ * Decodes number tokens directly from the character buffer of a lexer, without creating a String for the common cases. <p> Integers of up to 18 digits are accumulated in a long and cannot overflow. Decimals whose significant
+ * digits fit in 53 bits and whose decimal exponent is at most 22 in magnitude are computed with a single multiplication or division by an exactly representable power of ten, which yields the correctly rounded result (Clinger's
+ * fast path). Everything else falls back to Long.parseLong or Double.parseDouble, so results and exceptions are identical to theirs. <p> The range given to these methods must hold a number token as matched by the lexers:
+ * an optional minus sign and at least one digit, followed for decimals by an optional fraction and an optional exponent. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class NumberParser {
+    
+    /** longest run of digits that always fits in a long */
+    private static final int MAX_LONG_DIGITS = 18;
+    /** largest mantissa that a double represents exactly */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    
+    private NumberParser() {
+    }
+    
+    /**
+     * Decodes an integer token. <p>
+     * @param chars the buffer holding the token.
+     * @param off offset of the first character of the token.
+     * @param len length of the token.
+     * @return the value of the token.
+     * @throws NumberFormatException if the value does not fit in a long.
+     */
+    static long parseLong(char[] chars, int off, int len) {
+        int i = off;
+        int end = off + len;
+        boolean negative = chars[i] == '-';
+        if (negative) i++;
+        if (end - i > MAX_LONG_DIGITS) return Long.parseLong(new String(chars, off, len));
+        long value = 0;
+        for (; i < end; i++)
+            value = value * 10 + (chars[i] - '0');
+        return negative ? -value : value;
+    }
+    
+    /**
+     * Decodes a decimal token. <p>
+     * @param chars the buffer holding the token.
+     * @param off offset of the first character of the token.
+     * @param len length of the token.
+     * @return the value of the token, correctly rounded.
+     */
+    static double parseDouble(char[] chars, int off, int len) {
+        int i = off;
+        int end = off + len;
+        boolean negative = chars[i] == '-';
+        if (negative) i++;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        char c = 0;
+        for (; i < end; i++) {
+            c = chars[i];
+            if (c < '0' || c > '9') break;
+            if (digits == MAX_LONG_DIGITS) return Double.parseDouble(new String(chars, off, len));
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa != 0) digits++;
+        }
+        if (c == '.') {
+            for (i++; i < end; i++) {
+                c = chars[i];
+                if (c < '0' || c > '9') break;
+                if (digits == MAX_LONG_DIGITS) return Double.parseDouble(new String(chars, off, len));
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+                exponent--;
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            i++;
+            boolean negativeExponent = chars[i] == '-';
+            if (negativeExponent || chars[i] == '+') i++;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                // past this bound the fast path cannot apply anyway
+                if (explicitExponent < 10000) explicitExponent = explicitExponent * 10 + (chars[i] - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) return Double.parseDouble(new String(chars, off, len));
+        double value = mantissa;
+        if (exponent < 0)
+            value /= POWERS_OF_TEN[-exponent];
+        else
+            value *= POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+    
+    /**
+     * Decodes the four hexadecimal digits of a unicode escape. <p>
+     * @param chars the buffer holding the digits.
+     * @param off offset of the first digit.
+     * @return the escaped character, or -1 if one of the characters is not a hexadecimal digit.
+     */
+    static int parseHex4(char[] chars, int off) {
+        int value = 0;
+        for (int i = off; i < off + 4; i++) {
+            int digit = hexDigit(chars[i]);
+            if (digit < 0) return -1;
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+    
+    /**
+     * @param c a character.
+     * @return the value of c as a hexadecimal digit, or -1 if it is not one.
+     */
+    static int hexDigit(int c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+}
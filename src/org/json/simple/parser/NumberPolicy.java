@@ -0,0 +1,55 @@
+package org.json.simple.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.json.simple.JSONNumber;
+
+/**
+ * How JSONParser represents the numbers it reads. <p>
+ * @see JSONParser#setNumberPolicy(NumberPolicy)
+ * @author Daniel J. Umpiérrez
+ */
+public enum NumberPolicy {
+    
+    /**
+     * Integers as java.lang.Long and decimals as java.lang.Double, converted while scanning. An integer outside the range of long is an error. This is the default.
+     */
+    LONG_OR_DOUBLE {
+        @Override
+        Object toNumber(char[] chars, int off, int len, boolean integral) {
+            if (integral) return Long.valueOf(NumberParser.parseLong(chars, off, len));
+            return Double.valueOf(NumberParser.parseDouble(chars, off, len));
+        }
+    },
+    /**
+     * Integers as java.math.BigInteger and decimals as java.math.BigDecimal, so every number keeps its exact value and a decimal keeps its scale: 1.50 stays 1.50. Integers of any length are accepted.
+     */
+    BIG_DECIMAL {
+        @Override
+        Object toNumber(char[] chars, int off, int len, boolean integral) {
+            if (integral) return new BigInteger(new String(chars, off, len));
+            return new BigDecimal(chars, off, len);
+        }
+    },
+    /**
+     * Every number as a {@link JSONNumber}, which keeps the characters of the number and converts them only when a value is first asked for. Serialization writes the original characters back, so numbers that are only passed
+     * through are never converted nor reformatted.
+     */
+    LAZY {
+        @Override
+        Object toNumber(char[] chars, int off, int len, boolean integral) {
+            return new JSONNumber(new String(chars, off, len));
+        }
+    };
+    
+    /**
+     * Converts a number token. <p>
+     * @param chars the buffer holding the token.
+     * @param off offset of the first character of the token.
+     * @param len length of the token.
+     * @param integral whether the token has neither a fraction nor an exponent.
+     * @return the number.
+     */
+    abstract Object toNumber(char[] chars, int off, int len, boolean integral);
+}
@@ -0,0 +1,219 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel parse of UTF-8 encoded JSON text whose value is an array, for JSONParser.parseArrayParallel. <p> A pre-scan with {@link BlockIndexer} tracks the nesting depth over the structural characters, which it finds
+ * outside strings only, and cuts the text at commas between elements of the outer array into chunks of about the same size. The chunks are parsed by tasks of a ForkJoinPool, each with its own JSONParser, as arrays of their
+ * own. <p> Files are pre-scanned one mapped window at a time, and every chunk maps its own region, so files larger than 2 GB can be parsed as long as no chunk is. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class ParallelArrayParser {
+    
+    /** smallest number of bytes parsed by a task; smaller input is parsed on the calling thread */
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+    /** chunks per thread of the pool, so that threads that finish early take over the remaining work */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** bytes of a file mapped at a time by the pre-scan, a multiple of BlockIndexer.BLOCK_SIZE */
+    private static final int WINDOW_SIZE = 1 << 30;
+    private static final int INITIAL_SIZE = 64;
+    
+    /** the parser whose settings the tasks use */
+    private final JSONParser settings;
+    private final ContainerFactory containerFactory;
+    private final ForkJoinPool pool;
+    /** the input, if it is a buffer */
+    private ByteBuffer buffer;
+    /** the input, if it is a file */
+    private FileChannel channel;
+    private long length;
+    /** start and end of the elements of each chunk */
+    private long[] starts = new long[INITIAL_SIZE];
+    private long[] ends = new long[INITIAL_SIZE];
+    private int count = 0;
+    private List<?>[] chunks;
+    /** set when a chunk is not valid */
+    private volatile boolean failed = false;
+    
+    /**
+     * Class constructor. <p>
+     * @param settings - the parser whose settings the tasks use.
+     * @param containerFactory - the factory of the containers, shared by the tasks, or null.
+     * @param pool - the pool running the tasks.
+     */
+    ParallelArrayParser(JSONParser settings, ContainerFactory containerFactory, ForkJoinPool pool) {
+        this.settings = settings;
+        this.containerFactory = containerFactory;
+        this.pool = pool;
+    }
+    
+    /**
+     * Parses the remaining bytes of a buffer. <p>
+     * @param in - the input.
+     * @return the elements of the array, one list per chunk in order, or null if the input must be parsed on the calling thread: because it is small, is not an array, or is not valid.
+     */
+    List<?>[] parse(ByteBuffer in) {
+        buffer = in;
+        length = in.remaining();
+        try {
+            return parse();
+        } catch (IOException e) {
+            // buffers are not read with I/O
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Parses a file from its start. <p>
+     * @param in - the input.
+     * @return the elements of the array, one list per chunk in order, or null if the input must be parsed on the calling thread: because it is small, is not an array, or is not valid.
+     * @throws IOException - In case of file read exception or similar.
+     */
+    List<?>[] parse(FileChannel in) throws IOException {
+        channel = in;
+        length = in.size();
+        return parse();
+    }
+    
+    private List<?>[] parse() throws IOException {
+        if (length < 2L * MIN_CHUNK_SIZE) return null;
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, length / ((long) pool.getParallelism() * CHUNKS_PER_THREAD));
+        if (!split(chunkSize) || count < 2) return null;
+        chunks = new List<?>[count];
+        try {
+            pool.invoke(new ChunkTask(0, count));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return failed ? null : chunks;
+    }
+    
+    /**
+     * @return the bytes of the input from start, at most WINDOW_SIZE of them.
+     */
+    private ByteBuffer window(long start) throws IOException {
+        return slice(start, Math.min(length, start + WINDOW_SIZE));
+    }
+    
+    /**
+     * @return the bytes of the input from start to end.
+     */
+    private ByteBuffer slice(long start, long end) throws IOException {
+        if (channel != null) return channel.map(MapMode.READ_ONLY, start, end - start);
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(buffer.position() + (int) start);
+        slice.limit(buffer.position() + (int) end);
+        return slice.slice();
+    }
+    
+    private void chunk(long start, long end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count++] = end;
+    }
+    
+    /**
+     * Pre-scans the input and cuts it into chunks. <p>
+     * @param chunkSize - the size of a chunk, at least.
+     * @return Whether the input is an array whose brackets balance and whose chunks fit in a buffer.
+     */
+    private boolean split(long chunkSize) throws IOException {
+        BlockIndexer indexer = new BlockIndexer();
+        int[] positions = new int[4096 + BlockIndexer.BLOCK_SIZE];
+        int depth = 0;
+        long start = -1;
+        boolean closed = false;
+        for (long offset = 0; offset < length; offset += WINDOW_SIZE) {
+            ByteBuffer window = window(offset);
+            if (offset == 0)
+                indexer.reset(window);
+            else
+                indexer.resume(window);
+            int n;
+            while ((n = indexer.next(positions)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    // anything after the closing bracket is an error
+                    if (closed) return false;
+                    long position = offset + positions[i];
+                    byte b = window.get(window.position() + positions[i]);
+                    if (depth == 0) {
+                        if (b != '[') return false;
+                        depth = 1;
+                        start = position + 1;
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        if (--depth == 0) {
+                            chunk(start, position);
+                            closed = true;
+                        }
+                    } else if (b == ',' && depth == 1 && position - start >= chunkSize) {
+                        chunk(start, position);
+                        start = position + 1;
+                    }
+                }
+            }
+        }
+        if (!closed) return false;
+        for (int i = 0; i < count; i++) {
+            if (ends[i] - starts[i] > Integer.MAX_VALUE) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Parses one chunk with a new parser with the settings of the calling one.
+     */
+    private void parseChunk(int chunk) throws IOException {
+        try {
+            chunks[chunk] = settings.newParser().parseElements(slice(starts[chunk], ends[chunk]), containerFactory);
+        } catch (ParseException e) {
+            // the calling thread parses the whole input again to report the error
+            failed = true;
+        } catch (RuntimeException e) {
+            // e.g. the NumberFormatException of a long that overflows: an error of the whole input may come before it, so it is reported the same way
+            failed = true;
+        }
+    }
+    
+    /**
+     * Parses the chunks from one index to another, halving the range until a single chunk is left.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        
+        ChunkTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (failed) return;
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(from, middle), new ChunkTask(middle, to));
+                return;
+            }
+            try {
+                parseChunk(from);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
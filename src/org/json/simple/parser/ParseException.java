@@ -103,7 +103,7 @@ public class ParseException extends Exception {
     
     @Override
     public String toString() {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         switch (errorType) {
             case ERROR_UNEXPECTED_CHAR:
                 sb.append("Unexpected character (").append(unexpectedObject).append(") at position ").append(position).append(".");
@@ -0,0 +1,19 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+
+/**
+ * Token source that can also skip a whole value without scanning its tokens. Implemented by {@link Yylex} and {@link UTF8Lexer}, and used by {@link JSONPathExtractor} for the subtrees no path can match. <p>
+ * @author Daniel J. Umpiérrez
+ */
+interface SkippingLexer extends Lexer {
+    
+    /**
+     * Skips the whitespace, commas and colons before the next value and then the value itself, without decoding it: the brackets of objects and arrays are only balanced and the quotes of strings matched, so escapes are not
+     * decoded nor the numbers inside them converted, and a skipped container is not checked any further. A number or literal at the top of the skipped value is scanned as a token. <p>
+     * @return true if a value was skipped, false if the next token is a closing bracket or the end of input, which is left to yylex().
+     * @throws IOException if any I/O-Error occurs
+     * @throws ParseException if the input ends inside the value or its brackets do not match.
+     */
+    boolean skipValue() throws IOException, ParseException;
+}
@@ -0,0 +1,392 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Structural index of a JSON text, the first pass of JSONParser.parseLazy(String): the positions where every object and array opens and closes, found by one scan that decodes nothing. LazyJSONObject and LazyJSONArray
+ * use it to read the members of one container when they are first accessed, and to write an untouched container back as the text it was read from. <p> Containers are numbered in the order they open, so the first container
+ * nested in container n is n + 1, and the container after the whole subtree of n is next[n]. The scan accepts exactly the text JSONParser accepts: commas and colons may be repeated or omitted, and values are decoded on
+ * access with the rules of the JSONParser scanners. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class StructuralIndex {
+    
+    private static final int INITIAL_SIZE = 16;
+    
+    private static final byte IN_OBJECT = 0;
+    private static final byte PASSED_PAIR_KEY = 1;
+    private static final byte IN_ARRAY = 2;
+    
+    /** the JSON text */
+    private final char[] text;
+    /** how numbers are decoded */
+    private final NumberPolicy numberPolicy;
+    /** position of the opening brace or square bracket of each container */
+    private int[] open = new int[INITIAL_SIZE];
+    /** position of the closing brace or square bracket of each container */
+    private int[] close = new int[INITIAL_SIZE];
+    /** number of the first container after the subtree of each container */
+    private int[] next = new int[INITIAL_SIZE];
+    private int count = 0;
+    /** position after the token decoded by the last call of readValue(int) or readString(int) */
+    private int end;
+    /** reused while decoding strings with escapes */
+    private final StringBuilder sb = new StringBuilder();
+    
+    private StructuralIndex(char[] text, NumberPolicy numberPolicy) {
+        this.text = text;
+        this.numberPolicy = numberPolicy;
+    }
+    
+    /**
+     * Indexes a JSON text whose value is an object or an array. <p>
+     * @param text the JSON text.
+     * @param numberPolicy how numbers are decoded.
+     * @return the index, or null if text is not accepted by JSONParser; parsing it again with JSONParser reports the error.
+     */
+    static StructuralIndex index(char[] text, NumberPolicy numberPolicy) {
+        StructuralIndex index = new StructuralIndex(text, numberPolicy);
+        return index.scan() ? index : null;
+    }
+    
+    /**
+     * @return The number of containers.
+     */
+    int size() {
+        return count;
+    }
+    
+    /**
+     * @param container the number of a container.
+     * @return Whether the container is an object, as opposed to an array.
+     */
+    boolean isObject(int container) {
+        return text[open[container]] == '{';
+    }
+    
+    private int skipWhitespace(int i) {
+        while (i < text.length) {
+            char c = text[i];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            i++;
+        }
+        return i;
+    }
+    
+    private int open(int i) {
+        if (count == open.length) {
+            open = Arrays.copyOf(open, count * 2);
+            close = Arrays.copyOf(close, count * 2);
+            next = Arrays.copyOf(next, count * 2);
+        }
+        open[count] = i;
+        return count++;
+    }
+    
+    /**
+     * Runs the JSONParser state machine over the text, recording containers instead of building them. <p>
+     * @return Whether the text is accepted.
+     */
+    private boolean scan() {
+        byte[] states = new byte[INITIAL_SIZE];
+        int[] containers = new int[INITIAL_SIZE];
+        int depth = 0;
+        int i = skipWhitespace(0);
+        if (i == text.length || text[i] != '{' && text[i] != '[') return false;
+        while (true) {
+            if (i == text.length) return false;
+            char c = text[i];
+            if (c == '{' || c == '[') {
+                if (depth > 0 && states[depth - 1] == PASSED_PAIR_KEY)
+                    states[depth - 1] = IN_OBJECT;
+                else if (depth > 0 && states[depth - 1] != IN_ARRAY) return false;
+                if (depth == states.length) {
+                    states = Arrays.copyOf(states, depth * 2);
+                    containers = Arrays.copyOf(containers, depth * 2);
+                }
+                states[depth] = c == '{' ? IN_OBJECT : IN_ARRAY;
+                containers[depth++] = open(i);
+                i++;
+            } else if (c == '}' || c == ']') {
+                if (states[depth - 1] != (c == '}' ? IN_OBJECT : IN_ARRAY)) return false;
+                int container = containers[--depth];
+                close[container] = i;
+                next[container] = count;
+                i++;
+                if (depth == 0) return skipWhitespace(i) == text.length;
+            } else if (c == ',') {
+                if (states[depth - 1] == PASSED_PAIR_KEY) return false;
+                i++;
+            } else if (c == ':') {
+                if (states[depth - 1] != PASSED_PAIR_KEY) return false;
+                i++;
+            } else if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                i++;
+            } else {
+                byte state = states[depth - 1];
+                if (state == IN_OBJECT) {
+                    if (c != '"') return false;
+                    states[depth - 1] = PASSED_PAIR_KEY;
+                } else if (state == PASSED_PAIR_KEY) {
+                    states[depth - 1] = IN_OBJECT;
+                }
+                i = skipValue(i);
+                if (i < 0) return false;
+            }
+        }
+    }
+    
+    /**
+     * Skips a string, number or literal token. <p>
+     * @param i the position of the first character of the token.
+     * @return the position after the token, or -1 if there is no valid token at i.
+     */
+    private int skipValue(int i) {
+        char c = text[i];
+        if (c == '"') {
+            for (i++; i < text.length; i++) {
+                c = text[i];
+                if (c == '"') return i + 1;
+                // the character after a backslash never ends the string, whether the escape is valid or not
+                if (c == '\\') i++;
+            }
+            return -1;
+        }
+        if (c == '-' || c >= '0' && c <= '9') {
+            int start = i;
+            boolean integral = true;
+            if (c == '-') i++;
+            int digits = i;
+            i = skipDigits(i);
+            if (i == digits) return -1;
+            int fractionDigits = 0;
+            int exponentDigits = 0;
+            if (i + 1 < text.length && text[i] == '.' && isDigit(text[i + 1])) {
+                int fraction = i + 1;
+                i = skipDigits(fraction);
+                fractionDigits = i - fraction;
+                integral = false;
+            }
+            if (i < text.length && (text[i] == 'e' || text[i] == 'E')) {
+                int exponent = i + 1;
+                if (exponent < text.length && (text[exponent] == '-' || text[exponent] == '+')) exponent++;
+                if (exponent < text.length && isDigit(text[exponent])) {
+                    i = skipDigits(exponent);
+                    exponentDigits = i - exponent;
+                    integral = false;
+                }
+            }
+            // numbers the policy cannot convert are an error of JSONParser: integers that do not fit in a long under the default policy, and decimals whose scale does not fit in an int under BIG_DECIMAL
+            boolean mayFail;
+            if (numberPolicy == NumberPolicy.LONG_OR_DOUBLE)
+                mayFail = integral && i - digits > 18;
+            else if (numberPolicy == NumberPolicy.BIG_DECIMAL)
+                mayFail = exponentDigits > 9 || fractionDigits > Integer.MAX_VALUE - 1000000000;
+            else
+                mayFail = false;
+            if (mayFail) {
+                try {
+                    numberPolicy.toNumber(text, start, i - start, integral);
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+            return i;
+        }
+        if (matches(i, "true") || matches(i, "null")) return i + 4;
+        if (matches(i, "false")) return i + 5;
+        return -1;
+    }
+    
+    private int skipDigits(int i) {
+        while (i < text.length && isDigit(text[i]))
+            i++;
+        return i;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private boolean matches(int i, String literal) {
+        if (i + literal.length() > text.length) return false;
+        for (int j = 0; j < literal.length(); j++) {
+            if (text[i + j] != literal.charAt(j)) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Reads the members of an object. <p>
+     * @param container the number of the object.
+     * @param object the object to fill.
+     */
+    void fill(int container, LazyJSONObject object) {
+        int i = open[container] + 1;
+        int child = container + 1;
+        while (true) {
+            char c = text[i];
+            if (c == '}') return;
+            if (c != '"') {
+                i++;
+                continue;
+            }
+            String key = readString(i);
+            i = end;
+            while ((c = text[i]) == ':' || c == ' ' || c == '\t' || c == '\n' || c == '\r')
+                i++;
+            if (c == '{' || c == '[') {
+                object.member(key, container(child));
+                i = close[child] + 1;
+                child = next[child];
+            } else {
+                object.member(key, readValue(i));
+                i = end;
+            }
+        }
+    }
+    
+    /**
+     * Reads the elements of an array. <p>
+     * @param container the number of the array.
+     * @param array the array to fill.
+     */
+    void fill(int container, LazyJSONArray array) {
+        int i = open[container] + 1;
+        int child = container + 1;
+        while (true) {
+            char c = text[i];
+            if (c == ']') return;
+            if (c == ',' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                i++;
+            } else if (c == '{' || c == '[') {
+                array.element(container(child));
+                i = close[child] + 1;
+                child = next[child];
+            } else {
+                array.element(readValue(i));
+                i = end;
+            }
+        }
+    }
+    
+    /**
+     * @param container the number of a container.
+     * @return A new lazy view of the container.
+     */
+    Object container(int container) {
+        if (isObject(container)) return new LazyJSONObject(this, container);
+        return new LazyJSONArray(this, container);
+    }
+    
+    /**
+     * Decodes the string, number or literal token at i and sets end to the position after it.
+     */
+    private Object readValue(int i) {
+        char c = text[i];
+        if (c == '"') return readString(i);
+        if (c == 't') {
+            end = i + 4;
+            return Boolean.TRUE;
+        }
+        if (c == 'f') {
+            end = i + 5;
+            return Boolean.FALSE;
+        }
+        if (c == 'n') {
+            end = i + 4;
+            return null;
+        }
+        end = skipValue(i);
+        boolean integral = true;
+        for (int j = i; j < end; j++) {
+            if (text[j] == '.' || text[j] == 'e' || text[j] == 'E') integral = false;
+        }
+        return numberPolicy.toNumber(text, i, end - i, integral);
+    }
+    
+    /**
+     * Decodes the string token at i, with the escapes of the JSONParser scanners: an escape that is not valid keeps its backslash. Sets end to the position after the closing quote.
+     */
+    private String readString(int i) {
+        int start = ++i;
+        while (text[i] != '"' && text[i] != '\\')
+            i++;
+        if (text[i] == '"') {
+            end = i + 1;
+            return new String(text, start, i - start);
+        }
+        sb.setLength(0);
+        sb.append(text, start, i - start);
+        while (true) {
+            char c = text[i++];
+            if (c == '"') break;
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            c = text[i];
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(c);
+                    i++;
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    i++;
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    i++;
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    i++;
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    i++;
+                    break;
+                case 't':
+                    sb.append('\t');
+                    i++;
+                    break;
+                case 'u':
+                    int ch = i + 5 <= text.length ? NumberParser.parseHex4(text, i + 1) : -1;
+                    if (ch >= 0) {
+                        sb.append((char) ch);
+                        i += 5;
+                    } else {
+                        sb.append('\\');
+                    }
+                    break;
+                default:
+                    sb.append('\\');
+            }
+        }
+        end = i;
+        return sb.toString();
+    }
+    
+    /**
+     * Writes a container as the text it was read from. <p>
+     * @param container the number of the container.
+     * @param out the writer.
+     * @throws IOException if out fails.
+     */
+    void write(int container, Writer out) throws IOException {
+        out.write(text, open[container], close[container] + 1 - open[container]);
+    }
+    
+    /**
+     * @param container the number of a container.
+     * @return The text the container was read from.
+     */
+    String toString(int container) {
+        return new String(text, open[container], close[container] + 1 - open[container]);
+    }
+}
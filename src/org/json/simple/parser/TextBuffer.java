@@ -0,0 +1,109 @@
+package org.json.simple.parser;
+
+/**
+ * Growable, unsynchronized character buffer holding the text of the current string token. It is handed out as the CharSequence view of a reusable {@link Yytoken}, so its content is only valid until the lexer reads the next token. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class TextBuffer implements CharSequence {
+    
+    private char[] chars;
+    private int length;
+    
+    /**
+     * Class constructor. <p>
+     * @param capacity initial capacity.
+     */
+    TextBuffer(int capacity) {
+        chars = new char[capacity];
+    }
+    
+    /**
+     * Removes all characters.
+     */
+    void clear() {
+        length = 0;
+    }
+    
+    /**
+     * Appends one character. <p>
+     * @param ch the character.
+     */
+    void append(char ch) {
+        if (length == chars.length) grow(length + 1);
+        chars[length++] = ch;
+    }
+    
+    /**
+     * Appends a range of characters. <p>
+     * @param src the characters.
+     * @param off offset of the first character to append.
+     * @param len number of characters to append.
+     */
+    void append(char[] src, int off, int len) {
+        if (length + len > chars.length) grow(length + len);
+        System.arraycopy(src, off, chars, length, len);
+        length += len;
+    }
+    
+    /**
+     * Makes room for len more characters. <p>
+     * @param len number of characters.
+     * @return the backing array, to be filled from index length().
+     */
+    char[] reserve(int len) {
+        if (length + len > chars.length) grow(length + len);
+        return chars;
+    }
+    
+    /**
+     * Sets the length after the backing array returned by reserve(int) has been filled. <p>
+     * @param length the new length.
+     */
+    void setLength(int length) {
+        this.length = length;
+    }
+    
+    /**
+     * @return the backing array, holding the characters from index 0 to length().
+     */
+    char[] array() {
+        return chars;
+    }
+    
+    /**
+     * Removes all characters and replaces the backing array if it has grown beyond maxCapacity. <p>
+     * @param maxCapacity capacity kept by an idle buffer.
+     */
+    void trim(int maxCapacity) {
+        length = 0;
+        if (chars.length > maxCapacity) chars = new char[maxCapacity];
+    }
+    
+    private void grow(int minLength) {
+        char[] newChars = new char[Math.max(minLength, chars.length * 2)];
+        System.arraycopy(chars, 0, newChars, 0, length);
+        chars = newChars;
+    }
+    
+    @Override
+    public int length() {
+        return length;
+    }
+    
+    @Override
+    public char charAt(int index) {
+        if (index >= length) throw new StringIndexOutOfBoundsException(index);
+        return chars[index];
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) throw new StringIndexOutOfBoundsException(end);
+        return new String(chars, start, end - start);
+    }
+    
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,627 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.json.simple.parser.Yytoken.TokenType;
+
+/**
+ * Scanner for UTF-8 encoded JSON text that works on the bytes directly, so no Reader or charset decoder runs in front of it. It accepts the same language as {@link Yylex}. <p> Structural characters, numbers and literals are ASCII and
+ * never decoded. Strings made of plain ASCII characters are copied straight from the input; only strings containing escape sequences or non-ASCII characters go through the decoding loop. Malformed UTF-8 sequences are replaced by
+ * U+FFFD, as an InputStreamReader would do. <p> Positions are byte offsets from the start of the input. <p> Files are memory-mapped and scanned in place, one window of at most MAP_WINDOW bytes at a time, so files larger than 2 GB can be read as well. Positions beyond
+ * Integer.MAX_VALUE are reported as Integer.MAX_VALUE. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class UTF8Lexer implements SkippingLexer {
+    
+    /** size of the buffer used to read from an InputStream */
+    private static final int BUFFER_SIZE = 16384;
+    /** default maximum size of a memory-mapped window of a file */
+    static final int MAP_WINDOW = 1 << 30;
+    /** replacement for malformed input */
+    private static final char REPLACEMENT = '\uFFFD';
+    /** the input bytes: the caller's buffer, a wrapper around streamBuffer or the current window of the file */
+    private ByteBuffer buf;
+    /** index of the next byte to read in buf */
+    private int pos;
+    /** index after the last readable byte in buf */
+    private int limit;
+    /** input position of index 0 of buf */
+    private long offset;
+    /** the input stream, or null when the whole input is in buf */
+    private InputStream in;
+    private byte[] streamBuffer;
+    /** the memory-mapped file, or null */
+    private FileChannel channel;
+    /** file position after the current window */
+    private long mapped;
+    /** size of the file */
+    private long size;
+    /** maximum size of a memory-mapped window of the file */
+    private final int mapWindow;
+    /** position of the beginning of the current token */
+    private long tokenStart;
+    /** text of the current string or number token */
+    private final TextBuffer text = new TextBuffer(64);
+    /** view of the current string token when it is made of contiguous ASCII bytes of buf */
+    private final ASCIISequence asciiText = new ASCIISequence();
+    /** the token returned by every call of yylex() */
+    private final Yytoken token = new Yytoken(null, null);
+    /** how number tokens are represented */
+    private NumberPolicy numberPolicy = NumberPolicy.LONG_OR_DOUBLE;
+    /** closing brackets of the containers open in skipValue() */
+    private byte[] closers = new byte[32];
+    /** index in buf of the first byte fill() must keep, or -1: the start of a number part that may have to be read again */
+    private int mark = -1;
+    
+    /**
+     * Constructor de clase. <p>
+     */
+    UTF8Lexer() {
+        this(MAP_WINDOW);
+    }
+    
+    /**
+     * Class constructor for a scanner that maps files in windows of another size, e.g. a few bytes, to have a small file read across window edges the way a file larger than MAP_WINDOW is. <p>
+     * @param mapWindow maximum size of a memory-mapped window of a file, at least 3 bytes, as up to 2 bytes of a number are mapped again with the next window.
+     */
+    UTF8Lexer(int mapWindow) {
+        this.mapWindow = mapWindow;
+    }
+    
+    /**
+     * Reset the scanner to read the remaining bytes of a buffer. The position of the buffer is not changed. <p>
+     * @param buffer the input.
+     */
+    void reset(ByteBuffer buffer) {
+        in = null;
+        channel = null;
+        buf = buffer;
+        pos = buffer.position();
+        limit = buffer.limit();
+        offset = -pos;
+        tokenStart = 0;
+        mark = -1;
+    }
+    
+    /**
+     * Reset the scanner to read from a stream. Does not close the old stream. <p>
+     * @param in the input.
+     */
+    void reset(InputStream in) {
+        if (streamBuffer == null) streamBuffer = new byte[BUFFER_SIZE];
+        this.in = in;
+        channel = null;
+        buf = ByteBuffer.wrap(streamBuffer);
+        pos = limit = 0;
+        offset = 0;
+        tokenStart = 0;
+        mark = -1;
+    }
+    
+    /**
+     * Reset the scanner to read a file, from the current position of the channel to its end. The channel is not read through, but memory-mapped window by window; its position is not changed. <p>
+     * @param channel the input, open for reading.
+     * @throws IOException if any I/O-Error occurs
+     */
+    void reset(FileChannel channel) throws IOException {
+        in = null;
+        this.channel = channel;
+        mapped = channel.position();
+        size = channel.size();
+        buf = ByteBuffer.allocate(0);
+        pos = limit = 0;
+        offset = 0;
+        tokenStart = 0;
+        mark = -1;
+    }
+    
+    /**
+     * Drops the input and shrinks the text buffer if it has grown beyond BUFFER_SIZE, so that an idle scanner retains a bounded amount of memory. The scanner reads nothing until it is reset again.
+     */
+    void trim() {
+        in = null;
+        channel = null;
+        buf = null;
+        pos = limit = 0;
+        text.trim(BUFFER_SIZE);
+        token.set(null, null);
+    }
+    
+    @Override
+    public int getPosition() {
+        return position(tokenStart);
+    }
+    
+    /**
+     * Moves to another position of the input, which must be held entirely in the buffer given to reset(ByteBuffer). <p>
+     * @param position the position of the next byte to read.
+     */
+    void seek(int position) {
+        pos = (int) (position - offset);
+    }
+    
+    /**
+     * Getter.
+     * @return The position of the next byte to read.
+     */
+    int getReadPosition() {
+        return position(offset + pos);
+    }
+    
+    @Override
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        this.numberPolicy = numberPolicy;
+    }
+    
+    private static int position(long position) {
+        return (int) Math.min(position, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Refills the buffer from the input stream or moves it to the next window of the file. Bytes before pos are discarded, except those from mark on, which move to the start of the buffer. <p>
+     * @return false at the end of input.
+     * @throws IOException if any I/O-Error occurs
+     */
+    private boolean fill() throws IOException {
+        int keep = mark < 0 ? 0 : limit - mark;
+        if (channel != null) {
+            if (mapped >= size) return false;
+            long start = mapped - keep;
+            int length = (int) Math.min(mapWindow, size - start);
+            buf = channel.map(MapMode.READ_ONLY, start, length);
+            mapped = start + length;
+            offset += limit - keep;
+            pos = keep;
+            limit = length;
+            if (mark >= 0) mark = 0;
+            return true;
+        }
+        if (in == null) return false;
+        if (keep > 0) System.arraycopy(streamBuffer, mark, streamBuffer, 0, keep);
+        int n;
+        do {
+            n = in.read(streamBuffer, keep, streamBuffer.length - keep);
+        } while (n == 0);
+        if (n < 0) return false;
+        offset += limit - keep;
+        pos = keep;
+        limit = keep + n;
+        if (mark >= 0) mark = 0;
+        return true;
+    }
+    
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf.get(pos++) & 0xFF;
+    }
+    
+    @Override
+    public Yytoken yylex() throws IOException, ParseException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        tokenStart = offset + pos - 1;
+        switch (c) {
+            case -1:
+                tokenStart++;
+                return null;
+            case '{':
+                return token.set(TokenType.LEFT_BRACE, null);
+            case '}':
+                return token.set(TokenType.RIGHT_BRACE, null);
+            case '[':
+                return token.set(TokenType.LEFT_SQUARE, null);
+            case ']':
+                return token.set(TokenType.RIGHT_SQUARE, null);
+            case ',':
+                return token.set(TokenType.COMMA, null);
+            case ':':
+                return token.set(TokenType.COLON, null);
+            case '"':
+                CharSequence string = readString();
+                // Yylex matches a string piece by piece, and reports the position of its last piece, the closing quote
+                tokenStart = offset + pos - 1;
+                return token.setText(string);
+            case 't':
+                readLiteral("true");
+                return token.set(TokenType.VALUE, Boolean.TRUE);
+            case 'f':
+                readLiteral("false");
+                return token.set(TokenType.VALUE, Boolean.FALSE);
+            case 'n':
+                readLiteral("null");
+                return token.set(TokenType.VALUE, null);
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return readNumber(c);
+            default:
+                throw unexpectedChar(c);
+        }
+    }
+    
+    @Override
+    public boolean skipValue() throws IOException, ParseException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == ',' || c == ':');
+        tokenStart = offset + pos - 1;
+        switch (c) {
+            case -1:
+                tokenStart++;
+                return false;
+            case '}':
+            case ']':
+                pos--;
+                return false;
+            case '{':
+            case '[':
+                skipContainer(c);
+                return true;
+            case '"':
+                skipString();
+                return true;
+            case 't':
+            case 'f':
+            case 'n':
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                // scalars are short, and scanned as tokens so that they end where yylex() ends them
+                pos--;
+                yylex();
+                return true;
+            default:
+                throw unexpectedChar(c);
+        }
+    }
+    
+    /**
+     * Skips the rest of an object or array, whose opening bracket has been read, balancing the brackets inside it.
+     */
+    private void skipContainer(int open) throws IOException, ParseException {
+        int depth = 0;
+        closers[0] = (byte) (open == '{' ? '}' : ']');
+        while (true) {
+            if (pos == limit && !fill()) throw unexpected(-1);
+            byte b = buf.get(pos++);
+            switch (b) {
+                case '"':
+                    skipString();
+                    break;
+                case '{':
+                case '[':
+                    if (++depth == closers.length) closers = Arrays.copyOf(closers, depth * 2);
+                    closers[depth] = (byte) (b == '{' ? '}' : ']');
+                    break;
+                case '}':
+                case ']':
+                    if (b != closers[depth]) throw unexpected(b);
+                    if (--depth < 0) return;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Skips the rest of a string, whose opening quote has been read. The byte after a backslash never ends it.
+     */
+    private void skipString() throws IOException, ParseException {
+        while (true) {
+            while (pos < limit) {
+                byte b = buf.get(pos++);
+                if (b == '"') return;
+                if (b == '\\') {
+                    if (pos == limit && !fill()) throw unexpected(-1);
+                    pos++;
+                }
+            }
+            if (!fill()) throw unexpected(-1);
+        }
+    }
+    
+    private void readLiteral(String literal) throws IOException, ParseException {
+        for (int i = 1; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) throw new ParseException(position(tokenStart), ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf(literal.charAt(0)));
+        }
+    }
+    
+    private Yytoken readNumber(int c) throws IOException, ParseException {
+        text.clear();
+        if (c == '-') {
+            append('-');
+            c = read();
+            if (!isDigit(c)) throw new ParseException(position(tokenStart), ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf('-'));
+        }
+        c = readDigits(c);
+        boolean isDouble = false;
+        if (c == '.') {
+            mark = pos - 1;
+            int end = text.length();
+            append('.');
+            c = read();
+            // like Yylex, which matches the longest number, end the number before a fraction without digits, so that the next token is rejected at the '.'
+            if (!isDigit(c)) return backtrack(end, isDouble);
+            mark = -1;
+            c = readDigits(c);
+            isDouble = true;
+        }
+        if (c == 'e' || c == 'E') {
+            mark = pos - 1;
+            int end = text.length();
+            append((char) c);
+            c = read();
+            if (c == '-' || c == '+') {
+                append((char) c);
+                c = read();
+            }
+            if (!isDigit(c)) return backtrack(end, isDouble);
+            mark = -1;
+            c = readDigits(c);
+            isDouble = true;
+        }
+        if (c != -1) pos--;
+        return number(isDouble);
+    }
+    
+    /**
+     * Ends the number being read at mark, the start of a fraction or exponent without digits, and moves back there. <p>
+     * @param end length of the text of the number before mark.
+     * @param isDouble whether the part before mark has a fraction.
+     * @return the token of the number before mark.
+     */
+    private Yytoken backtrack(int end, boolean isDouble) throws ParseException {
+        pos = mark;
+        mark = -1;
+        text.setLength(end);
+        return number(isDouble);
+    }
+    
+    private Yytoken number(boolean isDouble) throws ParseException {
+        if (numberPolicy != NumberPolicy.LONG_OR_DOUBLE) return token.set(TokenType.VALUE, numberPolicy.toNumber(text.array(), 0, text.length(), !isDouble));
+        if (isDouble) return token.setDouble(NumberParser.parseDouble(text.array(), 0, text.length()));
+        return token.setLong(NumberParser.parseLong(text.array(), 0, text.length()));
+    }
+    
+    /**
+     * Appends c and the digits following it to text. <p>
+     * @return the first character after the digits.
+     */
+    private int readDigits(int c) throws IOException {
+        do {
+            append((char) c);
+            c = read();
+        } while (isDigit(c));
+        return c;
+    }
+    
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * @param c the first byte of a character that cannot start a token. <p>
+     * @return the exception reporting the character at tokenStart, decoded as Yylex reads it.
+     */
+    private ParseException unexpectedChar(int c) throws IOException {
+        char ch = (char) c;
+        if (c >= 0x80) {
+            text.clear();
+            readUTF8(c);
+            ch = text.charAt(0);
+        }
+        return new ParseException(position(tokenStart), ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf(ch));
+    }
+    
+    /**
+     * @param c the character just read, or -1 at the end of input. <p>
+     * @return the exception reporting c at its position.
+     */
+    private ParseException unexpected(int c) {
+        if (c == -1) return new ParseException(position(offset + pos), ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(TokenType.EOF, null));
+        return new ParseException(position(offset + pos - 1), ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char) c));
+    }
+    
+    /**
+     * Reads the rest of a string token. <p>
+     * @return the characters of the string, valid until the next token is read.
+     */
+    private CharSequence readString() throws IOException, ParseException {
+        text.clear();
+        while (true) {
+            int start = pos;
+            int end = start;
+            byte b = 0;
+            while (end < limit) {
+                b = buf.get(end);
+                if (b == '"' || b == '\\' || b < 0) break;
+                end++;
+            }
+            if (end < limit && b == '"' && text.length() == 0) {
+                pos = end + 1;
+                asciiText.start = start;
+                asciiText.length = end - start;
+                return asciiText;
+            }
+            appendASCII(start, end);
+            pos = end;
+            int c = read();
+            if (c == '"') break;
+            if (c == '\\')
+                readEscape();
+            else if (c == -1)
+                throw unexpected(c);
+            else if (c < 0x80)
+                append((char) c);
+            else
+                readUTF8(c);
+        }
+        return text;
+    }
+    
+    private String ascii(int start, int length) {
+        if (buf.hasArray()) return new String(buf.array(), buf.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+        text.clear();
+        appendASCII(start, start + length);
+        return text.toString();
+    }
+    
+    /**
+     * Reads the escape sequence following a backslash. Like Yylex, a backslash that does not start a valid escape sequence is kept as is and the characters after it are read as ordinary string content.
+     */
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                append((char) c);
+                return;
+            case 'b':
+                append('\b');
+                return;
+            case 'f':
+                append('\f');
+                return;
+            case 'n':
+                append('\n');
+                return;
+            case 'r':
+                append('\r');
+                return;
+            case 't':
+                append('\t');
+                return;
+            case 'u':
+                append('\\');
+                append('u');
+                int ch = 0;
+                for (int i = 0; i < 4; i++) {
+                    c = read();
+                    int digit = NumberParser.hexDigit(c);
+                    if (digit < 0) {
+                        if (c != -1) pos--;
+                        return;
+                    }
+                    append((char) c);
+                    ch = (ch << 4) | digit;
+                }
+                text.setLength(text.length() - 6);
+                append((char) ch);
+                return;
+            default:
+                append('\\');
+                if (c != -1) pos--;
+        }
+    }
+    
+    /**
+     * Decodes the multi-byte sequence starting with lead and appends it to text.
+     */
+    private void readUTF8(int lead) throws IOException {
+        int n;
+        int cp;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            n = 1;
+            cp = lead & 0x1F;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            n = 2;
+            cp = lead & 0x0F;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            n = 3;
+            cp = lead & 0x07;
+        } else {
+            append(REPLACEMENT);
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            int c = read();
+            if ((c & 0xC0) != 0x80) {
+                if (c != -1) pos--;
+                append(REPLACEMENT);
+                return;
+            }
+            cp = (cp << 6) | (c & 0x3F);
+        }
+        if (n == 2 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF)) || n == 3 && (cp < 0x10000 || cp > 0x10FFFF)) {
+            append(REPLACEMENT);
+        } else if (n == 3) {
+            append(Character.highSurrogate(cp));
+            append(Character.lowSurrogate(cp));
+        } else {
+            append((char) cp);
+        }
+    }
+    
+    private void append(char ch) {
+        text.append(ch);
+    }
+    
+    /**
+     * Appends the ASCII bytes between start and end of buf to text.
+     */
+    private void appendASCII(int start, int end) {
+        char[] t = text.reserve(end - start);
+        int j = text.length();
+        for (int i = start; i < end; i++) {
+            t[j++] = (char) buf.get(i);
+        }
+        text.setLength(j);
+    }
+    
+    /**
+     * The characters of a string token made of contiguous ASCII bytes of buf. They are widened on access and only copied into a String by toString().
+     */
+    private final class ASCIISequence implements CharSequence {
+        
+        int start;
+        int length;
+        
+        @Override
+        public int length() {
+            return length;
+        }
+        
+        @Override
+        public char charAt(int index) {
+            if (index >= length) throw new StringIndexOutOfBoundsException(index);
+            return (char) buf.get(start + index);
+        }
+        
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+        
+        @Override
+        public String toString() {
+            return ascii(start, length);
+        }
+    }
+}
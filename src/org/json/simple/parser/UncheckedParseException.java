@@ -0,0 +1,29 @@
+package org.json.simple.parser;
+
+/**
+ * Unchecked exception that carries a ParseException out of a method that cannot throw it, such as the Iterator and Stream methods of NDJSONReader. <p> A parallel stream rethrows it as it was thrown by its worker thread, so
+ * getParseException() returns the parse error of a sequential and a parallel stream alike. <p>
+ * @see NDJSONReader
+ * @author Daniel J. Umpiérrez
+ */
+public class UncheckedParseException extends RuntimeException {
+    
+    private static final long serialVersionUID = 3408175046227131298L;
+    private final ParseException parseException;
+    
+    /**
+     * Constructor de clase. There is no constructor taking a Throwable on purpose: ForkJoinTask would use it to rethrow a copy of the exception of a worker thread, caused by the original, instead of the original. <p>
+     * @param parseException - the parse error.
+     */
+    public UncheckedParseException(ParseException parseException) {
+        super(parseException);
+        this.parseException = parseException;
+    }
+    
+    /**
+     * @return The parse error.
+     */
+    public ParseException getParseException() {
+        return parseException;
+    }
+}
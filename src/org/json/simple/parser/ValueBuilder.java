@@ -0,0 +1,107 @@
+package org.json.simple.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ContentHandler that builds the values it is told about with the containers of a JSONParser, as JSONParser.parse does. Used by AsyncJSONParser for its whole input and by JSONArrayPublisher for every element of an array.
+ * <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class ValueBuilder implements ContentHandler {
+    
+    private final JSONParser parser;
+    private final ContainerFactory containerFactory;
+    private final Consumer<Object> consumer;
+    /** the open containers, each followed by the key of its current entry if it is an object */
+    private final List<Object> stack = new ArrayList<Object>();
+    private Object value;
+    
+    /**
+     * Class constructor. <p>
+     * @param parser - the parser whose containers are used.
+     * @param containerFactory - the factory of the containers, or null.
+     * @param consumer - receives the value at endJSON(), or null.
+     */
+    ValueBuilder(JSONParser parser, ContainerFactory containerFactory, Consumer<Object> consumer) {
+        this.parser = parser;
+        this.containerFactory = containerFactory;
+        this.consumer = consumer;
+    }
+    
+    /**
+     * @return The value built, which the builder forgets.
+     */
+    Object take() {
+        Object result = value;
+        value = null;
+        return result;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void add(Object element) {
+        int top = stack.size() - 1;
+        if (top < 0) {
+            value = element;
+        } else if (stack.get(top) instanceof String) {
+            String key = (String) stack.remove(top);
+            ((Map<String, Object>) stack.get(top - 1)).put(key, element);
+        } else {
+            ((List<Object>) stack.get(top)).add(element);
+        }
+    }
+    
+    @Override
+    public void startJSON() {
+        stack.clear();
+        take();
+    }
+    
+    @Override
+    public void endJSON() {
+        if (consumer != null) consumer.accept(take());
+    }
+    
+    @Override
+    public boolean startObject() {
+        stack.add(parser.createObjectContainer(containerFactory));
+        return true;
+    }
+    
+    @Override
+    public boolean endObject() {
+        add(stack.remove(stack.size() - 1));
+        return true;
+    }
+    
+    @Override
+    public boolean startObjectEntry(String key) {
+        stack.add(key);
+        return true;
+    }
+    
+    @Override
+    public boolean endObjectEntry() {
+        return true;
+    }
+    
+    @Override
+    public boolean startArray() {
+        stack.add(parser.createArrayContainer(containerFactory));
+        return true;
+    }
+    
+    @Override
+    public boolean endArray() {
+        add(stack.remove(stack.size() - 1));
+        return true;
+    }
+    
+    @Override
+    public boolean primitive(Object value) {
+        add(value);
+        return true;
+    }
+}
@@ -7,7 +7,7 @@ import org.json.simple.parser.Yytoken.TokenType;
  * @author FangYidong
  * @author Daniel J. Umpiérrez
  */
-class Yylex {
+class Yylex implements SkippingLexer {
     
     /** This character denotes the end of file */
     public static final int YYEOF = -1;
@@ -141,12 +141,147 @@ class Yylex {
     /** zzAtEOF == true <=> the scanner is at the EOF */
     private boolean zzAtEOF;
     /* user code: */
-    private StringBuffer sb = new StringBuffer();
+    private TextBuffer sb = new TextBuffer(64);
+    /** the token returned by every call of yylex() */
+    private final Yytoken token = new Yytoken(null, null);
+    /** how number tokens are represented */
+    private NumberPolicy numberPolicy = NumberPolicy.LONG_OR_DOUBLE;
+    /** closing brackets of the containers open in skipValue() */
+    private char[] closers = new char[32];
     
-    int getPosition() {
+    @Override
+    public int getPosition() {
         return yychar;
     }
     
+    @Override
+    public void setNumberPolicy(NumberPolicy numberPolicy) {
+        this.numberPolicy = numberPolicy;
+    }
+    
+    /**
+     * @param integral whether the matched number has neither a fraction nor an exponent. <p>
+     * @return the token of the matched number.
+     */
+    private Yytoken number(boolean integral) {
+        int len = zzMarkedPos - zzStartRead;
+        if (numberPolicy != NumberPolicy.LONG_OR_DOUBLE) return token.set(TokenType.VALUE, numberPolicy.toNumber(zzBuffer, zzStartRead, len, integral));
+        if (integral) return token.setLong(NumberParser.parseLong(zzBuffer, zzStartRead, len));
+        return token.setDouble(NumberParser.parseDouble(zzBuffer, zzStartRead, len));
+    }
+    
+    @Override
+    public boolean skipValue() throws java.io.IOException, ParseException {
+        yychar += zzMarkedPos - zzStartRead;
+        zzStartRead = zzCurrentPos = zzMarkedPos;
+        int c;
+        do {
+            c = skipRead();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == ',' || c == ':');
+        int start = yychar + zzCurrentPos - zzStartRead - 1;
+        boolean skipped = true;
+        switch (c) {
+            case -1:
+                start++;
+                skipped = false;
+                break;
+            case '}':
+            case ']':
+                zzCurrentPos--;
+                skipped = false;
+                break;
+            case '{':
+            case '[':
+                skipContainer(c);
+                break;
+            case '"':
+                skipString();
+                break;
+            case 't':
+            case 'f':
+            case 'n':
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                // scalars are short, and scanned as tokens so that they end where yylex() ends them
+                zzMarkedPos = zzCurrentPos - 1;
+                yylex();
+                return true;
+            default:
+                throw new ParseException(start, ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char) c));
+        }
+        // the skipped value becomes the matched text, so that yylex() goes on after it and getPosition() returns its start; zzStartRead is only read again by the next yylex()
+        int end = yychar + zzCurrentPos - zzStartRead;
+        zzMarkedPos = zzCurrentPos;
+        zzStartRead = zzMarkedPos - (end - start);
+        yychar = start;
+        return skipped;
+    }
+    
+    /**
+     * Reads the next character for skipValue(), dropping the characters before it from the buffer when it is refilled. <p>
+     * @return the character, or -1 at the end of input.
+     */
+    private int skipRead() throws java.io.IOException {
+        if (zzCurrentPos == zzEndRead) {
+            if (zzAtEOF) return -1;
+            yychar += zzCurrentPos - zzStartRead;
+            zzStartRead = zzMarkedPos = zzCurrentPos;
+            if (zzRefill()) return -1;
+        }
+        return zzBuffer[zzCurrentPos++];
+    }
+    
+    /**
+     * Skips the rest of an object or array, whose opening bracket has been read, balancing the brackets inside it.
+     */
+    private void skipContainer(int open) throws java.io.IOException, ParseException {
+        int depth = 0;
+        closers[0] = open == '{' ? '}' : ']';
+        while (true) {
+            int c = skipRead();
+            switch (c) {
+                case -1:
+                    throw new ParseException(yychar + zzCurrentPos - zzStartRead, ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(TokenType.EOF, null));
+                case '"':
+                    skipString();
+                    break;
+                case '{':
+                case '[':
+                    if (++depth == closers.length) closers = java.util.Arrays.copyOf(closers, depth * 2);
+                    closers[depth] = c == '{' ? '}' : ']';
+                    break;
+                case '}':
+                case ']':
+                    if (c != closers[depth]) throw new ParseException(yychar + zzCurrentPos - zzStartRead - 1, ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char) c));
+                    if (--depth < 0) return;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Skips the rest of a string, whose opening quote has been read. The character after a backslash never ends it.
+     */
+    private void skipString() throws java.io.IOException, ParseException {
+        while (true) {
+            int c = skipRead();
+            if (c == '"') return;
+            if (c == '\\') c = skipRead();
+            if (c == -1) throw new ParseException(yychar + zzCurrentPos - zzStartRead, ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(TokenType.EOF, null));
+        }
+    }
+    
     /**
      * Creates a new scanner There is also a java.io.InputStream version of this constructor. <p>
      * @param in the java.io.Reader to read input from.
@@ -248,6 +383,16 @@ class Yylex {
         zzLexicalState = YYINITIAL;
     }
     
+    /**
+     * Drops the input and shrinks the buffers that have grown beyond their initial size, so that an idle scanner retains a bounded amount of memory.
+     */
+    void trim() {
+        yyreset(null);
+        if (zzBuffer.length > ZZ_BUFFERSIZE) zzBuffer = new char[ZZ_BUFFERSIZE];
+        sb.trim(ZZ_BUFFERSIZE);
+        token.set(null, null);
+    }
+    
     /**
      * Returns the current lexical state.
      * @return TODO
@@ -315,10 +460,11 @@ class Yylex {
     
     /**
      * Resumes scanning until the next regular expression is matched, the end of input is encountered or an I/O-Error occurs.
-     * @return the next token
+     * @return the next token. The same token instance is returned by every call.
      * @exception java.io.IOException if any I/O-Error occurs
      * @throws ParseException
      */
+    @Override
     public Yytoken yylex() throws java.io.IOException, ParseException {
         int zzInput;
         int zzAction;
@@ -377,12 +523,12 @@ class Yylex {
             zzMarkedPos = zzMarkedPosL;
             switch (zzAction < 0 ? zzAction : ZZ_ACTION[zzAction]) {
                 case 11: {
-                    sb.append(yytext());
+                    sb.append(zzBuffer, zzStartRead, zzMarkedPos - zzStartRead);
                 }
                 case 25:
                     break;
                 case 4: {
-                    sb.delete(0, sb.length());
+                    sb.clear();
                     yybegin(STRING_BEGIN);
                 }
                 case 26:
@@ -393,24 +539,23 @@ class Yylex {
                 case 27:
                     break;
                 case 6: {
-                    return new Yytoken(TokenType.RIGHT_BRACE, null);
+                    return token.set(TokenType.RIGHT_BRACE, null);
                 }
                 case 28:
                     break;
                 case 23: {
-                    Boolean val = Boolean.valueOf(yytext());
-                    return new Yytoken(TokenType.VALUE, val);
+                    return token.set(TokenType.VALUE, zzBuffer[zzStartRead] == 't' ? Boolean.TRUE : Boolean.FALSE);
                 }
                 case 29:
                     break;
                 case 22: {
-                    return new Yytoken(TokenType.VALUE, null);
+                    return token.set(TokenType.VALUE, null);
                 }
                 case 30:
                     break;
                 case 13: {
                     yybegin(YYINITIAL);
-                    return new Yytoken(TokenType.VALUE, sb.toString());
+                    return token.setText(sb);
                 }
                 case 31:
                     break;
@@ -420,8 +565,7 @@ class Yylex {
                 case 32:
                     break;
                 case 21: {
-                    Double val = Double.valueOf(yytext());
-                    return new Yytoken(TokenType.VALUE, val);
+                    return number(false);
                 }
                 case 33:
                     break;
@@ -431,7 +575,7 @@ class Yylex {
                 case 34:
                     break;
                 case 8: {
-                    return new Yytoken(TokenType.RIGHT_SQUARE, null);
+                    return token.set(TokenType.RIGHT_SQUARE, null);
                 }
                 case 35:
                     break;
@@ -446,7 +590,7 @@ class Yylex {
                 case 37:
                     break;
                 case 10: {
-                    return new Yytoken(TokenType.COLON, null);
+                    return token.set(TokenType.COLON, null);
                 }
                 case 38:
                     break;
@@ -456,7 +600,7 @@ class Yylex {
                 case 39:
                     break;
                 case 5: {
-                    return new Yytoken(TokenType.LEFT_BRACE, null);
+                    return token.set(TokenType.LEFT_BRACE, null);
                 }
                 case 40:
                     break;
@@ -466,12 +610,7 @@ class Yylex {
                 case 41:
                     break;
                 case 24: {
-                    try {
-                        int ch = Integer.parseInt(yytext().substring(2), 16);
-                        sb.append((char) ch);
-                    } catch (Exception e) {
-                        throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
-                    }
+                    sb.append((char) NumberParser.parseHex4(zzBuffer, zzStartRead + 2));
                 }
                 case 42:
                     break;
@@ -481,13 +620,12 @@ class Yylex {
                 case 43:
                     break;
                 case 7: {
-                    return new Yytoken(TokenType.LEFT_SQUARE, null);
+                    return token.set(TokenType.LEFT_SQUARE, null);
                 }
                 case 44:
                     break;
                 case 2: {
-                    Long val = Long.valueOf(yytext());
-                    return new Yytoken(TokenType.VALUE, val);
+                    return number(true);
                 }
                 case 45:
                     break;
@@ -497,7 +635,7 @@ class Yylex {
                 case 46:
                     break;
                 case 9: {
-                    return new Yytoken(TokenType.COMMA, null);
+                    return token.set(TokenType.COMMA, null);
                 }
                 case 47:
                     break;
@@ -507,6 +645,8 @@ class Yylex {
                 default:
                     if (zzInput == YYEOF && zzStartRead == zzCurrentPos) {
                         zzAtEOF = true;
+                        // the input ends inside a string, which is an error and not the end of the last value
+                        if (zzLexicalState == STRING_BEGIN) throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(TokenType.EOF, null));
                         return null;
                     } else {
                         zzScanError(ZZ_NO_MATCH);
@@ -84,9 +84,23 @@ public class Yytoken {
      */
     public TokenType type;
     /**
-     * Store entry value.
+     * Store entry value. For a token that is reused by its lexer, a number or string value is only stored here once {@link #getValue()} has been called.
      */
     public Object value = null;
+    /** kind of the value held by a VALUE token */
+    private int kind = OBJECT;
+    private long longValue;
+    private double doubleValue;
+    private CharSequence text;
+    
+    /** the value is in the value field */
+    private static final int OBJECT = 0;
+    /** the value is a long held in longValue */
+    private static final int LONG = 1;
+    /** the value is a double held in doubleValue */
+    private static final int DOUBLE = 2;
+    /** the value is a string whose characters are in text */
+    private static final int TEXT = 3;
     
     /**
      * Constructor de clase. <p>
@@ -98,12 +112,166 @@ public class Yytoken {
         this.value = value;
     }
     
+    /**
+     * Turns this token into a token of the given type holding a value object. <p>
+     * @param type the token type.
+     * @param value the value, or null.
+     * @return this token.
+     */
+    Yytoken set(TokenType type, Object value) {
+        this.type = type;
+        this.value = value;
+        kind = OBJECT;
+        text = null;
+        return this;
+    }
+    
+    /**
+     * Turns this token into a VALUE token holding a long without boxing it. <p>
+     * @param value the number.
+     * @return this token.
+     */
+    Yytoken setLong(long value) {
+        set(TokenType.VALUE, null);
+        kind = LONG;
+        longValue = value;
+        return this;
+    }
+    
+    /**
+     * Turns this token into a VALUE token holding a double without boxing it. <p>
+     * @param value the number.
+     * @return this token.
+     */
+    Yytoken setDouble(double value) {
+        set(TokenType.VALUE, null);
+        kind = DOUBLE;
+        doubleValue = value;
+        return this;
+    }
+    
+    /**
+     * Turns this token into a VALUE token holding a string that is not copied until {@link #getValue()} is called. <p>
+     * @param text the characters of the string, owned by the lexer.
+     * @return this token.
+     */
+    Yytoken setText(CharSequence text) {
+        set(TokenType.VALUE, null);
+        kind = TEXT;
+        this.text = text;
+        return this;
+    }
+    
+    /**
+     * Returns the value of this token, boxing a number or copying a string into a String on the first call. <p>
+     * @return the value: a String, Long, Double, Boolean or null.
+     */
+    public Object getValue() {
+        switch (kind) {
+            case LONG:
+                value = Long.valueOf(longValue);
+                break;
+            case DOUBLE:
+                value = Double.valueOf(doubleValue);
+                break;
+            case TEXT:
+                value = text.toString();
+                text = null;
+                break;
+            default:
+                return value;
+        }
+        kind = OBJECT;
+        return value;
+    }
+    
+    /**
+     * @return true if this is a VALUE token holding an integral number.
+     */
+    public boolean isLong() {
+        return kind == LONG || kind == OBJECT && value instanceof Long;
+    }
+    
+    /**
+     * @return true if this is a VALUE token holding a number.
+     */
+    public boolean isNumber() {
+        return kind == LONG || kind == DOUBLE || kind == OBJECT && value instanceof Number;
+    }
+    
+    /**
+     * @return true if this is a VALUE token holding a Long or a Double, as opposed to a number of another class such as BigDecimal.
+     */
+    boolean isLongOrDouble() {
+        return kind == LONG || kind == DOUBLE || kind == OBJECT && (value instanceof Long || value instanceof Double);
+    }
+    
+    /**
+     * @return true if this is a VALUE token holding a string.
+     */
+    public boolean isString() {
+        return kind == TEXT || kind == OBJECT && value instanceof String;
+    }
+    
+    /**
+     * Returns the number held by this token without boxing it. <p>
+     * @return the number as a long.
+     * @throws ClassCastException if the value is not a number.
+     */
+    public long longValue() {
+        if (kind == LONG) return longValue;
+        if (kind == DOUBLE) return (long) doubleValue;
+        return ((Number) value).longValue();
+    }
+    
+    /**
+     * Returns the number held by this token without boxing it. <p>
+     * @return the number as a double.
+     * @throws ClassCastException if the value is not a number.
+     */
+    public double doubleValue() {
+        if (kind == DOUBLE) return doubleValue;
+        if (kind == LONG) return longValue;
+        return ((Number) value).doubleValue();
+    }
+    
+    /**
+     * Returns the characters of the string held by this token without copying them. When the token is reused by its lexer, the returned sequence is only valid until the next token is read. <p>
+     * @return the string contents.
+     * @throws ClassCastException if the value is not a string.
+     */
+    public CharSequence getText() {
+        if (kind == TEXT) return text;
+        return (String) value;
+    }
+    
+    /**
+     * Returns the value of this token, which must be a string, taking it from a key cache if it has not been copied into a String yet. <p>
+     * @param cache the cache of object keys.
+     * @return the string.
+     */
+    String getKey(KeyCache cache) {
+        if (kind == TEXT) {
+            value = cache.get(text);
+            kind = OBJECT;
+            text = null;
+        }
+        return (String) value;
+    }
+    
+    /**
+     * @return a token with the same type and value that is not affected when this token is reused.
+     */
+    Yytoken copy() {
+        return new Yytoken(type, getValue());
+    }
+    
     @Override
     public String toString() {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         switch (type) {
             case VALUE:
-                sb.append("VALUE(").append(value).append(")");
+                sb.append("VALUE(").append(getValue()).append(")");
                 break;
             case LEFT_BRACE:
                 sb.append("LEFT BRACE({)");
@@ -0,0 +1,261 @@
+package org.json.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.json.simple.parser.CompactContainerFactory;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CompactJSONObject behaves as an insertion-ordered map, below and above the size at which it builds a hash index. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class CompactJSONObjectTest {
+    
+    @Test
+    void sameAsLinkedHashMap() {
+        Random random = new Random(6);
+        for (int round = 0; round < 50; round++) {
+            CompactJSONObject object = new CompactJSONObject();
+            Map<String, Object> expected = new LinkedHashMap<String, Object>();
+            int keyCount = 1 + random.nextInt(60);
+            for (int i = 0; i < 500; i++) {
+                String key = random.nextInt(20) == 0 ? null : "k" + random.nextInt(keyCount);
+                Long value = Long.valueOf(i);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        assertEquals(expected.remove(key), object.remove(key));
+                        break;
+                    case 1:
+                        assertEquals(expected.putIfAbsent(key, value), object.putIfAbsent(key, value));
+                        break;
+                    case 2:
+                        assertEquals(expected.merge(key, value, (a, b) -> (Long) a + (Long) b), object.merge(key, value, (a, b) -> (Long) a + (Long) b));
+                        break;
+                    case 3:
+                        assertEquals(expected.containsKey(key), object.containsKey(key));
+                        assertEquals(expected.get(key), object.get(key));
+                        break;
+                    default:
+                        assertEquals(expected.put(key, value), object.put(key, value));
+                        break;
+                }
+                assertEquals(expected.size(), object.size());
+            }
+            assertEquals(new ArrayList<Object>(expected.entrySet()), new ArrayList<Object>(object.entrySet()));
+            assertEquals(expected, object);
+            assertEquals(object, expected);
+            assertEquals(expected.hashCode(), object.hashCode());
+        }
+    }
+    
+    /**
+     * @return the method as name(parameter types).
+     */
+    private static String signature(Method m) {
+        List<String> types = new ArrayList<String>();
+        for (Class<?> type : m.getParameterTypes()) {
+            types.add(type.getSimpleName());
+        }
+        return m.getName() + "(" + String.join(",", types) + ")";
+    }
+    
+    /**
+     * @return the values in an order that does not depend on the map.
+     */
+    private static List<String> sorted(Iterable<?> values) {
+        List<String> list = new ArrayList<String>();
+        for (Object value : values) {
+            list.add(String.valueOf(value));
+        }
+        Collections.sort(list);
+        return list;
+    }
+    
+    @Test
+    void everyHashMapMethodIsOverridden() throws Exception {
+        // the HashMap table of a CompactJSONObject is empty, so a method of HashMap it does not override, e.g. one a later JDK adds, would see no entries
+        for (Method m : HashMap.class.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers())) continue;
+            assertFalse(CompactJSONObject.class.getMethod(m.getName(), m.getParameterTypes()).getDeclaringClass() == HashMap.class, signature(m));
+        }
+    }
+    
+    @Test
+    void sameAsJSONObject() {
+        // one operation for each public method of HashMap, run on a JSONObject and a CompactJSONObject with the same entries
+        Map<String, Function<JSONObject, Object>> operations = new LinkedHashMap<String, Function<JSONObject, Object>>();
+        operations.put("size()", m -> m.size());
+        operations.put("isEmpty()", m -> m.isEmpty());
+        operations.put("get(Object)", m -> sorted(Arrays.asList(m.get("k1"), m.get("k2"), m.get("x"), m.get(null))));
+        operations.put("containsKey(Object)", m -> sorted(Arrays.asList(m.containsKey("k1"), m.containsKey("k2"), m.containsKey("x"))));
+        operations.put("containsValue(Object)", m -> sorted(Arrays.asList(m.containsValue(Long.valueOf(3)), m.containsValue(null), m.containsValue("x"))));
+        operations.put("put(Object,Object)", m -> sorted(Arrays.asList(m.put("k1", "v"), m.put("x", null), m.put(null, "n"))));
+        operations.put("putAll(Map)", m -> {
+            Map<String, Object> other = new HashMap<String, Object>();
+            other.put("k0", "w");
+            other.put("y", Long.valueOf(9));
+            m.putAll(other);
+            return null;
+        });
+        operations.put("remove(Object)", m -> sorted(Arrays.asList(m.remove("k1"), m.remove("x"), m.remove("k1"))));
+        operations.put("remove(Object,Object)", m -> sorted(Arrays.asList(m.remove("k1", "s1"), m.remove("k2", null), m.remove("k3", Long.valueOf(3)))));
+        operations.put("clear()", m -> {
+            m.clear();
+            return m.size();
+        });
+        operations.put("getOrDefault(Object,Object)", m -> sorted(Arrays.asList(m.getOrDefault("k1", "d"), m.getOrDefault("k2", "d"), m.getOrDefault("x", "d"))));
+        operations.put("putIfAbsent(Object,Object)", m -> sorted(Arrays.asList(m.putIfAbsent("k1", "v"), m.putIfAbsent("k2", "v"), m.putIfAbsent("x", "v"))));
+        operations.put("replace(Object,Object,Object)", m -> sorted(Arrays.asList(m.replace("k0", Long.valueOf(0), "v"), m.replace("k1", "no", "v"), m.replace("x", null, "v"))));
+        operations.put("replace(Object,Object)", m -> sorted(Arrays.asList(m.replace("k1", "v"), m.replace("k2", "v"), m.replace("x", "v"))));
+        operations.put("computeIfAbsent(Object,Function)", m -> sorted(Arrays.asList(m.computeIfAbsent("k1", k -> k), m.computeIfAbsent("k2", k -> k), m.computeIfAbsent("x", k -> null))));
+        operations.put("computeIfPresent(Object,BiFunction)", m -> sorted(Arrays.asList(m.computeIfPresent("k1", (k, v) -> null), m.computeIfPresent("k3", (k, v) -> k + v), m.computeIfPresent("x", (k, v) -> v))));
+        operations.put("compute(Object,BiFunction)", m -> sorted(Arrays.asList(m.compute("k1", (k, v) -> k + v), m.compute("k2", (k, v) -> null), m.compute("x", (k, v) -> k + v))));
+        operations.put("merge(Object,Object,BiFunction)", m -> sorted(Arrays.asList(m.merge("k1", "m", (a, b) -> null), m.merge("k3", "m", (a, b) -> a + "" + b), m.merge("x", "m", (a, b) -> a))));
+        operations.put("forEach(BiConsumer)", m -> {
+            Map<String, Object> seen = new HashMap<String, Object>();
+            m.forEach(seen::put);
+            return seen;
+        });
+        operations.put("replaceAll(BiFunction)", m -> {
+            m.replaceAll((k, v) -> k + v);
+            return null;
+        });
+        operations.put("clone()", m -> {
+            Object clone = m.clone();
+            m.put("k0", "changed");
+            return new HashMap<String, Object>((JSONObject) clone);
+        });
+        operations.put("keySet()", m -> {
+            Set<String> keys = m.keySet();
+            keys.remove("k1");
+            return new HashSet<String>(keys);
+        });
+        operations.put("values()", m -> {
+            m.values().remove(Long.valueOf(3));
+            return sorted(m.values());
+        });
+        operations.put("entrySet()", m -> {
+            for (Map.Entry<String, Object> entry : m.entrySet()) {
+                if (entry.getValue() instanceof Long) entry.setValue("e" + entry.getValue());
+            }
+            return new HashSet<Map.Entry<String, Object>>(m.entrySet());
+        });
+        operations.put("equals(Object)", m -> sorted(Arrays.asList(m.equals(new HashMap<String, Object>(m)), m.equals(new JSONObject()), m.equals(null))));
+        operations.put("hashCode()", m -> m.hashCode());
+        operations.put("toString()", m -> JSONValue.parse(m.toString()));
+        Set<String> methods = new TreeSet<String>();
+        for (Method m : HashMap.class.getMethods()) {
+            if (!Modifier.isStatic(m.getModifiers()) && m.getDeclaringClass() != Object.class) methods.add(signature(m));
+        }
+        methods.add("equals(Object)");
+        methods.add("hashCode()");
+        methods.add("toString()");
+        assertEquals(methods, new TreeSet<String>(operations.keySet()));
+        for (int size : new int[] { 0, 4, 40 }) {
+            for (Map.Entry<String, Function<JSONObject, Object>> operation : operations.entrySet()) {
+                JSONObject plain = new JSONObject();
+                JSONObject compact = new CompactJSONObject();
+                for (int i = 0; i < size; i++) {
+                    Object value = i % 3 == 0 ? (Object) Long.valueOf(i) : i % 3 == 1 ? "s" + i : null;
+                    plain.put("k" + i, value);
+                    compact.put("k" + i, value);
+                }
+                String message = operation.getKey() + " on " + size + " entries";
+                assertEquals(operation.getValue().apply(plain), operation.getValue().apply(compact), message);
+                assertEquals(plain, compact, message);
+                assertEquals(compact, plain, message);
+                assertEquals(plain.hashCode(), compact.hashCode(), message);
+            }
+        }
+    }
+    
+    @Test
+    void iteratorRemove() {
+        CompactJSONObject object = new CompactJSONObject();
+        for (int i = 0; i < 40; i++) {
+            object.put("k" + i, Long.valueOf(i));
+        }
+        for (Iterator<String> it = object.keySet().iterator(); it.hasNext();) {
+            if (Integer.parseInt(it.next().substring(1)) % 2 == 0) it.remove();
+        }
+        assertEquals(20, object.size());
+        assertEquals(Long.valueOf(39), object.get("k39"));
+        assertEquals(null, object.get("k38"));
+        object.values().removeIf(v -> (Long) v > 5);
+        assertEquals("{\"k1\":1,\"k3\":3,\"k5\":5}", object.toJSONString());
+    }
+    
+    @Test
+    void concurrentModification() {
+        CompactJSONObject object = new CompactJSONObject();
+        object.put("a", "1");
+        object.put("b", "2");
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (String key : object.keySet()) {
+                object.put(key + key, "3");
+            }
+        });
+    }
+    
+    @Test
+    void writtenInInsertionOrder() throws Exception {
+        CompactJSONObject object = new CompactJSONObject();
+        object.put("z", Long.valueOf(1));
+        object.put("a", "x\"y");
+        object.put("m", null);
+        String expected = "{\"z\":1,\"a\":\"x\\\"y\",\"m\":null}";
+        assertEquals(expected, object.toJSONString());
+        assertEquals(expected, object.toString());
+        assertEquals(expected, JSONValue.toJSONString(object));
+        StringWriter out = new StringWriter();
+        object.writeJSONString(out);
+        assertEquals(expected, out.toString());
+    }
+    
+    @Test
+    void cloneIsIndependent() {
+        CompactJSONObject object = new CompactJSONObject();
+        object.put("a", "1");
+        CompactJSONObject clone = (CompactJSONObject) object.clone();
+        clone.put("b", "2");
+        object.remove("a");
+        assertEquals(0, object.size());
+        assertEquals("{\"a\":\"1\",\"b\":\"2\"}", clone.toJSONString());
+        assertNotSame(object, clone);
+    }
+    
+    @Test
+    void parsedWithCompactContainerFactory() throws Exception {
+        String s = "{\"b\":1,\"a\":[{\"y\":true,\"x\":null}],\"c\":{}}";
+        Object value = new JSONParser().parse(s, new CompactContainerFactory());
+        assertInstanceOf(CompactJSONObject.class, value);
+        Map<?, ?> object = (Map<?, ?>) value;
+        assertInstanceOf(JSONArray.class, object.get("a"));
+        assertInstanceOf(CompactJSONObject.class, ((JSONArray) object.get("a")).get(0));
+        assertEquals(s, JSONValue.toJSONString(value));
+        assertEquals(new JSONParser().parse(s), value);
+    }
+}
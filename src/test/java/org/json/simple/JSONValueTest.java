@@ -0,0 +1,191 @@
+package org.json.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONValue.toJSONString builds the text that writeJSONString writes, for containers of every kind. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONValueTest {
+    
+    /**
+     * A JSONObject with a toJSONString() of its own, which the toJSONString() of its containers must call.
+     */
+    static final class Redacted extends JSONObject {
+        
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        public String toJSONString() {
+            return "\"redacted\"";
+        }
+    }
+    
+    /**
+     * A JSONArray that only adds behavior, whose elements are written as those of any JSONArray.
+     */
+    static final class Tagged extends JSONArray {
+        
+        private static final long serialVersionUID = 1L;
+    }
+    
+    private static String write(Object value) throws Exception {
+        StringWriter out = new StringWriter();
+        JSONValue.writeJSONString(value, out);
+        return out.toString();
+    }
+    
+    /**
+     * @param redacted whether the value may hold Redacted objects, which JSONValue.writeJSONString writes as maps.
+     */
+    private static Object randomValue(Random random, int depth, boolean redacted) {
+        switch (random.nextInt(depth > 0 ? 12 : 6)) {
+            case 0:
+                StringBuilder sb = new StringBuilder();
+                for (int i = random.nextInt(20); i > 0; i--) {
+                    sb.append((char) random.nextInt(random.nextBoolean() ? 0x80 : 0x3000));
+                }
+                return sb.toString();
+            case 1:
+                return Long.valueOf(random.nextLong());
+            case 2:
+                return Double.valueOf(random.nextBoolean() ? random.nextDouble() : Double.NaN);
+            case 3:
+                return Integer.valueOf(random.nextInt());
+            case 4:
+                return Boolean.TRUE;
+            case 5:
+                return null;
+            case 6:
+                return redacted ? new Redacted() : new JSONObject();
+            case 7:
+            case 8:
+                List<Object> list = random.nextBoolean() ? new JSONArray() : random.nextBoolean() ? new Tagged() : new ArrayList<Object>();
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    list.add(randomValue(random, depth - 1, redacted));
+                }
+                return list;
+            default:
+                Map<String, Object> map = random.nextBoolean() ? new JSONObject() : random.nextBoolean() ? new CompactJSONObject() : new LinkedHashMap<String, Object>();
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    map.put("k" + random.nextInt(100), randomValue(random, depth - 1, redacted));
+                }
+                return map;
+        }
+    }
+    
+    @Test
+    void toJSONStringIsWhatWriteJSONStringWrites() throws Exception {
+        Random random = new Random(22);
+        for (int i = 0; i < 2000; i++) {
+            Object value = randomValue(random, 4, false);
+            String expected = write(value);
+            assertEquals(expected, JSONValue.toJSONString(value));
+            if (value instanceof JSONAware) assertEquals(expected, ((JSONAware) value).toJSONString());
+            if (value instanceof Map) assertEquals(expected, JSONObject.toJSONString((Map<?, ?>) value));
+            if (value instanceof List) assertEquals(expected, JSONArray.toJSONString((List<?>) value));
+        }
+    }
+    
+    @Test
+    void containersAreAppendedToOneBuilder() throws Exception {
+        Random random = new Random(23);
+        for (int i = 0; i < 2000; i++) {
+            Object value = randomValue(random, 4, true);
+            // what toJSONString() returned before the text of every container went into one builder
+            assertEquals(reference(value), JSONValue.toJSONString(value));
+        }
+    }
+    
+    /**
+     * Builds the text of every container as a String of its own, calling the toJSONString() of every JSONAware.
+     */
+    private static String reference(Object value) {
+        if (value instanceof JSONAware && !(value instanceof Tagged) && value.getClass() != JSONObject.class && value.getClass() != JSONArray.class && value.getClass() != CompactJSONObject.class) return ((JSONAware) value).toJSONString();
+        if (value instanceof Map) {
+            StringBuilder sb = new StringBuilder("{");
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (sb.length() > 1) sb.append(',');
+                sb.append('"').append(JSONValue.escape(String.valueOf(entry.getKey()))).append("\":").append(reference(entry.getValue()));
+            }
+            return sb.append('}').toString();
+        }
+        if (value instanceof List) {
+            StringBuilder sb = new StringBuilder("[");
+            for (Object element : (List<?>) value) {
+                if (sb.length() > 1) sb.append(',');
+                sb.append(reference(element));
+            }
+            return sb.append(']').toString();
+        }
+        return JSONValue.toJSONString(value);
+    }
+    
+    @Test
+    void overriddenToJSONStringIsUsed() {
+        JSONArray array = new Tagged();
+        array.add(new Redacted());
+        JSONObject object = new JSONObject();
+        object.put("r", array);
+        assertEquals("{\"r\":[\"redacted\"]}", object.toJSONString());
+        assertEquals("{\"r\":[\"redacted\"]}", JSONValue.toJSONString(object));
+        assertEquals("\"redacted\"", JSONValue.toJSONString(new Redacted()));
+    }
+    
+    @Test
+    void escape() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0; c < 0x100; c++) {
+            sb.append(c);
+        }
+        sb.append("  😀");
+        String s = sb.toString();
+        String text = JSONValue.toJSONString(s);
+        assertEquals("\"" + JSONValue.escape(s) + "\"", text);
+        assertEquals(JSONValue.escape(s), JSONObject.escape(s));
+        assertEquals(text, write(s));
+        assertEquals(s, new JSONParser().parse(text));
+        for (int i = 1; i < text.length() - 1; i++) {
+            assertTrue(text.charAt(i) >= 0x20, "control character at " + i);
+        }
+        assertEquals("\\\"\\\\\\/\\b\\f\\n\\r\\t", JSONValue.escape("\"\\/\b\f\n\r\t"));
+    }
+    
+    @Test
+    void entry() {
+        assertEquals("\"k\\\"\":[1,\"a\"]", JSONObject.toString("k\"", new ArrayList<Object>(Arrays.asList(Long.valueOf(1), "a"))));
+        assertEquals("\"null\":null", JSONObject.toString(null, null));
+    }
+    
+    @Test
+    void itemList() {
+        ItemList list = new ItemList("a,b,c");
+        assertEquals("a,b,c", list.toString());
+        assertEquals("a|b|c", list.toString("|"));
+    }
+    
+    @Test
+    void estimateLength() {
+        JSONArray large = new JSONArray();
+        for (int i = 0; i < 500000; i++) {
+            large.add("0123456789012345678901234567890123456789");
+        }
+        // the builder of a text this long grows as needed
+        assertEquals(1 << 24, JSONValue.estimateLength(large));
+        int estimate = JSONValue.estimateLength(large.subList(0, 1000));
+        int length = JSONValue.toJSONString(large.subList(0, 1000)).length();
+        assertTrue(estimate >= length * 0.9 && estimate <= length * 1.1, estimate + " for " + length);
+    }
+}
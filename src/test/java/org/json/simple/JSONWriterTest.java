@@ -0,0 +1,141 @@
+package org.json.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONWriter writes values as JSONValue does, and checks the tokens written one by one. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONWriterTest {
+    
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(30); i > 0; i--) {
+            int kind = random.nextInt(4);
+            sb.append(kind == 0 ? (char) random.nextInt(0x30) : kind == 1 ? "é😀\u2028\\/\"".charAt(random.nextInt(6)) : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+    
+    private static Object randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 0 ? 8 : 6)) {
+            case 0:
+                return randomString(random);
+            case 1:
+                return Long.valueOf(random.nextLong() >> random.nextInt(64));
+            case 2:
+                return Double.valueOf(random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20));
+            case 3:
+                return Boolean.valueOf(random.nextBoolean());
+            case 4:
+                return null;
+            case 5:
+                return Double.valueOf(random.nextBoolean() ? Double.NaN : Double.NEGATIVE_INFINITY);
+            case 6:
+                JSONArray array = new JSONArray();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    array.add(randomValue(random, depth - 1));
+                }
+                return array;
+            default:
+                JSONObject object = new JSONObject();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    object.put(randomString(random), randomValue(random, depth - 1));
+                }
+                return object;
+        }
+    }
+    
+    @Test
+    void valuesAreWrittenAsJSONValueWritesThem() throws Exception {
+        Random random = new Random(17);
+        for (int i = 0; i < 1000; i++) {
+            Object value = randomValue(random, 4);
+            for (int bufferSize : new int[] { 1, 7, JSONWriter.DEFAULT_BUFFER_SIZE }) {
+                StringWriter out = new StringWriter();
+                JSONWriter writer = new JSONWriter(out, bufferSize);
+                writer.value(value);
+                writer.flush();
+                assertEquals(JSONValue.toJSONString(value), out.toString());
+            }
+        }
+    }
+    
+    @Test
+    void tokens() throws Exception {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out, 4);
+        writer.beginObject().name("id").value(42).name("s").value("a\"\n").name("l").value(Long.MIN_VALUE).name("d").value(0.5).name("n").value(Double.NaN);
+        writer.name("a").beginArray().value(true).nullValue().value((String) null).value(Arrays.asList(1, "x")).beginObject().endObject().beginArray().endArray().endArray();
+        writer.name("m").value(-7).endObject();
+        writer.close();
+        String expected = "{\"id\":42,\"s\":\"a\\\"\\n\",\"l\":-9223372036854775808,\"d\":0.5,\"n\":null,\"a\":[true,null,null,[1,\"x\"],{},[]],\"m\":-7}";
+        assertEquals(expected, out.toString());
+    }
+    
+    @Test
+    void longs() throws Exception {
+        Random random = new Random(18);
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out, 16);
+        StringBuilder expected = new StringBuilder("[");
+        writer.beginArray();
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            writer.value(value);
+            expected.append(i == 0 ? "" : ",").append(value);
+        }
+        writer.value(Long.MAX_VALUE).value(0).endArray().flush();
+        assertEquals(expected.append(",9223372036854775807,0]").toString(), out.toString());
+    }
+    
+    @Test
+    void nothingIsWrittenBeforeFlush() throws Exception {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        writer.beginArray().value("x");
+        assertEquals("", out.toString());
+        writer.flush();
+        assertEquals("[\"x\"", out.toString());
+    }
+    
+    @Test
+    void deepNesting() throws Exception {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            writer.beginArray().beginObject().name("k");
+            expected.append("[{\"k\":");
+        }
+        writer.value(1);
+        expected.append('1');
+        for (int i = 0; i < 1000; i++) {
+            writer.endObject().endArray();
+            expected.append("}]");
+        }
+        writer.flush();
+        assertEquals(expected.toString(), out.toString());
+    }
+    
+    @Test
+    void misplacedTokens() throws Exception {
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).value(1).value(2));
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).name("a"));
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginObject().value(1));
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginObject().name("a").name("b"));
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginObject().name("a").endObject());
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginArray().endObject());
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginObject().endArray());
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).endArray());
+        assertThrows(IllegalStateException.class, () -> new JSONWriter(new StringWriter()).beginArray().name("a"));
+        assertThrows(NullPointerException.class, () -> new JSONWriter(new StringWriter()).beginObject().name(null));
+    }
+}
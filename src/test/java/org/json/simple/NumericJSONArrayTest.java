@@ -0,0 +1,189 @@
+package org.json.simple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.Test;
+
+/**
+ * NumericJSONArray stores numbers unboxed while it can, and behaves as a JSONArray with the same elements in every case. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class NumericJSONArrayTest {
+    
+    private static String write(Object value) throws Exception {
+        StringWriter out = new StringWriter();
+        JSONValue.writeJSONString(value, out);
+        return out.toString();
+    }
+    
+    @Test
+    void longs() throws Exception {
+        NumericJSONArray array = new NumericJSONArray();
+        for (long i = 0; i < 100; i++) {
+            array.addLong(i * i);
+        }
+        assertTrue(array.isLongArray());
+        assertEquals(100, array.size());
+        assertEquals(81, array.getLong(9));
+        assertEquals(81.0, array.getDouble(9));
+        assertEquals(Long.valueOf(81), array.get(9));
+        assertEquals(9, array.indexOf(Long.valueOf(81)));
+        assertEquals(-1, array.indexOf(Double.valueOf(81)));
+        assertEquals(99 * 99, array.toLongArray()[99]);
+        assertThrows(IndexOutOfBoundsException.class, () -> array.getLong(100));
+        assertTrue(array.isLongArray());
+    }
+    
+    @Test
+    void doubles() throws Exception {
+        NumericJSONArray array = new NumericJSONArray(new double[] { 1.5, Double.NaN, -0.0 });
+        assertTrue(array.isDoubleArray());
+        assertEquals("[1.5,null,-0.0]", array.toJSONString());
+        assertEquals("[1.5,null,-0.0]", write(array));
+        assertEquals(1, array.getLong(0));
+        assertArrayEquals(new long[] { 1, 0, 0 }, array.toLongArray());
+        array.addLong(2);
+        assertFalse(array.isDoubleArray());
+        assertEquals(Long.valueOf(2), array.get(3));
+        assertEquals(2.0, array.toDoubleArray()[3]);
+    }
+    
+    @Test
+    void otherValuesBoxTheElements() {
+        NumericJSONArray array = new NumericJSONArray(new long[] { 3, 1, 2 });
+        array.add("x");
+        assertFalse(array.isLongArray());
+        assertEquals("[3,1,2,\"x\"]", array.toJSONString());
+        assertThrows(ClassCastException.class, () -> array.getLong(3));
+        array.remove(3);
+        array.sort(null);
+        assertEquals("[1,2,3]", array.toJSONString());
+    }
+    
+    @Test
+    void insertingIntoAnEmptyArrayChoosesTheStorage() {
+        NumericJSONArray longs = new NumericJSONArray();
+        longs.add(0, Long.valueOf(1));
+        longs.add(0, Long.valueOf(0));
+        assertTrue(longs.isLongArray());
+        assertEquals("[0,1]", longs.toJSONString());
+        NumericJSONArray doubles = new NumericJSONArray();
+        doubles.add(0, Double.valueOf(0.5));
+        assertTrue(doubles.isDoubleArray());
+        NumericJSONArray other = new NumericJSONArray();
+        other.add(0, "x");
+        assertFalse(other.isLongArray());
+        assertEquals("[\"x\"]", other.toJSONString());
+    }
+    
+    @Test
+    void insertingOutOfRangeChangesNothing() {
+        NumericJSONArray empty = new NumericJSONArray();
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.add(5, Long.valueOf(1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.addAll(1, Arrays.asList(Long.valueOf(1))));
+        empty.add(Long.valueOf(1));
+        assertTrue(empty.isLongArray());
+        NumericJSONArray array = new NumericJSONArray(new double[] { 1.5, 2.5 });
+        assertThrows(IndexOutOfBoundsException.class, () -> array.add(-1, Double.valueOf(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.add(3, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.addAll(3, Arrays.asList(Double.valueOf(0))));
+        assertTrue(array.isDoubleArray());
+        assertEquals("[1.5,2.5]", array.toJSONString());
+        array.addAll(2, Arrays.asList(Double.valueOf(3.5)));
+        assertTrue(array.isDoubleArray());
+        assertEquals("[1.5,2.5,3.5]", array.toJSONString());
+    }
+    
+    @Test
+    void sameAsArrayList() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            NumericJSONArray array = new NumericJSONArray();
+            List<Object> expected = new ArrayList<Object>();
+            boolean doubles = random.nextBoolean();
+            for (int i = 0; i < 200; i++) {
+                Object value = random.nextInt(100) == 0 ? (Object) "s" : doubles ? (Object) Double.valueOf(random.nextInt(10) / 2.0) : (Object) Long.valueOf(random.nextInt(10));
+                int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+                switch (random.nextInt(8)) {
+                    case 0:
+                        if (!expected.isEmpty()) assertEquals(expected.remove(index), array.remove(index));
+                        break;
+                    case 1:
+                        if (!expected.isEmpty()) assertEquals(expected.set(index, value), array.set(index, value));
+                        break;
+                    case 2:
+                        expected.add(index, value);
+                        array.add(index, value);
+                        break;
+                    case 3:
+                        assertEquals(expected.remove(value), array.remove(value));
+                        break;
+                    case 4:
+                        ListIterator<Object> e = expected.listIterator(index);
+                        ListIterator<Object> a = array.listIterator(index);
+                        while (e.hasNext()) {
+                            assertEquals(e.next(), a.next());
+                            if (value.equals(e.previous())) {
+                                e.remove();
+                                a.previous();
+                                a.remove();
+                            } else {
+                                e.next();
+                            }
+                        }
+                        break;
+                    case 5:
+                        if (value instanceof Long) {
+                            expected.add(value);
+                            array.addLong(((Long) value).longValue());
+                        } else if (value instanceof Double) {
+                            expected.add(value);
+                            array.addDouble(((Double) value).doubleValue());
+                        }
+                        break;
+                    default:
+                        expected.add(value);
+                        array.add(value);
+                        break;
+                }
+                assertEquals(expected.size(), array.size());
+                assertEquals(expected.indexOf(value), array.indexOf(value));
+                assertEquals(expected.lastIndexOf(value), array.lastIndexOf(value));
+            }
+            assertEquals(expected, array);
+            assertEquals(array, expected);
+            assertEquals(expected.hashCode(), array.hashCode());
+            assertEquals(JSONArray.toJSONString(new ArrayList<Object>(expected)), array.toJSONString());
+            assertEquals(expected, array.clone());
+        }
+    }
+    
+    @Test
+    void parsed() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setNumericArrays(true);
+        String s = "{\"l\":[1,2,3],\"d\":[1.5,2.5],\"m\":[1,2.5],\"s\":[\"a\"],\"e\":[],\"n\":[[1],[2.0]]}";
+        JSONObject object = (JSONObject) parser.parse(s);
+        assertTrue(((NumericJSONArray) object.get("l")).isLongArray());
+        assertTrue(((NumericJSONArray) object.get("d")).isDoubleArray());
+        assertFalse(((NumericJSONArray) object.get("m")).isLongArray());
+        assertFalse(((NumericJSONArray) object.get("m")).isDoubleArray());
+        assertInstanceOf(NumericJSONArray.class, object.get("e"));
+        assertTrue(((NumericJSONArray) ((List<?>) object.get("n")).get(1)).isDoubleArray());
+        assertEquals(new JSONParser().parse(s), object);
+        assertEquals(new JSONParser().parse(s).toString(), object.toString());
+    }
+}
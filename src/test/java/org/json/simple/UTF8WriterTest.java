@@ -0,0 +1,115 @@
+package org.json.simple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * UTF8Writer encodes as String.getBytes does, and JSONValue writes the UTF-8 bytes of the JSON text to streams and buffers. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class UTF8WriterTest {
+    
+    private static final char[] CHARS = { 'a', '"', '\n', 'é', '߿', 'ࠀ', '€', '￿', '\ud83d', '\ude00', '\udbff', '\udfff' };
+    
+    private static String randomText(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(3000); i > 0; i--) {
+            sb.append(random.nextInt(3) == 0 ? CHARS[random.nextInt(CHARS.length)] : (char) (' ' + random.nextInt(95)));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Writes the text in pieces of random sizes, by char and by array, so surrogate pairs are split between calls.
+     */
+    private static byte[] encode(String s, Random random) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UTF8Writer writer = new UTF8Writer(out);
+        for (int i = 0; i < s.length();) {
+            int len = Math.min(s.length() - i, random.nextInt(40));
+            switch (random.nextInt(3)) {
+                case 0:
+                    writer.write(s.charAt(i));
+                    len = 1;
+                    break;
+                case 1:
+                    writer.write(s.toCharArray(), i, len);
+                    break;
+                default:
+                    writer.write(s, i, len);
+            }
+            i += len;
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+    
+    @Test
+    void sameAsGetBytes() throws Exception {
+        Random random = new Random(19);
+        for (int i = 0; i < 300; i++) {
+            String s = randomText(random);
+            assertArrayEquals(s.getBytes(StandardCharsets.UTF_8), encode(s, random));
+        }
+    }
+    
+    @Test
+    void unpairedSurrogates() throws Exception {
+        Random random = new Random(20);
+        for (String s : new String[] { "\ud83d", "a\ude00", "\ud83d😀", "\ude00\ud83d", "x\ud83dy" }) {
+            assertArrayEquals(s.getBytes(StandardCharsets.UTF_8), encode(s, random), s);
+        }
+    }
+    
+    @Test
+    void writeJSONBytes() throws Exception {
+        JSONObject object = new JSONObject();
+        object.put("k€y", Arrays.asList("😀", 1.5, null, "\u0001"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONValue.writeJSONBytes(object, out);
+        assertArrayEquals(object.toJSONString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+    
+    @Test
+    void writeJSONStringToByteBuffer() throws Exception {
+        Random random = new Random(21);
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 20; i++) {
+            array.add(randomText(random));
+        }
+        byte[] expected = array.toJSONString().getBytes(StandardCharsets.UTF_8);
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(expected.length + 10), ByteBuffer.allocateDirect(expected.length + 10), ByteBuffer.wrap(new byte[expected.length + 20], 5, expected.length + 10).slice() }) {
+            buffer.position(3);
+            JSONValue.writeJSONString(array, buffer);
+            assertEquals(3 + expected.length, buffer.position());
+            byte[] written = new byte[expected.length];
+            buffer.position(3);
+            buffer.get(written);
+            assertArrayEquals(expected, written);
+        }
+    }
+    
+    @Test
+    void overflowLeavesThePositionUnchanged() throws Exception {
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 3000; i++) {
+            array.add("é" + i);
+        }
+        int length = array.toJSONString().getBytes(StandardCharsets.UTF_8).length;
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(length + 1), ByteBuffer.allocateDirect(length + 1) }) {
+            buffer.position(2);
+            assertThrows(BufferOverflowException.class, () -> JSONValue.writeJSONString(array, buffer));
+            assertEquals(2, buffer.position());
+        }
+    }
+}
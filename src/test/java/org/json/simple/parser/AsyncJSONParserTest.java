@@ -0,0 +1,102 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AsyncJSONParser fed in chunks of any size gives the values, events and errors of JSONParser given the whole input. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class AsyncJSONParserTest {
+    
+    /**
+     * Feeds the bytes in chunks of random sizes, which split tokens and UTF-8 sequences anywhere.
+     */
+    private static void feed(AsyncJSONParser parser, byte[] b, Random random) throws Exception {
+        for (int off = 0; off < b.length;) {
+            int len = Math.min(b.length - off, random.nextInt(8));
+            ByteBuffer chunk = ByteBuffer.wrap(b, off, len);
+            parser.feed(chunk);
+            assertFalse(chunk.hasRemaining());
+            off += len;
+        }
+        parser.endOfInput();
+    }
+    
+    @Test
+    void randomDocuments() {
+        RandomDocuments documents = new RandomDocuments(14);
+        Random random = new Random(15);
+        for (int i = 0; i < 3000; i++) {
+            String s = i % 2 == 0 ? documents.valid(5) : documents.mutated(5);
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            String expected = Outcome.of(b, () -> new JSONParser().parse(b, 0, b.length));
+            String actual = Outcome.of(b, () -> {
+                Object[] value = { "not called" };
+                AsyncJSONParser parser = new AsyncJSONParser(v -> value[0] = v);
+                feed(parser, b, random);
+                assertTrue(parser.isDone());
+                return value[0];
+            });
+            assertEquals(expected, actual, s);
+        }
+    }
+    
+    @Test
+    void contentHandlerIsSuspended() throws Exception {
+        String s = "{\"a\":[1,\"é\",{\"b\":null}],\"c\":2.5}";
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        RecordingHandler expected = new RecordingHandler();
+        new JSONParser().parse(s, expected);
+        RecordingHandler handler = new RecordingHandler(true);
+        AsyncJSONParser parser = new AsyncJSONParser(handler);
+        for (int i = 0; i < b.length; i++) {
+            parser.feed(ByteBuffer.wrap(b, i, 1));
+        }
+        parser.endOfInput();
+        while (parser.isStopped()) {
+            assertFalse(parser.isDone());
+            parser.resume();
+        }
+        assertTrue(parser.isDone());
+        assertEquals(expected.events, handler.events);
+    }
+    
+    @Test
+    void incompleteInput() throws Exception {
+        AsyncJSONParser parser = new AsyncJSONParser(v -> {
+        });
+        parser.feed(ByteBuffer.wrap("[1, \"ab".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(parser.isDone());
+        assertThrows(ParseException.class, parser::endOfInput);
+        assertThrows(IllegalStateException.class, parser::resume);
+    }
+    
+    @Test
+    void noFeedAfterEndOfInput() throws Exception {
+        AsyncJSONParser parser = new AsyncJSONParser(v -> {
+        });
+        parser.feed(ByteBuffer.wrap("7".getBytes(StandardCharsets.UTF_8)));
+        parser.endOfInput();
+        assertTrue(parser.isDone());
+        assertThrows(IllegalStateException.class, () -> parser.feed(ByteBuffer.wrap(new byte[] { ' ' })));
+    }
+    
+    @Test
+    void errorPositionsAreByteOffsets() throws Exception {
+        AsyncJSONParser parser = new AsyncJSONParser(v -> {
+        });
+        parser.feed(ByteBuffer.wrap("[\"é\",".getBytes(StandardCharsets.UTF_8)));
+        ParseException e = assertThrows(ParseException.class, () -> parser.feed(ByteBuffer.wrap(" :]".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(7, e.getPosition());
+        assertThrows(IllegalStateException.class, () -> parser.feed(ByteBuffer.wrap(new byte[] { ' ' })));
+    }
+}
@@ -0,0 +1,86 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A ContainerFactory can make JSONParser create any Map and List, and JSONValue writes them back. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class ContainerFactoryTest {
+    
+    private static final String INPUT = "{\"b\":[1,{\"y\":2,\"x\":[]}],\"a\":\"s\"}";
+    
+    private static final ContainerFactory SORTED = new ContainerFactory() {
+        @Override
+        public Map<String, Object> createObjectContainer() {
+            return new TreeMap<String, Object>();
+        }
+        
+        @Override
+        public List<Object> creatArrayContainer() {
+            return new LinkedList<Object>();
+        }
+    };
+    
+    private static final ContainerFactory DEFAULTS = new ContainerFactory() {
+        @Override
+        public Map<String, Object> createObjectContainer() {
+            return null;
+        }
+        
+        @Override
+        public List<Object> creatArrayContainer() {
+            return null;
+        }
+    };
+    
+    @Test
+    void customContainers() throws Exception {
+        byte[] b = INPUT.getBytes(StandardCharsets.UTF_8);
+        for (Object value : new Object[] { new JSONParser().parse(INPUT, SORTED), new JSONParser().parse(b, 0, b.length, SORTED) }) {
+            assertInstanceOf(TreeMap.class, value);
+            Map<?, ?> object = (Map<?, ?>) value;
+            assertInstanceOf(LinkedList.class, object.get("b"));
+            assertInstanceOf(TreeMap.class, ((List<?>) object.get("b")).get(1));
+            String expected = "{\"a\":\"s\",\"b\":[1,{\"x\":[],\"y\":2}]}";
+            assertEquals(expected, JSONValue.toJSONString(value));
+            StringWriter out = new StringWriter();
+            JSONValue.writeJSONString(value, out);
+            assertEquals(expected, out.toString());
+        }
+    }
+    
+    @Test
+    void nullContainersAreJSONContainers() throws Exception {
+        Object value = new JSONParser().parse(INPUT, DEFAULTS);
+        assertInstanceOf(JSONObject.class, value);
+        assertInstanceOf(JSONArray.class, ((Map<?, ?>) value).get("b"));
+        assertEquals(new JSONParser().parse(INPUT), value);
+    }
+    
+    @Test
+    void customContainersInsideJSONContainers() {
+        JSONObject object = new JSONObject();
+        TreeMap<String, Object> map = new TreeMap<String, Object>();
+        map.put("k", new LinkedList<Object>(Arrays.asList("v", null)));
+        object.put("m", map);
+        assertEquals("{\"m\":{\"k\":[\"v\",null]}}", object.toJSONString());
+        JSONArray array = new JSONArray();
+        array.add(map);
+        assertEquals("[{\"k\":[\"v\",null]}]", array.toJSONString());
+    }
+}
@@ -0,0 +1,180 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONArrayPublisher publishes the elements of the array at a path as they are requested. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONArrayPublisherTest {
+    
+    private static final String TEXT = "{\"meta\":{\"items\":[0]},\"data\":{\"x\":1,\"items\":[1,\"s\",null,{\"items\":[9]},[2,[3]],true]},\"after\":[4]}";
+    
+    /**
+     * Subscriber that records the signals it receives and requests a number of elements at a time.
+     */
+    private static final class Recorder implements Flow.Subscriber<Object> {
+        
+        final List<String> elements = new ArrayList<String>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        final int batch;
+        Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean complete;
+        
+        Recorder(int batch) {
+            this.batch = batch;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) subscription.request(batch);
+        }
+        
+        @Override
+        public void onNext(Object item) {
+            elements.add(JSONValue.toJSONString(item));
+            if (batch > 0 && elements.size() % batch == 0) subscription.request(batch);
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+        
+        @Override
+        public void onComplete() {
+            complete = true;
+            terminated.countDown();
+        }
+    }
+    
+    private static Recorder subscribe(Flow.Publisher<Object> publisher, int batch) {
+        Recorder recorder = new Recorder(batch);
+        publisher.subscribe(recorder);
+        return recorder;
+    }
+    
+    @Test
+    void elementsOfThePath() {
+        for (int batch : new int[] { 1, 2, 100 }) {
+            Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader(TEXT), "data", "items"), batch);
+            assertEquals("[1, \"s\", {\"items\":[9]}, [2,[3]], true]", recorder.elements.toString());
+            assertTrue(recorder.complete);
+            assertNull(recorder.error);
+            recorder = subscribe(new JSONArrayPublisher(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8)), "data", "items"), batch);
+            assertEquals("[1, \"s\", {\"items\":[9]}, [2,[3]], true]", recorder.elements.toString());
+            assertTrue(recorder.complete);
+        }
+    }
+    
+    @Test
+    void rootArray() {
+        Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader("[[],{}, 1.5]")), 1);
+        assertEquals("[[], {}, 1.5]", recorder.elements.toString());
+        assertTrue(recorder.complete);
+    }
+    
+    @Test
+    void noArrayAtThePath() {
+        String[][] paths = { { "data", "x" }, { "none" }, { "data", "items", "items" } };
+        for (String[] path : paths) {
+            Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader(TEXT), path), 10);
+            assertEquals(0, recorder.elements.size());
+            assertTrue(recorder.complete);
+        }
+    }
+    
+    @Test
+    void publishesOnDemand() {
+        Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader(TEXT), "data", "items"), 0);
+        recorder.subscription.request(2);
+        assertEquals("[1, \"s\"]", recorder.elements.toString());
+        assertFalse(recorder.complete);
+        recorder.subscription.request(1);
+        assertEquals(3, recorder.elements.size());
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(5, recorder.elements.size());
+        assertTrue(recorder.complete);
+    }
+    
+    @Test
+    void errorsAfterTheArrayAreReported() {
+        Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader("{\"a\":[1,2],\"b\":[:]}"), "a"), 10);
+        assertEquals("[1, 2]", recorder.elements.toString());
+        assertInstanceOf(ParseException.class, recorder.error);
+        assertFalse(recorder.complete);
+    }
+    
+    @Test
+    void invalidRequest() {
+        Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader("[1,2]")), 0);
+        recorder.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, recorder.error);
+    }
+    
+    @Test
+    void cancelClosesTheInput() {
+        boolean[] closed = new boolean[1];
+        StringReader in = new StringReader("[1,2,3]") {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        Recorder recorder = subscribe(new JSONArrayPublisher(in), 0);
+        recorder.subscription.request(1);
+        recorder.subscription.cancel();
+        recorder.subscription.request(1);
+        assertEquals("[1]", recorder.elements.toString());
+        assertTrue(closed[0]);
+        assertFalse(recorder.complete);
+    }
+    
+    @Test
+    void singleSubscriber() {
+        JSONArrayPublisher publisher = new JSONArrayPublisher(new StringReader("[1]"));
+        subscribe(publisher, 1);
+        Recorder second = subscribe(publisher, 1);
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+    
+    @Test
+    void executor() throws Exception {
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 10000; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"i\":").append(i).append('}');
+        }
+        sb.append("]}");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Recorder recorder = subscribe(new JSONArrayPublisher(new StringReader(sb.toString()), new JSONParser(), null, executor, "items"), 7);
+            assertTrue(recorder.terminated.await(10, TimeUnit.SECONDS));
+            assertTrue(recorder.complete);
+            assertEquals(10000, recorder.elements.size());
+            assertEquals("{\"i\":9999}", recorder.elements.get(9999));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
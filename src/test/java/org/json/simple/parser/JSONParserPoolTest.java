@@ -0,0 +1,83 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONParserPool hands out parsers with the default settings, one thread at a time. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONParserPoolTest {
+    
+    @Test
+    void releasedParsersAreReused() {
+        JSONParserPool pool = new JSONParserPool(1);
+        JSONParser parser = pool.acquire();
+        pool.release(parser);
+        assertSame(parser, pool.acquire());
+    }
+    
+    @Test
+    void settingsDoNotLeakToTheNextBorrower() throws Exception {
+        JSONParserPool pool = new JSONParserPool(1);
+        JSONParser parser = pool.acquire();
+        parser.setKeyCacheSize(64);
+        parser.setNumericArrays(true);
+        parser.setNumberPolicy(NumberPolicy.LAZY);
+        parser.setStructuralIndexing(true);
+        pool.release(parser);
+        JSONParser next = pool.acquire();
+        assertSame(parser, next);
+        assertEquals(0, next.getKeyCacheSize());
+        assertFalse(next.isNumericArrays());
+        assertEquals(NumberPolicy.LONG_OR_DOUBLE, next.getNumberPolicy());
+        assertFalse(next.isStructuralIndexing());
+        Object value = next.parse("[1]");
+        assertEquals(JSONArray.class, value.getClass());
+        assertEquals(Long.valueOf(1), ((List<?>) value).get(0));
+    }
+    
+    @Test
+    void parserIsUsableAfterAnError() throws Exception {
+        JSONParserPool pool = new JSONParserPool(1);
+        assertThrows(ParseException.class, () -> pool.parse("{\"a\":"));
+        assertEquals("{\"a\":1}", JSONValue.toJSONString(pool.parse("{\"a\":1}")));
+    }
+    
+    @Test
+    void concurrentParses() throws Exception {
+        JSONParserPool pool = new JSONParserPool(2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for (int t = 0; t < 8; t++) {
+                long seed = t;
+                results.add(executor.submit(() -> {
+                    RandomDocuments documents = new RandomDocuments(seed);
+                    for (int i = 0; i < 500; i++) {
+                        String s = documents.valid(4);
+                        assertEquals(Outcome.of(() -> new JSONParser().parse(s)), Outcome.of(() -> pool.parse(s)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
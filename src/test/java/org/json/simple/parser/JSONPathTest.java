@@ -0,0 +1,218 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * JSONPathExtractor selects in one pass the values that the expressions select in the parsed value. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONPathTest {
+    
+    /** keeps the entries of objects in document order, so that values can be compared in the order they end */
+    private static final ContainerFactory ORDERED = new ContainerFactory() {
+        @Override
+        public Map<String, Object> createObjectContainer() {
+            return new LinkedHashMap<String, Object>();
+        }
+        
+        @Override
+        public List<Object> creatArrayContainer() {
+            return null;
+        }
+    };
+    
+    private static final String[] STEPS = { ".a", ".b", "['c']", "[\"a\"]", "[0]", "[1]", ".*", "[*]", "..a", "..*", "..[0]", "..['b']" };
+    private static final String[] KEYS = { "a", "b", "c" };
+    
+    private final Random random = new Random(16);
+    
+    private void value(StringBuilder sb, int depth) {
+        int kind = random.nextInt(depth > 0 ? 6 : 3);
+        if (kind == 0) {
+            sb.append(random.nextInt(100));
+        } else if (kind == 1) {
+            sb.append("\"s").append(random.nextInt(10)).append("\\n\"");
+        } else if (kind == 2) {
+            sb.append(random.nextBoolean() ? "null" : "1.5e1");
+        } else if (kind == 3) {
+            sb.append('[');
+            for (int i = random.nextInt(4); i > 0; i--) {
+                value(sb, depth - 1);
+                if (i > 1) sb.append(',');
+            }
+            sb.append(']');
+        } else {
+            sb.append('{');
+            int first = random.nextInt(KEYS.length);
+            int count = random.nextInt(KEYS.length + 1);
+            for (int i = 0; i < count; i++) {
+                sb.append('"').append(KEYS[(first + i) % KEYS.length]).append("\":");
+                value(sb, depth - 1);
+                if (i < count - 1) sb.append(',');
+            }
+            sb.append('}');
+        }
+    }
+    
+    private String path() {
+        StringBuilder sb = new StringBuilder("$");
+        for (int i = random.nextInt(4); i > 0; i--) {
+            sb.append(STEPS[random.nextInt(STEPS.length)]);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Collects the locations of the values selected from step on by a path, as the list of keys and indexes that lead to them.
+     */
+    private static void select(String[] steps, int step, Object value, String location, Set<String> selected) {
+        if (step == steps.length) {
+            selected.add(location);
+            return;
+        }
+        String s = steps[step];
+        boolean descendant = s.startsWith("..");
+        String name = s.replaceAll("^\\.+|[\\[\\]'\"]", "");
+        List<Object> keys = new ArrayList<Object>();
+        List<Object> children = new ArrayList<Object>();
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                keys.add(entry.getKey());
+                children.add(entry.getValue());
+            }
+        } else if (value instanceof List) {
+            for (int i = 0; i < ((List<?>) value).size(); i++) {
+                keys.add(Integer.valueOf(i));
+                children.add(((List<?>) value).get(i));
+            }
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            Object key = keys.get(i);
+            String child = location + "/" + key;
+            if (name.equals("*") || name.equals(String.valueOf(key)) && key instanceof String == !Character.isDigit(name.charAt(0))) select(steps, step + 1, children.get(i), child, selected);
+            if (descendant) select(steps, step, children.get(i), child, selected);
+        }
+    }
+    
+    /**
+     * Lists the selected values in the order in which they end in the text.
+     */
+    private static void list(Object value, String location, Set<String> selected, List<String> values) {
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                list(entry.getValue(), location + "/" + entry.getKey(), selected, values);
+            }
+        } else if (value instanceof List) {
+            for (int i = 0; i < ((List<?>) value).size(); i++) {
+                list(((List<?>) value).get(i), location + "/" + i, selected, values);
+            }
+        }
+        if (selected.contains(location)) values.add(JSONValue.toJSONString(value));
+    }
+    
+    private static List<String> expected(String path, Object root) {
+        List<String> steps = new ArrayList<String>();
+        Matcher m = Pattern.compile("\\.{1,2}(?:\\*|[a-z]+|\\[[^\\]]*\\])|\\[[^\\]]*\\]").matcher(path.substring(1));
+        while (m.find()) {
+            steps.add(m.group());
+        }
+        Set<String> selected = new HashSet<String>();
+        select(steps.toArray(new String[0]), 0, root, "", selected);
+        List<String> values = new ArrayList<String>();
+        list(root, "", selected, values);
+        return values;
+    }
+    
+    @Test
+    void sameAsTheParsedValue() throws Exception {
+        int selected = 0;
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            value(sb, 4);
+            String s = sb.toString();
+            Object root = new JSONParser().parse(s, ORDERED);
+            JSONPath[] paths = { JSONPath.compile(path()), JSONPath.compile(path()), JSONPath.compile(path()) };
+            List<List<String>> actual = new ArrayList<List<String>>();
+            for (int p = 0; p < paths.length; p++) {
+                actual.add(new ArrayList<String>());
+            }
+            JSONPathExtractor extractor = new JSONPathExtractor(new JSONParser(), ORDERED, paths);
+            extractor.extract(s, (path, value) -> {
+                for (int p = 0; p < paths.length; p++) {
+                    if (paths[p] == path) actual.get(p).add(JSONValue.toJSONString(value));
+                }
+            });
+            for (int p = 0; p < paths.length; p++) {
+                assertEquals(expected(paths[p].toString(), root), actual.get(p), paths[p] + " " + s);
+                selected += actual.get(p).size();
+            }
+        }
+        // most expressions select something
+        assertTrue(selected > 2000, "selected " + selected);
+    }
+    
+    @Test
+    void inputs(@TempDir Path dir) throws Exception {
+        String s = "{\"items\":[{\"id\":1,\"x\":{\"id\":2}},{\"id\":\"é\"}],\"id\":3}";
+        JSONPath path = JSONPath.compile("$.items[*].id");
+        assertEquals("[1, é]", path.read(s).toString());
+        assertEquals("[1, é]", path.read(new StringReader(s)).toString());
+        assertEquals("[1, é]", path.read(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8))).toString());
+        Path file = dir.resolve("test.json");
+        Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+        List<Object> values = new ArrayList<Object>();
+        new JSONPathExtractor(JSONPath.compile("$..id")).extract(file, (p, value) -> values.add(value));
+        assertEquals("[1, 2, é, 3]", values.toString());
+    }
+    
+    @Test
+    void settings() throws Exception {
+        JSONParser settings = new JSONParser();
+        settings.setNumberPolicy(NumberPolicy.BIG_DECIMAL);
+        List<Object> values = new ArrayList<Object>();
+        new JSONPathExtractor(settings, null, JSONPath.compile("$[1]")).extract("[0.10, 1.50]", (p, value) -> values.add(value));
+        assertEquals("[1.50]", values.toString());
+    }
+    
+    @Test
+    void quotedNames() throws Exception {
+        assertEquals("[1]", JSONPath.compile("$['a.b']").read("{\"a.b\":1,\"a\":{\"b\":2}}").toString());
+        assertEquals("[2]", JSONPath.compile("$[ 'it\\'s' ]").read("{\"it's\":2}").toString());
+        assertEquals("[3]", JSONPath.compile("$[\"]\"]").read("{\"]\":3}").toString());
+    }
+    
+    @Test
+    void errorsInSelectedValues() {
+        assertThrows(ParseException.class, () -> JSONPath.compile("$.a").read("{\"a\":[1:2]}"));
+        assertThrows(ParseException.class, () -> JSONPath.compile("$.a").read("{\"a\":1"));
+    }
+    
+    @Test
+    void invalidExpressions() {
+        String[] expressions = { "", "a", "$.", "$a", "$[", "$[-1]", "$['a'", "$[a]", "$[0", "$[1:2]", "$[?(@.a)]", "$[99999999999]" };
+        for (String expression : expressions) {
+            assertThrows(IllegalArgumentException.class, () -> JSONPath.compile(expression), expression);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONReader.Event;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONReader returns the tokens of the input one at a time, and rejects what RFC 4627 rejects. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class JSONReaderTest {
+    
+    private static JSONReader[] readers(String s) {
+        return new JSONReader[] { new JSONReader(s), new JSONReader(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8))) };
+    }
+    
+    /**
+     * Reads the next value with the cursor methods.
+     */
+    private static Object read(JSONReader reader) throws Exception {
+        switch (reader.peek()) {
+            case START_OBJECT:
+                reader.nextToken();
+                JSONObject object = new JSONObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    object.put(name, read(reader));
+                }
+                assertEquals(Event.END_OBJECT, reader.nextToken());
+                return object;
+            case START_ARRAY:
+                reader.nextToken();
+                JSONArray array = new JSONArray();
+                while (reader.hasNext()) {
+                    array.add(read(reader));
+                }
+                assertEquals(Event.END_ARRAY, reader.nextToken());
+                return array;
+            default:
+                return reader.nextValue();
+        }
+    }
+    
+    @Test
+    void events() throws Exception {
+        for (JSONReader reader : readers("{\"a\":[1,\"x\"],\"b\":{}}")) {
+            assertEquals(Event.START_OBJECT, reader.nextToken());
+            assertEquals(Event.NAME, reader.peek());
+            assertEquals("a", reader.nextName());
+            assertEquals(Event.START_ARRAY, reader.nextToken());
+            assertEquals(1, reader.nextLong());
+            assertEquals("x", reader.nextString());
+            assertFalse(reader.hasNext());
+            assertEquals(Event.END_ARRAY, reader.nextToken());
+            assertEquals(Event.NAME, reader.nextToken());
+            assertEquals(Event.START_OBJECT, reader.nextToken());
+            assertEquals(Event.END_OBJECT, reader.nextToken());
+            assertEquals(Event.END_OBJECT, reader.nextToken());
+            assertEquals(Event.END_DOCUMENT, reader.nextToken());
+            assertEquals(Event.END_DOCUMENT, reader.nextToken());
+        }
+    }
+    
+    @Test
+    void typedValues() throws Exception {
+        for (JSONReader reader : readers("[\"s\", 2, 2.0, 2.5, true, null]")) {
+            reader.nextToken();
+            assertEquals("s", reader.nextString());
+            assertEquals(2, reader.nextLong());
+            assertEquals(2, reader.nextLong());
+            assertEquals(2.5, reader.nextDouble());
+            assertTrue(reader.nextBoolean());
+            reader.nextNull();
+            assertEquals(Event.END_ARRAY, reader.nextToken());
+        }
+    }
+    
+    @Test
+    void mismatchDoesNotConsume() throws Exception {
+        for (JSONReader reader : readers("[2.5, \"s\"]")) {
+            reader.nextToken();
+            assertThrows(IllegalStateException.class, reader::nextLong);
+            assertThrows(IllegalStateException.class, reader::nextString);
+            assertThrows(IllegalStateException.class, reader::nextName);
+            assertEquals(2.5, reader.nextDouble());
+            assertThrows(IllegalStateException.class, reader::nextDouble);
+            assertEquals("s", reader.nextString());
+            assertThrows(IllegalStateException.class, reader::skipValue);
+        }
+    }
+    
+    @Test
+    void integralDoublesBeyondTheRangeOfLong() throws Exception {
+        for (JSONReader reader : readers("[9.2233720368547748e18, -9.223372036854775808e18, 9.223372036854775808e18, -1e19, 1e400]")) {
+            reader.nextToken();
+            assertEquals(9223372036854774784L, reader.nextLong());
+            assertEquals(Long.MIN_VALUE, reader.nextLong());
+            ParseException e = assertThrows(ParseException.class, reader::nextLong);
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, e.getErrorType());
+            assertEquals(50, e.getPosition());
+            assertEquals(0x1p63, reader.nextDouble());
+            assertThrows(ParseException.class, reader::nextLong);
+            assertEquals(-1e19, reader.nextDouble());
+            assertThrows(ParseException.class, reader::nextLong);
+            assertEquals(Double.POSITIVE_INFINITY, reader.nextDouble());
+        }
+    }
+    
+    @Test
+    void skipValue() throws Exception {
+        for (JSONReader reader : readers("{\"a\":{\"b\":[1,[2],{}]},\"c\":3,\"d\":[]}")) {
+            reader.nextToken();
+            reader.skipValue();
+            assertEquals("c", reader.nextName());
+            assertEquals(3, reader.nextLong());
+            assertEquals("d", reader.nextName());
+            reader.skipValue();
+            assertEquals(Event.END_OBJECT, reader.nextToken());
+        }
+    }
+    
+    @Test
+    void deepNesting() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("[{\"a\":");
+        }
+        sb.append("1");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("}]");
+        }
+        for (JSONReader reader : readers(sb.toString())) {
+            assertEquals(sb.toString(), JSONValue.toJSONString(read(reader)));
+            assertEquals(Event.END_DOCUMENT, reader.peek());
+        }
+    }
+    
+    @Test
+    void strict() throws Exception {
+        String[] inputs = { "[1 2]", "[1,]", "[,1]", "{\"a\" 1}", "{\"a\":1,}", "{1:2}", "{\"a\":1 \"b\":2}", "[1]]", "1 2", "[" };
+        for (String input : inputs) {
+            for (JSONReader reader : readers(input)) {
+                assertThrows(ParseException.class, () -> {
+                    read(reader);
+                    reader.nextToken();
+                }, input);
+            }
+        }
+    }
+    
+    @Test
+    void errorPosition() throws Exception {
+        for (JSONReader reader : readers("[1,]")) {
+            reader.nextToken();
+            reader.nextLong();
+            ParseException e = assertThrows(ParseException.class, reader::peek);
+            assertEquals(3, e.getPosition());
+        }
+    }
+    
+    @Test
+    void sameValuesAsJSONParser() throws Exception {
+        RandomDocuments documents = new RandomDocuments(5);
+        for (int i = 0; i < 500; i++) {
+            String s = documents.valid(5);
+            Object expected = new JSONParser().parse(s);
+            for (JSONReader reader : readers(s)) {
+                assertEquals(expected, read(reader), s);
+                assertEquals(Event.END_DOCUMENT, reader.nextToken());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * With a key cache, JSONParser returns one String instance for the keys with the same characters. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class KeyCacheTest {
+    
+    private static String key(Object object) {
+        return (String) ((Map<?, ?>) object).keySet().iterator().next();
+    }
+    
+    private static Object parseBytes(JSONParser parser, String s) throws ParseException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(b, 0, b.length);
+    }
+    
+    @Test
+    void size() {
+        JSONParser parser = new JSONParser();
+        assertEquals(0, parser.getKeyCacheSize());
+        parser.setKeyCacheSize(100);
+        assertEquals(128, parser.getKeyCacheSize());
+        parser.setKeyCacheSize(64);
+        assertEquals(64, parser.getKeyCacheSize());
+        parser.setKeyCacheSize(0);
+        assertEquals(0, parser.getKeyCacheSize());
+        assertThrows(IllegalArgumentException.class, () -> parser.setKeyCacheSize(-1));
+    }
+    
+    @Test
+    void repeatedKeysAreOneInstance() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setKeyCacheSize(64);
+        String key = key(parser.parse("{\"id\":1}"));
+        assertSame(key, key(parser.parse("{\"id\":2}")));
+        assertSame(key, key(parseBytes(parser, "{\"id\":3}")));
+        assertSame(key, key(parser.parse("{\"i\\u0064\":4}")));
+        assertEquals("id", key);
+    }
+    
+    @Test
+    void withoutCacheKeysAreCopies() throws Exception {
+        JSONParser parser = new JSONParser();
+        assertNotSame(key(parser.parse("{\"id\":1}")), key(parser.parse("{\"id\":2}")));
+    }
+    
+    @Test
+    void longKeysAreNotCached() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setKeyCacheSize(64);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= KeyCache.MAX_KEY_LENGTH; i++) {
+            sb.append('k');
+        }
+        String s = "{\"" + sb + "\":1}";
+        String key = key(parser.parse(s));
+        assertEquals(sb.toString(), key);
+        assertNotSame(key, key(parser.parse(s)));
+    }
+    
+    @Test
+    void collidingKeysKeepTheirValues() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setKeyCacheSize(1);
+        Map<?, ?> object = (Map<?, ?>) parser.parse("{\"a\":1,\"b\":2,\"a\":3,\"é\":4}");
+        assertEquals(3, object.size());
+        assertEquals(Long.valueOf(3), object.get("a"));
+        assertEquals(Long.valueOf(2), object.get("b"));
+        assertEquals(Long.valueOf(4), object.get("é"));
+    }
+    
+    @Test
+    void valuesAreNotCached() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setKeyCacheSize(64);
+        Map<?, ?> object = (Map<?, ?>) parser.parse("{\"id\":\"id\"}");
+        assertEquals("id", object.get("id"));
+        assertNotSame(key(object), object.get("id"));
+    }
+}
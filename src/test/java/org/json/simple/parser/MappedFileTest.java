@@ -0,0 +1,112 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * JSONParser parses memory-mapped files as it parses the same bytes in memory. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class MappedFileTest {
+    
+    @TempDir
+    Path dir;
+    
+    private Path write(String s) throws IOException {
+        Path file = Files.createTempFile(dir, "test", ".json");
+        Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+    
+    @Test
+    void sameAsBytes() throws Exception {
+        RandomDocuments documents = new RandomDocuments(4);
+        for (int i = 0; i < 200; i++) {
+            String s = i % 2 == 0 ? documents.valid(5) : documents.mutated(5);
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            Path file = write(s);
+            assertEquals(Outcome.of(() -> new JSONParser().parse(b, 0, b.length)), Outcome.of(() -> new JSONParser().parse(file)), s);
+        }
+    }
+    
+    @Test
+    void smallWindows() throws Exception {
+        // tokens, escapes and multi-byte characters straddle window edges here as they do in a file larger than a window
+        RandomDocuments documents = new RandomDocuments(5);
+        for (int i = 0; i < 200; i++) {
+            String s = i % 2 == 0 ? documents.valid(5) : documents.mutated(5);
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            Path file = write(s);
+            String expected = Outcome.of(() -> new JSONParser().parse(b, 0, b.length));
+            for (int window : new int[] { 3, 4, 7, 64 }) {
+                assertEquals(expected, Outcome.of(() -> new JSONParser(window).parse(file)), window + " " + s);
+            }
+        }
+    }
+    
+    @Test
+    void numbersEndingAtWindowEdges() throws Exception {
+        // a number without digits after its '.' or 'e' ends before them, which may be in the previous window
+        for (String number : new String[] { "1.", "12e", "1.5e+", "3E-", "1.25", "6e+7", "-0.5E2" }) {
+            for (int padding = 0; padding < 8; padding++) {
+                String s = "[" + "        ".substring(padding) + number + ",2]";
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                Path file = write(s);
+                String expected = Outcome.of(() -> new JSONParser().parse(b, 0, b.length));
+                for (int window = 3; window <= 8; window++) {
+                    int w = window;
+                    assertEquals(expected, Outcome.of(() -> new JSONParser(w).parse(file)), window + " " + s);
+                }
+            }
+        }
+        assertEquals("error 10 0 .", Outcome.of(() -> new JSONParser(3).parse(write("[        1.,2]"))));
+    }
+    
+    @Test
+    void errorInALaterWindow() throws Exception {
+        Path file = write("{\"é\":[1, 2, 3, \"\\u00e9\", 4.5e1, :]}");
+        assertEquals("error 33 1 COLON(:)", Outcome.of(() -> new JSONParser(4).parse(file)));
+        assertEquals("error 33 1 COLON(:)", Outcome.of(() -> new JSONParser().parse(file)));
+    }
+    
+    @Test
+    void emptyFile() throws Exception {
+        Path file = write("");
+        assertEquals("error 0 1 END OF FILE", Outcome.of(() -> new JSONParser().parse(file)));
+    }
+    
+    @Test
+    void contentHandler() throws Exception {
+        Path file = write("{\"a\":[1,\"é\"]}");
+        RecordingHandler handler = new RecordingHandler();
+        new JSONParser().parse(file, handler);
+        assertEquals("[startJSON, {, a:, [, 1, é, ], ;, }, endJSON]", handler.events.toString());
+    }
+    
+    @Test
+    void channelIsReadFromItsPositionAndCanBeResumed() throws Exception {
+        Path file = write("xx[1,2,3]");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(2);
+            JSONParser parser = new JSONParser();
+            RecordingHandler handler = new RecordingHandler(true);
+            parser.parse(channel, handler, false);
+            assertEquals("[startJSON, [, 1]", handler.events.toString());
+            parser.parse(channel, handler, true);
+            assertEquals("[startJSON, [, 1, 2]", handler.events.toString());
+            parser.parse(channel, handler, true);
+            parser.parse(channel, handler, true);
+            assertEquals("[startJSON, [, 1, 2, 3, ], endJSON]", handler.events.toString());
+            assertEquals(2, channel.position());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.simple.JSONValue;
+import org.json.simple.NDJSONWriter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * NDJSONWriter writes one record per line, and NDJSONReader reads them back from characters, bytes and byte buffers. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class NDJSONTest {
+    
+    /**
+     * @return Random records, written one per line as NDJSON requires.
+     */
+    private static List<Object> records(long seed, int count) throws ParseException {
+        RandomDocuments documents = new RandomDocuments(seed);
+        List<Object> records = new ArrayList<Object>();
+        for (int i = 0; i < count; i++) {
+            records.add(new JSONParser().parse(documents.valid(4)));
+        }
+        return records;
+    }
+    
+    private static String write(List<Object> records, int bufferSize) throws Exception {
+        StringWriter out = new StringWriter();
+        try (NDJSONWriter writer = new NDJSONWriter(out, bufferSize)) {
+            writer.writeAll(records);
+        }
+        return out.toString();
+    }
+    
+    private static List<Object> read(NDJSONReader reader) {
+        List<Object> records = new ArrayList<Object>();
+        reader.forEachRemaining(records::add);
+        return records;
+    }
+    
+    private static ByteBuffer direct(String s, int position) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(position + b.length);
+        buffer.position(position);
+        buffer.put(b);
+        buffer.position(position);
+        return buffer;
+    }
+    
+    @Test
+    void roundTrip() throws Exception {
+        List<Object> records = records(11, 500);
+        String text = write(records, 16);
+        assertEquals(500, text.split("\n", -1).length - 1);
+        assertEquals(text, write(records, NDJSONWriter.DEFAULT_BUFFER_SIZE));
+        assertEquals(records, read(new NDJSONReader(new StringReader(text))));
+        assertEquals(records, read(new NDJSONReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))));
+        assertEquals(records, NDJSONReader.stream(direct(text, 3), null, null, false).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void recordsAreWrittenOnFlush() throws Exception {
+        StringWriter out = new StringWriter();
+        NDJSONWriter writer = new NDJSONWriter(out);
+        writer.write(Arrays.asList(1, "a"));
+        writer.write(null);
+        assertEquals("", out.toString());
+        writer.flush();
+        assertEquals("[1,\"a\"]\nnull\n", out.toString());
+    }
+    
+    @Test
+    void recordsAreSeparatedByAnyWhitespace() throws Exception {
+        String text = "{\"a\":1}\n\n  [2] \"s\"\r\n3\n";
+        NDJSONReader reader = new NDJSONReader(new StringReader(text));
+        assertTrue(reader.hasNext());
+        assertTrue(reader.hasNext());
+        assertEquals("[{\"a\":1}, [2], \"s\", 3]", read(reader).stream().map(JSONValue::toJSONString).collect(Collectors.toList()).toString());
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+    
+    @Test
+    void errors() {
+        String text = "{\"a\":1}\n{\"a\":[2:]}\n";
+        for (NDJSONReader reader : new NDJSONReader[] { new NDJSONReader(new StringReader(text)), new NDJSONReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))) }) {
+            reader.next();
+            UncheckedParseException e = assertThrows(UncheckedParseException.class, reader::next);
+            assertSame(e.getCause(), e.getParseException());
+            assertEquals(15, e.getParseException().getPosition());
+        }
+    }
+    
+    @Test
+    void streamClosesTheReader() {
+        AtomicBoolean closed = new AtomicBoolean();
+        StringReader in = new StringReader("1 2 3") {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        try (Stream<Object> stream = new NDJSONReader(in).stream()) {
+            assertEquals(Arrays.asList(1L, 2L, 3L), stream.collect(Collectors.toList()));
+            assertFalse(closed.get());
+        }
+        assertTrue(closed.get());
+    }
+    
+    @Test
+    void parallelStream() throws Exception {
+        List<Object> records = records(12, 20000);
+        String text = write(records, NDJSONWriter.DEFAULT_BUFFER_SIZE);
+        assertTrue(text.length() > 4 << 16);
+        ByteBuffer buffer = direct(text, 5);
+        JSONParser settings = new JSONParser();
+        settings.setNumberPolicy(NumberPolicy.LAZY);
+        assertEquals(records.toString(), NDJSONReader.stream(buffer, settings, null, true).collect(Collectors.toList()).toString());
+        assertEquals(5, buffer.position());
+        assertEquals(records, NDJSONReader.stream(buffer, null, null, true).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void parallelStreamErrorPositions() throws Exception {
+        String text = write(records(13, 20000), NDJSONWriter.DEFAULT_BUFFER_SIZE);
+        int at = text.lastIndexOf('\n', text.length() - 2) + 1;
+        String broken = text.substring(0, at) + "[1,:]\n";
+        int expected = broken.substring(0, at).getBytes(StandardCharsets.UTF_8).length + 3;
+        // a worker thread of a parallel stream throws the exception more often than not, and it must reach the caller as thrown
+        for (int i = 0; i < 20; i++) {
+            boolean parallel = i > 0;
+            UncheckedParseException e = assertThrows(UncheckedParseException.class, () -> NDJSONReader.stream(direct(broken, 2), null, null, parallel).count());
+            assertEquals(expected, e.getParseException().getPosition());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONParser keeps the state of the open containers on stacks that grow with the nesting depth and are reused by the next parse. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class NestingTest {
+    
+    private static final int DEPTH = 100000;
+    
+    private static String nested(int depth, String value) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append(i % 2 == 0 ? "[" : "{\"k\":");
+        }
+        sb.append(value);
+        for (int i = depth - 1; i >= 0; i--) {
+            sb.append(i % 2 == 0 ? "]" : "}");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * @return The nesting depth of a parsed value, and checks its innermost value.
+     */
+    private static int depth(Object value, Object innermost) {
+        int depth = 0;
+        while (value instanceof List || value instanceof Map) {
+            value = value instanceof List ? ((List<?>) value).get(0) : ((Map<?, ?>) value).get("k");
+            depth++;
+        }
+        assertEquals(innermost, value);
+        return depth;
+    }
+    
+    @Test
+    void deepDocument() throws Exception {
+        JSONParser parser = new JSONParser();
+        assertEquals(DEPTH, depth(parser.parse(nested(DEPTH, "1")), Long.valueOf(1)));
+        assertEquals(3, depth(parser.parse(nested(3, "\"x\"")), "x"));
+    }
+    
+    @Test
+    void deepDocumentWithContentHandler() throws Exception {
+        int[] depths = new int[2];
+        new JSONParser().parse(nested(DEPTH, "1"), new RecordingHandler() {
+            @Override
+            boolean record(String event) {
+                if (event.equals("[") || event.equals("{")) depths[1] = Math.max(depths[1], ++depths[0]);
+                if (event.equals("]") || event.equals("}")) depths[0]--;
+                return true;
+            }
+        });
+        assertEquals(0, depths[0]);
+        assertEquals(DEPTH, depths[1]);
+    }
+    
+    @Test
+    void stacksAreEmptiedByTheNextParse() throws Exception {
+        JSONParser parser = new JSONParser();
+        String truncated = nested(50, "1").substring(0, 150);
+        assertThrows(ParseException.class, () -> parser.parse(truncated));
+        assertEquals(Long.valueOf(7), parser.parse("7"));
+        assertEquals(50, depth(parser.parse(nested(50, "2")), Long.valueOf(2)));
+        assertThrows(ParseException.class, () -> parser.parse("[1]]"));
+        assertEquals(2, depth(parser.parse(nested(2, "null")), null));
+    }
+    
+    @Test
+    void unbalancedDocuments() {
+        String[] inputs = { "]", "[}", "{\"a\":1]", "[[1]", "[1]}", "{\"a\":[1}" };
+        for (String input : inputs) {
+            assertThrows(ParseException.class, () -> new JSONParser().parse(input), input);
+            assertThrows(ParseException.class, () -> new JSONParser().parse(input, new RecordingHandler()), input);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * NumberParser decodes number tokens and unicode escapes as Long.parseLong, Double.parseDouble and Integer.parseInt do. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class NumberParserTest {
+    
+    private static long parseLong(String s) {
+        char[] chars = ("xx" + s + "yy").toCharArray();
+        return NumberParser.parseLong(chars, 2, s.length());
+    }
+    
+    private static double parseDouble(String s) {
+        char[] chars = ("xx" + s + "yy").toCharArray();
+        return NumberParser.parseDouble(chars, 2, s.length());
+    }
+    
+    private static void assertSameDouble(String s) {
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(parseDouble(s)), s);
+    }
+    
+    @Test
+    void longs() {
+        String[] inputs = { "0", "-0", "7", "-7", "999999999999999999", "-999999999999999999", "1000000000000000000", "9223372036854775807", "-9223372036854775808" };
+        for (String s : inputs) {
+            assertEquals(Long.parseLong(s), parseLong(s), s);
+        }
+        assertThrows(NumberFormatException.class, () -> parseLong("9223372036854775808"));
+        assertThrows(NumberFormatException.class, () -> parseLong("-9223372036854775809"));
+    }
+    
+    @Test
+    void doubles() {
+        String[] inputs = { "0.0", "-0.0", "0e5", "1.5", "-1.5", "0.1", "0.3", "123.456", "1e22", "1e23", "1e-22", "1e-23", "9007199254740992.0", "9007199254740993.0", "1.7976931348623157e308", "1e309", "4.9e-324",
+                "1e-400", "2.2250738585072014E-308", "0.000000000000000000000000000001", "123456789012345678901234567890.5", "1E+2", "1E-2", "5e0", "00.5", "1.00000000000000000000" };
+        for (String s : inputs) {
+            assertSameDouble(s);
+        }
+    }
+    
+    @Test
+    void randomDoubles() {
+        Random random = new Random(8);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextBoolean()) sb.append('-');
+            sb.append(random.nextInt(5) == 0 ? 0 : random.nextInt(1000000));
+            if (random.nextInt(4) != 0) {
+                sb.append('.');
+                int digits = 1 + random.nextInt(18);
+                for (int k = 0; k < digits; k++) {
+                    sb.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            if (random.nextInt(3) == 0) sb.append(random.nextBoolean() ? 'e' : 'E').append(random.nextBoolean() ? "-" : random.nextBoolean() ? "+" : "").append(random.nextInt(40));
+            assertSameDouble(sb.toString());
+            assertSameDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(60) - 30)));
+        }
+    }
+    
+    @Test
+    void randomLongs() {
+        Random random = new Random(9);
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            assertEquals(value, parseLong(Long.toString(value)));
+        }
+    }
+    
+    @Test
+    void hex() {
+        char[] chars = "x00e9ABCDg123".toCharArray();
+        assertEquals(0xe9, NumberParser.parseHex4(chars, 1));
+        assertEquals(0xABCD, NumberParser.parseHex4(chars, 5));
+        assertEquals(-1, NumberParser.parseHex4(chars, 9));
+        assertEquals(-1, NumberParser.hexDigit('G'));
+        assertEquals(15, NumberParser.hexDigit('f'));
+    }
+    
+    @Test
+    void unicodeEscapes() throws Exception {
+        assertEquals("é😀\u0000A", new JSONParser().parse("\"\\u00e9\\uD83D\\ude00\\u0000\\u0041\""));
+        // an escape with a character that is not a hexadecimal digit is kept as it is
+        assertEquals("ab\\u00g9", new JSONParser().parse("\"ab\\u00g9\""));
+    }
+}
@@ -0,0 +1,94 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.json.simple.JSONNumber;
+import org.json.simple.JSONValue;
+import org.json.simple.NumericJSONArray;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONParser.setNumberPolicy(NumberPolicy) chooses how numbers are represented, on every input. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class NumberPolicyTest {
+    
+    private static final String NUMBERS = "[1,2,123456789012345678901234567890,0.1000000000000000055511151231257827,1.50,-0,2E-3]";
+    
+    private static JSONParser parser(NumberPolicy policy, boolean numericArrays) {
+        JSONParser parser = new JSONParser();
+        parser.setNumberPolicy(policy);
+        parser.setNumericArrays(numericArrays);
+        return parser;
+    }
+    
+    private static List<?> parseBoth(JSONParser parser, String s) throws Exception {
+        List<?> fromChars = (List<?>) parser.parse(s);
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        List<?> fromBytes = (List<?>) parser.parse(b, 0, b.length);
+        assertEquals(fromChars, fromBytes);
+        return fromChars;
+    }
+    
+    @Test
+    void longOrDouble() throws Exception {
+        List<?> values = parseBoth(new JSONParser(), "[1,-2.5,1e3]");
+        assertEquals(Long.valueOf(1), values.get(0));
+        assertEquals(Double.valueOf(-2.5), values.get(1));
+        assertEquals(Double.valueOf(1000), values.get(2));
+        assertThrows(NumberFormatException.class, () -> new JSONParser().parse("123456789012345678901234567890"));
+    }
+    
+    @Test
+    void bigDecimal() throws Exception {
+        for (boolean numericArrays : new boolean[] { false, true }) {
+            List<?> values = parseBoth(parser(NumberPolicy.BIG_DECIMAL, numericArrays), NUMBERS);
+            assertEquals(BigInteger.ONE, values.get(0));
+            assertEquals(new BigInteger("123456789012345678901234567890"), values.get(2));
+            assertEquals(new BigDecimal("0.1000000000000000055511151231257827"), values.get(3));
+            assertEquals(new BigDecimal("1.50"), values.get(4));
+            assertEquals("[1,2,123456789012345678901234567890,0.1000000000000000055511151231257827,1.50,0,0.002]", JSONValue.toJSONString(values));
+        }
+    }
+    
+    @Test
+    void lazy() throws Exception {
+        for (boolean numericArrays : new boolean[] { false, true }) {
+            List<?> values = parseBoth(parser(NumberPolicy.LAZY, numericArrays), NUMBERS);
+            for (Object value : values) {
+                assertTrue(value instanceof JSONNumber, String.valueOf(value));
+            }
+            assertEquals(NUMBERS, JSONValue.toJSONString(values));
+            assertEquals(new BigDecimal("1.50"), ((JSONNumber) values.get(4)).bigDecimalValue());
+        }
+    }
+    
+    @Test
+    void numericArraysStoreOnlyLongsAndDoublesUnboxed() throws Exception {
+        NumericJSONArray longs = (NumericJSONArray) parseBoth(parser(NumberPolicy.LONG_OR_DOUBLE, true), "[1,2,3]");
+        assertTrue(longs.isLongArray());
+        NumericJSONArray exact = (NumericJSONArray) parseBoth(parser(NumberPolicy.BIG_DECIMAL, true), "[1,2,3]");
+        assertFalse(exact.isLongArray());
+        assertEquals(BigInteger.valueOf(3), exact.get(2));
+        NumericJSONArray lazy = (NumericJSONArray) parseBoth(parser(NumberPolicy.LAZY, true), "[1,2,3]");
+        assertFalse(lazy.isDoubleArray());
+        assertEquals("[1,2,3]", lazy.toJSONString());
+    }
+    
+    @Test
+    void policyAppliesToEveryScanner() throws Exception {
+        JSONParser parser = parser(NumberPolicy.BIG_DECIMAL, false);
+        parser.setStructuralIndexing(true);
+        byte[] b = "[1.50]".getBytes(StandardCharsets.UTF_8);
+        assertEquals(new BigDecimal("1.50"), ((List<?>) parser.parse(b, 0, b.length)).get(0));
+        assertEquals(new BigDecimal("1.50"), ((List<?>) parser.parseLazy("[1.50]")).get(0));
+    }
+}
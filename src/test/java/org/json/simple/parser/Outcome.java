@@ -0,0 +1,48 @@
+package org.json.simple.parser;
+
+import java.nio.charset.StandardCharsets;
+
+import org.json.simple.JSONValue;
+
+/**
+ * Describes the outcome of a parse as a string, so that the outcomes of different parsing paths can be compared with assertEquals: the value as JSON text, or the position, type and unexpected object of a ParseException, or
+ * the class of any other exception. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class Outcome {
+    
+    /**
+     * A parse to describe.
+     */
+    interface Parse {
+        Object run() throws Exception;
+    }
+    
+    private Outcome() {
+    }
+    
+    static String of(Parse parse) {
+        try {
+            return "value " + JSONValue.toJSONString(parse.run());
+        } catch (ParseException e) {
+            return "error " + e.getPosition() + " " + e.getErrorType() + " " + e.getUnexpectedObject();
+        } catch (Exception e) {
+            return "exception " + e.getClass().getName();
+        }
+    }
+    
+    /**
+     * Describes a parse of UTF-8 encoded input, with the byte offsets of errors turned into character offsets as a Reader over the decoded input would report them. <p>
+     * @param input the input of the parse.
+     */
+    static String of(byte[] input, Parse parse) {
+        try {
+            return "value " + JSONValue.toJSONString(parse.run());
+        } catch (ParseException e) {
+            int position = new String(input, 0, Math.min(e.getPosition(), input.length), StandardCharsets.UTF_8).length();
+            return "error " + position + " " + e.getErrorType() + " " + e.getUnexpectedObject();
+        } catch (Exception e) {
+            return "exception " + e.getClass().getName();
+        }
+    }
+}
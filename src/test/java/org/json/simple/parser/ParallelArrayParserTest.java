@@ -0,0 +1,100 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * JSONParser.parseArrayParallel gives the result and the errors of the sequential parse. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class ParallelArrayParserTest {
+    
+    private static ForkJoinPool pool;
+    
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(2);
+    }
+    
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+    
+    /**
+     * @return an array of random elements, large enough to be cut into several chunks, with the given text inserted as an element at each of the given fractions of its length.
+     */
+    private static String largeArray(long seed, String[] inserts, double[] at) {
+        RandomDocuments documents = new RandomDocuments(seed);
+        int size = 3 * ParallelArrayParser.MIN_CHUNK_SIZE;
+        StringBuilder sb = new StringBuilder(size + 1024).append('[');
+        int next = 0;
+        while (sb.length() < size) {
+            if (sb.length() > 1) sb.append(",\n");
+            if (next < at.length && sb.length() >= at[next] * size)
+                sb.append(inserts[next++]);
+            else
+                sb.append(documents.valid(3));
+        }
+        return sb.append(']').toString();
+    }
+    
+    private static void assertSameAsSequential(String s) {
+        ByteBuffer in = ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+        String expected = Outcome.of(() -> new JSONParser().parse(in));
+        assertEquals(expected, Outcome.of(() -> new JSONParser().parseArrayParallel(in, null, pool)));
+    }
+    
+    @Test
+    void largeArray() throws Exception {
+        String s = largeArray(1, new String[0], new double[0]);
+        ByteBuffer in = ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+        List<?> parallel = (List<?>) new JSONParser().parseArrayParallel(in, null, pool);
+        assertTrue(parallel.size() > 1000);
+        assertEquals(JSONValue.toJSONString(new JSONParser().parse(s)), JSONValue.toJSONString(parallel));
+        assertEquals(0, in.position());
+    }
+    
+    @Test
+    void settingsAreUsedByTheTasks() throws Exception {
+        String s = largeArray(2, new String[] { "123456789012345678901234567890" }, new double[] { 0.9 });
+        JSONParser parser = new JSONParser();
+        parser.setNumberPolicy(NumberPolicy.LAZY);
+        Object parallel = parser.parseArrayParallel(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)), null, pool);
+        assertEquals(JSONValue.toJSONString(parser.parse(s)), JSONValue.toJSONString(parallel));
+    }
+    
+    @Test
+    void errorsAreThoseOfTheSequentialParse() {
+        assertSameAsSequential(largeArray(3, new String[] { "[1:2]" }, new double[] { 0.7 }));
+        assertSameAsSequential(largeArray(5, new String[] { "123456789012345678901234567890" }, new double[] { 0.5 }));
+        assertSameAsSequential(largeArray(7, new String[0], new double[0]) + "]");
+    }
+    
+    @Test
+    void overflowInALaterChunkDoesNotHideAnEarlierError() {
+        // the sequential parse stops at the syntax error; the task of the last chunk meets the overflow
+        assertSameAsSequential(largeArray(8, new String[] { "[1:2]", "123456789012345678901234567890" }, new double[] { 0.1, 0.9 }));
+    }
+    
+    @Test
+    void file(@TempDir Path dir) throws Exception {
+        String s = largeArray(9, new String[0], new double[0]);
+        Path file = dir.resolve("array.json");
+        Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+        assertEquals(JSONValue.toJSONString(new JSONParser().parse(s)), JSONValue.toJSONString(new JSONParser().parseArrayParallel(file, null, pool)));
+    }
+}
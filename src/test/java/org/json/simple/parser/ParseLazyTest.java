@@ -0,0 +1,82 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONParser.parseLazy(String) accepts the texts parse(String) accepts, and reads containers only when they are accessed. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class ParseLazyTest {
+    
+    private static JSONParser parser(NumberPolicy policy) {
+        JSONParser parser = new JSONParser();
+        parser.setNumberPolicy(policy);
+        return parser;
+    }
+    
+    @Test
+    void containersAreReadOnAccess() throws Exception {
+        String s = "{\"a\": {\"b\": [1, 2]}, \"c\": [ true ,null ]}";
+        LazyJSONObject root = (LazyJSONObject) new JSONParser().parseLazy(s);
+        assertFalse(root.isMaterialized());
+        assertEquals(s, root.toJSONString());
+        LazyJSONArray c = (LazyJSONArray) root.get("c");
+        assertTrue(root.isMaterialized());
+        LazyJSONObject a = (LazyJSONObject) root.get("a");
+        assertFalse(a.isMaterialized());
+        assertEquals(2, c.size());
+        assertEquals("{\"b\": [1, 2]}", a.toJSONString());
+        assertEquals(new JSONParser().parse(s), root);
+    }
+    
+    @Test
+    void scalarsAreParsedEagerly() throws Exception {
+        assertEquals("x", new JSONParser().parseLazy("\"x\""));
+        assertEquals(Long.valueOf(1), new JSONParser().parseLazy(" 1 "));
+    }
+    
+    @Test
+    void numbersFollowThePolicy() throws Exception {
+        assertEquals(new BigDecimal("1.50"), ((LazyJSONArray) parser(NumberPolicy.BIG_DECIMAL).parseLazy("[1.50]")).get(0));
+    }
+    
+    @Test
+    void numbersThePolicyCannotConvertAreRejected() throws Exception {
+        String overflow = "[123456789012345678901234567890]";
+        assertThrows(NumberFormatException.class, () -> new JSONParser().parse(overflow));
+        assertThrows(NumberFormatException.class, () -> new JSONParser().parseLazy(overflow));
+        String scale = "[2E-212345678901234567890123]";
+        assertThrows(NumberFormatException.class, () -> parser(NumberPolicy.BIG_DECIMAL).parse(scale));
+        assertThrows(NumberFormatException.class, () -> parser(NumberPolicy.BIG_DECIMAL).parseLazy(scale));
+        // JSONNumber converts nothing, and BigInteger has no range to overflow
+        assertEquals("[2E-212345678901234567890123]", ((LazyJSONArray) parser(NumberPolicy.LAZY).parseLazy(scale)).toJSONString());
+        assertEquals(1, ((LazyJSONArray) parser(NumberPolicy.BIG_DECIMAL).parseLazy(overflow)).size());
+    }
+    
+    @Test
+    void acceptsWhatParseAccepts() throws Exception {
+        RandomDocuments documents = new RandomDocuments(3);
+        for (int i = 0; i < 2000; i++) {
+            String valid = documents.valid(4);
+            String mutated = documents.mutated(4);
+            for (NumberPolicy policy : NumberPolicy.values()) {
+                for (String s : new String[] { valid, mutated }) {
+                    JSONParser parser = parser(policy);
+                    String expected = Outcome.of(() -> parser.parse(s));
+                    if (expected.startsWith("value "))
+                        // comparing the values reads the lazy containers
+                        assertEquals(parser.parse(s), parser.parseLazy(s), s);
+                    else
+                        assertEquals(expected, Outcome.of(() -> parser.parseLazy(s)), s);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JSONParser.parseNext() reads concatenated values one at a time. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class ParseNextTest {
+    
+    private static final String VALUES = "{\"a\":1}{\"b\":[2]} [3]\n\"s\" null 4.5 true";
+    private static final String EXPECTED = "[{\"a\":1}, {\"b\":[2]}, [3], \"s\", null, 4.5, true]";
+    
+    private static String readAll(JSONParser parser) throws Exception {
+        List<String> values = new ArrayList<String>();
+        for (Object value = parser.parseNext(); !parser.isEndOfInput(); value = parser.parseNext())
+            values.add(JSONValue.toJSONString(value));
+        return values.toString();
+    }
+    
+    @Test
+    void concatenatedValues() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.reset(new StringReader(VALUES));
+        assertEquals(EXPECTED, readAll(parser));
+        parser.reset(new ByteArrayInputStream(VALUES.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(EXPECTED, readAll(parser));
+        parser.reset(ByteBuffer.wrap(VALUES.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(EXPECTED, readAll(parser));
+    }
+    
+    @Test
+    void endOfInputIsNotANullValue() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.reset(new StringReader(" null "));
+        assertNull(parser.parseNext());
+        assertFalse(parser.isEndOfInput());
+        assertNull(parser.parseNext());
+        assertTrue(parser.isEndOfInput());
+    }
+    
+    @Test
+    void nothingIsReadAfterAValue() throws Exception {
+        // a connection that has delivered one value and then fails if it is read again
+        Reader connection = new Reader() {
+            private boolean sent = false;
+            
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (sent) throw new IOException("blocked");
+                sent = true;
+                "{\"a\":[1,2]}".getChars(0, 11, cbuf, off);
+                return 11;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        JSONParser parser = new JSONParser();
+        parser.reset(connection);
+        assertEquals("{\"a\":[1,2]}", JSONValue.toJSONString(parser.parseNext()));
+    }
+    
+    @Test
+    void truncatedStringIsAnError() throws Exception {
+        String[] inputs = { "\"abc", "{\"a\":1}\"abc", "[1] \"" };
+        for (String input : inputs) {
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            String expected = "error " + input.length() + " 1 END OF FILE";
+            JSONParser parser = new JSONParser();
+            parser.reset(new StringReader(input));
+            assertEquals(expected, Outcome.of(() -> readAll(parser)), input);
+            parser.reset(new ByteArrayInputStream(bytes));
+            assertEquals(expected, Outcome.of(() -> readAll(parser)), input);
+            parser.reset(ByteBuffer.wrap(bytes));
+            assertEquals(expected, Outcome.of(() -> readAll(parser)), input);
+            assertEquals(expected, Outcome.of(() -> new JSONParser().parse(input)), input);
+        }
+    }
+    
+    @Test
+    void truncatedRecordOfNDJSONReaderIsAnError() throws Exception {
+        NDJSONReader reader = new NDJSONReader(new StringReader("{\"a\":1}\n\"abc"));
+        assertEquals("{\"a\":1}", JSONValue.toJSONString(reader.next()));
+        UncheckedParseException e = assertThrows(UncheckedParseException.class, reader::hasNext);
+        assertEquals(12, e.getParseException().getPosition());
+    }
+    
+    @Test
+    void errorPositionsCountFromTheStartOfInput() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.reset(new StringReader("[1] [2:]"));
+        parser.parseNext();
+        ParseException e = assertThrows(ParseException.class, parser::parseNext);
+        assertEquals(6, e.getPosition());
+    }
+}
@@ -0,0 +1,142 @@
+package org.json.simple.parser;
+
+import java.util.Random;
+
+/**
+ * Generates random JSON texts for differential tests: valid documents with all kinds of values, and copies of them with a few characters deleted, inserted or replaced, most of which are invalid. <p>
+ * @author Daniel J. Umpiérrez
+ */
+final class RandomDocuments {
+    
+    /** characters inserted by mutations: structural characters, parts of numbers and literals, and a few others */
+    private static final String NOISE = "{}[],:\"\\ .eE+-0123456789tfnulxé";
+    
+    private final Random random;
+    
+    RandomDocuments(long seed) {
+        random = new Random(seed);
+    }
+    
+    /**
+     * @param depth maximum nesting depth.
+     * @return a valid JSON text.
+     */
+    String valid(int depth) {
+        StringBuilder sb = new StringBuilder();
+        value(sb, depth);
+        return sb.toString();
+    }
+    
+    /**
+     * @param depth maximum nesting depth.
+     * @return a valid JSON text with up to three characters deleted, inserted or replaced.
+     */
+    String mutated(int depth) {
+        StringBuilder sb = new StringBuilder(valid(depth));
+        int mutations = 1 + random.nextInt(3);
+        for (int i = 0; i < mutations; i++) {
+            int at = random.nextInt(sb.length() + 1);
+            // surrogate pairs are never split, so the text stays encodable as UTF-8
+            if (at < sb.length() && Character.isLowSurrogate(sb.charAt(at))) at--;
+            int end = at < sb.length() ? sb.offsetByCodePoints(at, 1) : at;
+            char c = NOISE.charAt(random.nextInt(NOISE.length()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.delete(at, end);
+                    break;
+                case 1:
+                    sb.insert(at, c);
+                    break;
+                default:
+                    sb.replace(at, end, String.valueOf(c));
+            }
+        }
+        return sb.toString();
+    }
+    
+    private void value(StringBuilder sb, int depth) {
+        switch (random.nextInt(depth > 0 ? 8 : 6)) {
+            case 0:
+                string(sb);
+                break;
+            case 1:
+                sb.append(random.nextInt(2000) - 1000);
+                break;
+            case 2:
+                sb.append(random.nextLong());
+                break;
+            case 3:
+                number(sb);
+                break;
+            case 4:
+                sb.append(random.nextBoolean() ? "true" : "false");
+                break;
+            case 5:
+                sb.append("null");
+                break;
+            case 6:
+                sb.append('{');
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    whitespace(sb);
+                    string(sb);
+                    whitespace(sb);
+                    sb.append(':');
+                    whitespace(sb);
+                    value(sb, depth - 1);
+                    if (i > 1) sb.append(',');
+                }
+                sb.append('}');
+                break;
+            default:
+                sb.append('[');
+                for (int i = random.nextInt(6); i > 0; i--) {
+                    whitespace(sb);
+                    value(sb, depth - 1);
+                    if (i > 1) sb.append(',');
+                }
+                whitespace(sb);
+                sb.append(']');
+        }
+    }
+    
+    private void number(StringBuilder sb) {
+        if (random.nextBoolean()) sb.append('-');
+        sb.append(random.nextInt(1000));
+        if (random.nextBoolean()) sb.append('.').append(random.nextInt(100000));
+        if (random.nextInt(3) == 0) {
+            sb.append(random.nextBoolean() ? 'e' : 'E');
+            if (random.nextBoolean()) sb.append(random.nextBoolean() ? '+' : '-');
+            sb.append(random.nextInt(300));
+        }
+    }
+    
+    private void string(StringBuilder sb) {
+        sb.append('"');
+        for (int i = random.nextInt(12); i > 0; i--) {
+            switch (random.nextInt(10)) {
+                case 0:
+                    sb.append("\\\"");
+                    break;
+                case 1:
+                    sb.append("\\n");
+                    break;
+                case 2:
+                    sb.append("\\u00e9");
+                    break;
+                case 3:
+                    sb.append('ü');
+                    break;
+                case 4:
+                    sb.append("😀");
+                    break;
+                default:
+                    sb.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        sb.append('"');
+    }
+    
+    private void whitespace(StringBuilder sb) {
+        if (random.nextInt(4) == 0) sb.append(random.nextBoolean() ? " " : "\n\t");
+    }
+}
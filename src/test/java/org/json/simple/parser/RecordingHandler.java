@@ -0,0 +1,73 @@
+package org.json.simple.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ContentHandler that records the events it receives, and can stop the parse after each primitive value. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class RecordingHandler implements ContentHandler {
+    
+    final List<String> events = new ArrayList<String>();
+    private final boolean stopAtPrimitives;
+    
+    RecordingHandler() {
+        this(false);
+    }
+    
+    RecordingHandler(boolean stopAtPrimitives) {
+        this.stopAtPrimitives = stopAtPrimitives;
+    }
+    
+    boolean record(String event) {
+        events.add(event);
+        return true;
+    }
+    
+    @Override
+    public void startJSON() {
+        events.add("startJSON");
+    }
+    
+    @Override
+    public void endJSON() {
+        events.add("endJSON");
+    }
+    
+    @Override
+    public boolean startObject() {
+        return record("{");
+    }
+    
+    @Override
+    public boolean endObject() {
+        return record("}");
+    }
+    
+    @Override
+    public boolean startObjectEntry(String key) {
+        return record(key + ":");
+    }
+    
+    @Override
+    public boolean endObjectEntry() {
+        return record(";");
+    }
+    
+    @Override
+    public boolean startArray() {
+        return record("[");
+    }
+    
+    @Override
+    public boolean endArray() {
+        return record("]");
+    }
+    
+    @Override
+    public boolean primitive(Object value) {
+        record(String.valueOf(value));
+        return !stopAtPrimitives;
+    }
+}
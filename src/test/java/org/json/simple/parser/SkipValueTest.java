@@ -0,0 +1,134 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A ContentHandler can have JSONParser skip the value it is notified of the start of. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class SkipValueTest {
+    
+    private static final String TEXT = "{\"skip\":{\"a\":[1,\"]}\"]},\"k\":[\"x\",{\"skip\":\"\\\"\"},[2,{}]],\"skip\":[],\"n\":null}";
+    private static final String EXPECTED = "[startJSON, {, skip:, ;, k:, [, x, {, skip:, ;, }, [, 2, {, }, ], ], ;, skip:, ;, n:, null, ;, }, endJSON]";
+    
+    /**
+     * Skips the values of the entries named skip, and stops the parsing after asking if stop is set.
+     */
+    private static final class Skipper extends RecordingHandler {
+        
+        private final JSONParser parser;
+        private final boolean stop;
+        
+        Skipper(JSONParser parser, boolean stop) {
+            this.parser = parser;
+            this.stop = stop;
+        }
+        
+        @Override
+        public boolean startObjectEntry(String key) {
+            super.startObjectEntry(key);
+            if (!key.equals("skip")) return true;
+            parser.skipValue();
+            return !stop;
+        }
+    }
+    
+    private interface Run {
+        void run(JSONParser parser, Skipper handler, boolean isResume) throws Exception;
+    }
+    
+    private static void assertSkips(Run run) throws Exception {
+        for (boolean stop : new boolean[] { false, true }) {
+            JSONParser parser = new JSONParser();
+            Skipper handler = new Skipper(parser, stop);
+            run.run(parser, handler, false);
+            while (!handler.events.contains("endJSON")) {
+                run.run(parser, handler, true);
+            }
+            assertEquals(EXPECTED, handler.events.toString());
+        }
+    }
+    
+    @Test
+    void skipsEntryValues() throws Exception {
+        byte[] b = TEXT.getBytes(StandardCharsets.UTF_8);
+        assertSkips((parser, handler, isResume) -> parser.parse(TEXT, handler, isResume));
+        ByteArrayInputStream in = new ByteArrayInputStream(b);
+        assertSkips((parser, handler, isResume) -> parser.parse(isResume ? in : resetting(in), handler, isResume));
+    }
+    
+    private static ByteArrayInputStream resetting(ByteArrayInputStream in) {
+        in.reset();
+        return in;
+    }
+    
+    @Test
+    void skipsTheRestOfAContainer() throws Exception {
+        List<String> recorded = new ArrayList<String>();
+        JSONParser parser = new JSONParser();
+        parser.parse("[[1,[2],{\"a\":3}],4,{\"b\":5,\"c\":6}]", new RecordingHandler() {
+            private int depth;
+            
+            @Override
+            boolean record(String event) {
+                recorded.add(event);
+                if (event.equals("[") || event.equals("{")) {
+                    if (++depth == 2) parser.skipValue();
+                } else if (event.equals("]") || event.equals("}")) {
+                    depth--;
+                }
+                return true;
+            }
+        });
+        assertEquals("[[, [, ], 4, {, }, ]]", recorded.toString());
+    }
+    
+    @Test
+    void file(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.json");
+        Files.write(file, TEXT.getBytes(StandardCharsets.UTF_8));
+        JSONParser parser = new JSONParser();
+        Skipper handler = new Skipper(parser, false);
+        parser.parse(file, handler);
+        assertEquals(EXPECTED, handler.events.toString());
+    }
+    
+    @Test
+    void skippedValuesMustBeBalanced() {
+        JSONParser parser = new JSONParser();
+        assertThrows(ParseException.class, () -> parser.parse("{\"skip\":[1,{]}", new Skipper(parser, false)));
+        assertThrows(ParseException.class, () -> parser.parse("{\"skip\":[1,2", new Skipper(parser, false)));
+    }
+    
+    @Test
+    void onlyAtTheStartOfAValue() {
+        JSONParser parser = new JSONParser();
+        assertThrows(IllegalStateException.class, parser::skipValue);
+        assertThrows(IllegalStateException.class, () -> parser.parse("[1]", new RecordingHandler() {
+            @Override
+            public boolean primitive(Object value) {
+                parser.skipValue();
+                return true;
+            }
+        }));
+        assertThrows(IllegalStateException.class, () -> new AsyncJSONParser(parser, new RecordingHandler() {
+            @Override
+            public boolean startArray() {
+                parser.skipValue();
+                return true;
+            }
+        }).feed(ByteBuffer.wrap("[1]".getBytes(StandardCharsets.UTF_8))));
+    }
+}
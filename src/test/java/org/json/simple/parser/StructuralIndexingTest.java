@@ -0,0 +1,89 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The two-stage scan of byte input gives the values, errors and positions of the one-stage scan. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class StructuralIndexingTest {
+    
+    private static JSONParser parser(boolean structuralIndexing) {
+        JSONParser parser = new JSONParser();
+        parser.setStructuralIndexing(structuralIndexing);
+        return parser;
+    }
+    
+    private static String parse(String s, boolean structuralIndexing) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        JSONParser parser = parser(structuralIndexing);
+        return Outcome.of(b, () -> parser.parse(b, 0, b.length));
+    }
+    
+    /**
+     * @return The outcomes of parseNext() until the end of input or an error.
+     */
+    private static String parseAll(String s, boolean structuralIndexing) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(b.length);
+        buffer.put(b).flip();
+        JSONParser parser = parser(structuralIndexing);
+        parser.reset(buffer);
+        List<String> outcomes = new ArrayList<String>();
+        String outcome;
+        do {
+            outcome = Outcome.of(b, parser::parseNext);
+            outcomes.add(outcome);
+        } while (outcome.startsWith("value") && !parser.isEndOfInput());
+        return outcomes.toString();
+    }
+    
+    private static void assertSameAsOneStage(String s) {
+        assertEquals(parse(s, false), parse(s, true), s);
+        assertEquals(parseAll(s, false), parseAll(s, true), s);
+    }
+    
+    @Test
+    void isStructuralIndexing() {
+        assertEquals(false, new JSONParser().isStructuralIndexing());
+        assertTrue(parser(true).isStructuralIndexing());
+    }
+    
+    @Test
+    void blockBoundaries() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append(' ');
+            String padding = sb.toString();
+            assertSameAsOneStage(padding + "{\"a\\\"\\\\\":[1.5e3,\"" + padding + "é\\\\\"]," + padding + "\"b\":true}");
+            assertSameAsOneStage("[\"" + padding + "\\\\\\\"\"," + padding + "null]" + padding + "7");
+            assertSameAsOneStage(padding + "[1," + padding + "x]");
+            assertSameAsOneStage("\"" + padding);
+        }
+    }
+    
+    @Test
+    void randomDocuments() {
+        RandomDocuments documents = new RandomDocuments(10);
+        for (int i = 0; i < 2000; i++) {
+            assertSameAsOneStage(documents.valid(5));
+            assertSameAsOneStage(documents.mutated(5));
+            assertSameAsOneStage(documents.valid(3) + " " + documents.mutated(3));
+        }
+    }
+    
+    @Test
+    void values() throws Exception {
+        String s = "{\"k\" : [ 1 , -2.5 , \"x\\ty\" , true , null , { } ] }";
+        assertEquals(s.replace(" ", ""), JSONValue.toJSONString(parser(true).parse(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)))));
+    }
+}
@@ -0,0 +1,133 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parsing UTF-8 bytes directly must give the values and errors of parsing the decoded characters with a Reader. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class UTF8LexerTest {
+    
+    private static String reader(String s) {
+        return Outcome.of(() -> new JSONParser().parse(new StringReader(s)));
+    }
+    
+    private static String bytes(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return Outcome.of(b, () -> new JSONParser().parse(b, 0, b.length));
+    }
+    
+    private static String directBuffer(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(b.length);
+        buffer.put(b).flip();
+        return Outcome.of(b, () -> new JSONParser().parse(buffer));
+    }
+    
+    /**
+     * @return a stream handing out one byte per read, so that every token is split across refills.
+     */
+    static InputStream trickle(byte[] b) {
+        return new FilterInputStream(new ByteArrayInputStream(b)) {
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                return super.read(buf, off, Math.min(len, 1));
+            }
+        };
+    }
+    
+    private static String stream(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        return Outcome.of(b, () -> new JSONParser().parse(trickle(b)));
+    }
+    
+    private static void assertSameAsReader(String s) {
+        String expected = reader(s);
+        assertEquals(expected, bytes(s), s);
+        assertEquals(expected, directBuffer(s), s);
+        assertEquals(expected, stream(s), s);
+    }
+    
+    @Test
+    void values() {
+        assertEquals("value {\"a\":[1,-2.5,1.0E10,true,false,null,\"x\"]}", bytes("{\"a\":[1,-2.5,1e10,true,false,null,\"x\"]}"));
+        assertSameAsReader(" [ {\"k\" : \"v\"} , [] , {} ] ");
+        assertSameAsReader("\"caf\u00e9 \u65e5\u672c \ud83d\ude00\"");
+        assertSameAsReader("\"\\u00e9\\n\\t\\\"\\\\\\/\\b\\f\\r\"");
+    }
+    
+    @Test
+    void invalidEscapesAreKept() {
+        assertSameAsReader("\"\\x\"");
+        assertSameAsReader("\"\\u12\"");
+        assertSameAsReader("\"\\u12G4\"");
+    }
+    
+    @Test
+    void malformedUTF8IsReplaced() throws Exception {
+        byte[] b = { '"', 'a', (byte) 0xC3, 'b', (byte) 0xFF, '"' };
+        assertEquals("a\ufffdb\ufffd", new JSONParser().parse(b, 0, b.length));
+    }
+    
+    @Test
+    void positionsAreByteOffsets() {
+        byte[] b = "[\"\u00e9\u00e9\", x]".getBytes(StandardCharsets.UTF_8);
+        assertEquals("error 9 0 x", Outcome.of(() -> new JSONParser().parse(b, 0, b.length)));
+    }
+    
+    @Test
+    void errors() {
+        assertSameAsReader("");
+        assertSameAsReader("[1,]");
+        assertSameAsReader("{\"a\" 1}");
+        assertSameAsReader("[tru]");
+        assertSameAsReader("[nul1]");
+        assertSameAsReader("[1 2]");
+        assertSameAsReader("{}}");
+        assertSameAsReader("[-]");
+        assertSameAsReader("92233720368547758070");
+        assertSameAsReader("\"abc");
+        assertSameAsReader("[1]\"abc");
+    }
+    
+    @Test
+    void errorsAreReportedWhereYylexReportsThem() {
+        // the position of a string token is that of its closing quote
+        assertEquals("error 9 1 VALUE(b)", bytes("{\"a\":1}\"b\""));
+        assertSameAsReader("[1]\"b\\\"\"");
+        // a character that cannot start a token is decoded
+        assertEquals("error 1 0 \u00e9", reader("[\u00e9]"));
+        assertSameAsReader("[\u00e9]");
+        assertSameAsReader("[\ud83d\ude00]");
+    }
+    
+    @Test
+    void malformedNumbersFailWhereYylexFails() {
+        assertEquals("error 2 0 .", bytes("[1.]"));
+        assertEquals("error 2 0 e", bytes("[1e+]"));
+        assertEquals("error 1 0 E", bytes("2E,"));
+        String[] numbers = { "1.", "1e", "1e-", "1.e5", "1.5e", "[1ex]", "1.5.3", "[1e5e]", "{\"a\":1e}", "[1.0e-]", "-", "01", "-01" };
+        for (String s : numbers) {
+            assertSameAsReader(s);
+        }
+    }
+    
+    @Test
+    void randomDocuments() {
+        RandomDocuments documents = new RandomDocuments(2);
+        for (int i = 0; i < 3000; i++) {
+            assertSameAsReader(documents.valid(4));
+            assertSameAsReader(documents.mutated(4));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.json.simple.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.simple.JSONArray;
+import org.json.simple.parser.Yytoken.TokenType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The lexers return one reusable token, whose numbers are boxed and strings copied only when its value is asked for. <p>
+ * @author Daniel J. Umpiérrez
+ */
+class YytokenTest {
+    
+    private static final String INPUT = "[12, -1.5, \"ab\\u0063\", true]";
+    
+    private static Lexer[] lexers() {
+        UTF8Lexer utf8Lexer = new UTF8Lexer();
+        byte[] b = INPUT.getBytes(StandardCharsets.UTF_8);
+        utf8Lexer.reset(ByteBuffer.wrap(b));
+        return new Lexer[] { new Yylex(new StringReader(INPUT)), utf8Lexer };
+    }
+    
+    @Test
+    void tokenIsReused() throws Exception {
+        for (Lexer lexer : lexers()) {
+            Yytoken first = lexer.yylex();
+            assertEquals(TokenType.LEFT_SQUARE, first.type);
+            Yytoken token = lexer.yylex();
+            assertSame(first, token);
+            assertTrue(token.isLong());
+            assertEquals(12, token.longValue());
+            assertEquals(12.0, token.doubleValue());
+            assertNull(token.value);
+            
+            assertSame(first, lexer.yylex());
+            assertSame(first, lexer.yylex());
+            assertFalse(token.isLong());
+            assertTrue(token.isNumber());
+            assertEquals(-1.5, token.doubleValue());
+            assertEquals(Double.valueOf(-1.5), token.getValue());
+            assertEquals(Double.valueOf(-1.5), token.value);
+            
+            lexer.yylex();
+            lexer.yylex();
+            assertTrue(token.isString());
+            assertEquals("abc", token.getText().toString());
+            Yytoken copy = token.copy();
+            String value = (String) token.getValue();
+            assertEquals("abc", value);
+            assertSame(value, token.getValue());
+            
+            lexer.yylex();
+            lexer.yylex();
+            assertEquals(Boolean.TRUE, token.getValue());
+            assertEquals(TokenType.VALUE, copy.type);
+            assertEquals("abc", copy.getValue());
+        }
+    }
+    
+    @Test
+    void storedValuesAreNotOverwritten() throws Exception {
+        JSONArray expected = new JSONArray();
+        expected.add(Long.valueOf(12));
+        expected.add(Double.valueOf(-1.5));
+        expected.add("abc");
+        expected.add(Boolean.TRUE);
+        assertEquals(expected, new JSONParser().parse(INPUT));
+        byte[] b = INPUT.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, new JSONParser().parse(b, 0, b.length));
+        RecordingHandler handler = new RecordingHandler();
+        new JSONParser().parse(INPUT, handler);
+        assertEquals("[startJSON, [, 12, -1.5, abc, true, ], endJSON]", handler.events.toString());
+    }
+}